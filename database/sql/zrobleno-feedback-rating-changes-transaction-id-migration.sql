@@ -0,0 +1,19 @@
+-- Migration: follow feedback_rating_changes by transaction id instead of locking it for every append
+-- Existing changes get transaction id 0, which orders them before every new change, so the
+-- service rating cursor keeps its position with transaction id 0. Stop the service module while
+-- running it and update both modules together.
+
+ALTER TABLE IF EXISTS public.feedback_rating_changes
+    ADD COLUMN IF NOT EXISTS transaction_id bigint NOT NULL DEFAULT 0;
+
+ALTER TABLE IF EXISTS public.feedback_rating_changes
+    ALTER COLUMN transaction_id SET DEFAULT pg_current_xact_id()::text::bigint;
+
+CREATE INDEX IF NOT EXISTS feedback_rating_changes_transaction_id_id_idx
+    ON public.feedback_rating_changes (transaction_id, id);
+
+ALTER TABLE IF EXISTS public.service_rating_cursor
+    ADD COLUMN IF NOT EXISTS last_transaction_id bigint NOT NULL DEFAULT 0;
+
+ALTER TABLE IF EXISTS public.service_rating_cursor
+    ALTER COLUMN last_transaction_id DROP DEFAULT;
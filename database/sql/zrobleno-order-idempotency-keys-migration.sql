@@ -0,0 +1,10 @@
+-- Migration: scope idempotency keys to their owner and store the request hash
+-- Keys are only kept for a day, so existing ones are dropped instead of backfilled.
+
+TRUNCATE TABLE public.order_idempotency_keys;
+
+ALTER TABLE IF EXISTS public.order_idempotency_keys
+    ADD COLUMN IF NOT EXISTS owner_id uuid NOT NULL,
+    ADD COLUMN IF NOT EXISTS request_hash character varying(64) NOT NULL,
+    DROP CONSTRAINT IF EXISTS order_idempotency_keys_pkey,
+    ADD CONSTRAINT order_idempotency_keys_pkey PRIMARY KEY (owner_id, idempotency_key);
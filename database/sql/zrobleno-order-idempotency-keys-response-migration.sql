@@ -0,0 +1,7 @@
+-- Migration: store the response of the order creation with its idempotency key
+-- Keys are only kept for a day, so existing ones are dropped instead of backfilled.
+
+TRUNCATE TABLE public.order_idempotency_keys;
+
+ALTER TABLE IF EXISTS public.order_idempotency_keys
+    ADD COLUMN IF NOT EXISTS response text NOT NULL;
@@ -0,0 +1,10 @@
+-- Migration: subtract orders archived before the archiver maintained order_status_counts
+-- Run once, before the archiver runs again.
+
+UPDATE public.order_status_counts c
+SET count = c.count - a.count
+FROM (SELECT owner_id, status, count(*) AS count
+      FROM public.orders_archive
+      GROUP BY owner_id, status) a
+WHERE c.owner_id = a.owner_id
+  AND c.status = a.status;
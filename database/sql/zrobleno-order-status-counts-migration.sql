@@ -0,0 +1,7 @@
+-- Migration: backfill order_status_counts from existing orders
+
+INSERT INTO public.order_status_counts (owner_id, status, count)
+SELECT owner_id, status, count(*)
+FROM public.orders
+GROUP BY owner_id, status
+ON CONFLICT (owner_id, status) DO UPDATE SET count = excluded.count;
@@ -0,0 +1,70 @@
+-- Migration: orders_archive table -> archive partitions of orders
+-- Run during a maintenance window with the order service stopped, after
+-- zrobleno-order-status-counts-archive-migration.sql. Archived orders move back into orders,
+-- under the orders_archive list partition, and are counted in order_status_counts again.
+
+ALTER TABLE IF EXISTS public.orders
+    RENAME TO orders_live;
+
+ALTER INDEX IF EXISTS public.orders_owner_id_created_at_id_idx
+    RENAME TO orders_live_owner_id_created_at_id_idx;
+
+-- the primary key of orders gains archived; it is rebuilt when orders_live is attached
+ALTER TABLE IF EXISTS public.orders_live
+    DROP CONSTRAINT IF EXISTS orders_pkey;
+
+ALTER TABLE IF EXISTS public.orders_live
+    ADD COLUMN IF NOT EXISTS archived boolean NOT NULL DEFAULT false;
+
+-- lets ATTACH PARTITION skip scanning orders_live
+ALTER TABLE IF EXISTS public.orders_live
+    ADD CONSTRAINT orders_live_archived_check CHECK (NOT archived);
+
+ALTER TABLE IF EXISTS public.orders_archive
+    RENAME TO orders_archive_unpartitioned;
+
+-- then run the public.orders section of zrobleno-tables.sql without its DROP statement and
+-- without the orders_live and orders_default partitions, which exist already:
+
+ALTER TABLE public.orders
+    ATTACH PARTITION public.orders_live FOR VALUES IN (false);
+
+ALTER TABLE public.orders_live
+    DROP CONSTRAINT orders_live_archived_check;
+
+-- then run the public.create_order_partitions section of zrobleno-tables.sql and create archive
+-- partitions for past months:
+
+DO
+$$
+    DECLARE
+        month_start timestamptz;
+    BEGIN
+        FOR month_start IN
+            SELECT DISTINCT date_trunc('month', created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC'
+            FROM public.orders_archive_unpartitioned
+            LOOP
+                IF to_regclass('public.orders_archive_' || to_char(month_start AT TIME ZONE 'UTC', 'YYYY_MM')) IS NULL THEN
+                    EXECUTE format('CREATE TABLE public.%I PARTITION OF public.orders_archive FOR VALUES FROM (%L) TO (%L)',
+                                   'orders_archive_' || to_char(month_start AT TIME ZONE 'UTC', 'YYYY_MM'),
+                                   month_start, month_start + interval '1 month');
+                END IF;
+            END LOOP;
+    END
+$$;
+
+INSERT INTO public.orders (id, owner_id, status, service_id, comment, created_at,
+                           last_modified_at, archived)
+SELECT id, owner_id, status, service_id, comment, created_at, last_modified_at, true
+FROM public.orders_archive_unpartitioned;
+
+INSERT INTO public.order_status_counts (owner_id, status, count)
+SELECT owner_id, status, count(*)
+FROM public.orders_archive_unpartitioned
+GROUP BY owner_id, status
+ON CONFLICT (owner_id, status) DO UPDATE SET count = order_status_counts.count + excluded.count;
+
+ALTER SEQUENCE IF EXISTS public.orders_id_seq
+    OWNED BY public.orders.id;
+
+DROP TABLE IF EXISTS public.orders_archive_unpartitioned;
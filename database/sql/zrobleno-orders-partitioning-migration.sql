@@ -0,0 +1,44 @@
+-- Migration: unpartitioned orders -> orders partitioned by month of created_at
+-- Run during a maintenance window; existing rows are copied into the new table.
+
+ALTER TABLE IF EXISTS public.orders
+    RENAME TO orders_unpartitioned;
+
+ALTER TABLE IF EXISTS public.orders_unpartitioned
+    RENAME CONSTRAINT orders_pkey TO orders_unpartitioned_pkey;
+
+ALTER TABLE IF EXISTS public.orders_unpartitioned
+    RENAME CONSTRAINT orders_status_check TO orders_unpartitioned_status_check;
+
+ALTER INDEX IF EXISTS public.orders_owner_id_created_at_id_idx
+    RENAME TO orders_unpartitioned_owner_id_created_at_id_idx;
+
+-- then run the public.orders, public.create_order_partitions and public.orders_archive sections
+-- of zrobleno-tables.sql without their DROP statements, and create partitions for past months:
+
+DO
+$$
+    DECLARE
+        month_start timestamptz;
+    BEGIN
+        FOR month_start IN
+            SELECT DISTINCT date_trunc('month', created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC'
+            FROM public.orders_unpartitioned
+            LOOP
+                IF to_regclass('public.orders_' || to_char(month_start AT TIME ZONE 'UTC', 'YYYY_MM')) IS NULL THEN
+                    EXECUTE format('CREATE TABLE public.%I PARTITION OF public.orders FOR VALUES FROM (%L) TO (%L)',
+                                   'orders_' || to_char(month_start AT TIME ZONE 'UTC', 'YYYY_MM'),
+                                   month_start, month_start + interval '1 month');
+                END IF;
+            END LOOP;
+    END
+$$;
+
+INSERT INTO public.orders (id, owner_id, status, service_id, comment, created_at, last_modified_at)
+SELECT id, owner_id, status, service_id, comment, created_at, last_modified_at
+FROM public.orders_unpartitioned;
+
+ALTER SEQUENCE IF EXISTS public.orders_id_seq
+    OWNED BY public.orders.id;
+
+DROP TABLE IF EXISTS public.orders_unpartitioned;
@@ -0,0 +1,23 @@
+-- Migration: orders.status_id -> orders.status
+-- Codes match OrderStatusNameConverter and the ids of the seeded order_statuses rows.
+
+ALTER TABLE IF EXISTS public.orders
+    ADD COLUMN IF NOT EXISTS status smallint;
+
+UPDATE public.orders o
+SET status = CASE s.name
+                 WHEN 'CREATED' THEN 1
+                 WHEN 'CANCELED' THEN 2
+                 WHEN 'CONFIRMED' THEN 3
+                 WHEN 'IN_PROGRESS' THEN 4
+                 WHEN 'COMPLETED' THEN 5
+    END
+FROM public.order_statuses s
+WHERE o.status_id = s.id
+  AND o.status IS NULL;
+
+ALTER TABLE IF EXISTS public.orders
+    ALTER COLUMN status SET NOT NULL,
+    ADD CONSTRAINT orders_status_check CHECK (status BETWEEN 1 AND 5),
+    DROP CONSTRAINT IF EXISTS fkm5letvn141v0flinbgcc1t74q,
+    DROP COLUMN IF EXISTS status_id;
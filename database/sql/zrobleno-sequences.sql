@@ -20,6 +20,17 @@ CREATE SEQUENCE IF NOT EXISTS public.services_id_seq
     MAXVALUE 9223372036854775807
     CACHE 1;
 
+-- SEQUENCE: public.service_changes_id_seq
+
+DROP SEQUENCE IF EXISTS public.service_changes_id_seq;
+
+CREATE SEQUENCE IF NOT EXISTS public.service_changes_id_seq
+    INCREMENT 1
+    START 1
+    MINVALUE 1
+    MAXVALUE 9223372036854775807
+    CACHE 1;
+
 -- SEQUENCE: public.order_statuses_id_seq
 
 DROP SEQUENCE IF EXISTS public.order_statuses_id_seq;
@@ -36,7 +47,7 @@ CREATE SEQUENCE IF NOT EXISTS public.order_statuses_id_seq
 DROP SEQUENCE IF EXISTS public.orders_id_seq;
 
 CREATE SEQUENCE IF NOT EXISTS public.orders_id_seq
-    INCREMENT 1
+    INCREMENT 50
     START 1
     MINVALUE 1
     MAXVALUE 9223372036854775807
@@ -47,6 +58,17 @@ CREATE SEQUENCE IF NOT EXISTS public.orders_id_seq
 DROP SEQUENCE IF EXISTS public.feedbacks_id_seq;
 
 CREATE SEQUENCE IF NOT EXISTS public.feedbacks_id_seq
+    INCREMENT 1
+    START 1
+    MINVALUE 1
+    MAXVALUE 9223372036854775807
+    CACHE 1;
+
+-- SEQUENCE: public.feedback_rating_changes_id_seq
+
+DROP SEQUENCE IF EXISTS public.feedback_rating_changes_id_seq;
+
+CREATE SEQUENCE IF NOT EXISTS public.feedback_rating_changes_id_seq
     INCREMENT 1
     START 1
     MINVALUE 1
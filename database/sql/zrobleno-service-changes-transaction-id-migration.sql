@@ -0,0 +1,12 @@
+-- Migration: follow service_changes by transaction id instead of locking it for every append
+-- Existing changes get transaction id 0, which orders them before every new change. Running
+-- replicas reload their snapshot with the new cursor after the service module is updated.
+
+ALTER TABLE IF EXISTS public.service_changes
+    ADD COLUMN IF NOT EXISTS transaction_id bigint NOT NULL DEFAULT 0;
+
+ALTER TABLE IF EXISTS public.service_changes
+    ALTER COLUMN transaction_id SET DEFAULT pg_current_xact_id()::text::bigint;
+
+CREATE INDEX IF NOT EXISTS service_changes_transaction_id_id_idx
+    ON public.service_changes (transaction_id, id);
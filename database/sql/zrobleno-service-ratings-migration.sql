@@ -0,0 +1,67 @@
+-- Migration: per-service rating aggregates fed by feedback rating changes
+-- Run with the feedback service stopped. Existing feedbacks are recorded as rating changes, which
+-- the service service then adds to the aggregates starting from an empty cursor.
+
+ALTER TABLE IF EXISTS public.feedbacks
+    ADD COLUMN IF NOT EXISTS service_id bigint;
+
+UPDATE public.feedbacks f
+SET service_id = o.service_id
+FROM (SELECT id, service_id FROM public.orders
+      UNION ALL
+      SELECT id, service_id FROM public.orders_archive) o
+WHERE o.id = f.order_id
+  AND f.service_id IS NULL;
+
+ALTER TABLE IF EXISTS public.feedbacks
+    ALTER COLUMN service_id SET NOT NULL;
+
+CREATE SEQUENCE IF NOT EXISTS public.feedback_rating_changes_id_seq
+    INCREMENT 1
+    START 1
+    MINVALUE 1
+    MAXVALUE 9223372036854775807
+    CACHE 1;
+
+CREATE TABLE IF NOT EXISTS public.feedback_rating_changes
+(
+    id           bigint                      NOT NULL DEFAULT nextval('feedback_rating_changes_id_seq'::regclass),
+    feedback_id  bigint                      NOT NULL,
+    service_id   bigint                      NOT NULL,
+    rating_delta integer                     NOT NULL,
+    count_delta  integer                     NOT NULL,
+    created_at   timestamp(6) with time zone NOT NULL DEFAULT NOW(),
+    CONSTRAINT feedback_rating_changes_pkey PRIMARY KEY (id)
+)
+    TABLESPACE pg_default;
+
+ALTER SEQUENCE IF EXISTS public.feedback_rating_changes_id_seq
+    OWNED by public.feedback_rating_changes.id;
+
+INSERT INTO public.feedback_rating_changes (feedback_id, service_id, rating_delta, count_delta)
+SELECT id, service_id, rating, 1
+FROM public.feedbacks
+ORDER BY id;
+
+ALTER TABLE IF EXISTS public.services
+    ADD COLUMN IF NOT EXISTS rating_sum   bigint        NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_count integer       NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS avg_rating   numeric(3, 2) NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS public.service_rating_cursor
+(
+    id             smallint NOT NULL,
+    last_change_id bigint   NOT NULL,
+    CONSTRAINT service_rating_cursor_pkey PRIMARY KEY (id)
+)
+    TABLESPACE pg_default;
+
+INSERT INTO public.service_rating_cursor (id, last_change_id)
+VALUES (1, 0)
+ON CONFLICT DO NOTHING;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS services_category_id_avg_rating_id_idx
+    ON public.services USING btree (category_id, avg_rating DESC, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS services_avg_rating_id_idx
+    ON public.services USING btree (avg_rating DESC, id);
\ No newline at end of file
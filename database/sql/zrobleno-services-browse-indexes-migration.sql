@@ -0,0 +1,10 @@
+-- Migration: indexes for browsing services by category, price and priority
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS services_category_id_price_id_idx
+    ON public.services USING btree (category_id, price, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS services_priority_id_idx
+    ON public.services USING btree (priority DESC, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS services_price_id_idx
+    ON public.services USING btree (price, id);
@@ -0,0 +1,43 @@
+-- Benchmark: full-text search over 1M services
+-- Run against a scratch database created from zrobleno-sequences.sql and zrobleno-tables.sql.
+-- Compare the plans and timings of the ranked search with and without services_search_vector_idx.
+
+INSERT INTO public.services (category_id, owner_id, title, description, image_urls, price, priority)
+SELECT 1 + i % 20,
+       '550e8400-e29b-41d4-a716-446655440000',
+       (ARRAY ['Cleaning', 'Repair', 'Delivery', 'Moving', 'Tutoring'])[1 + i % 5] || ' of ' ||
+       (ARRAY ['apartments', 'phones', 'furniture', 'windows', 'bicycles', 'laptops'])[1 + i % 6] ||
+       ' #' || i,
+       'Service number ' || i || ' with ' ||
+       (ARRAY ['fast', 'careful', 'cheap', 'certified', 'weekend'])[1 + i % 7 % 5] || ' ' ||
+       (ARRAY ['cleaning', 'repair', 'delivery', 'assembly', 'installation'])[1 + i % 11 % 5] ||
+       ' in ' || (ARRAY ['Kyiv', 'Lviv', 'Odesa', 'Kharkiv'])[1 + i % 4],
+       ARRAY ['https://image.com/' || i],
+       10 + i % 1000,
+       i % 10
+FROM generate_series(1, 1000000) AS i;
+
+ANALYZE public.services;
+
+-- the query issued by GET /services/search?q=repair phones&page=0&size=20
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT s.id AS id, ts_rank_cd(s.search_vector, q) AS rank
+FROM public.services s,
+     websearch_to_tsquery('simple', 'repair phones') q
+WHERE s.search_vector @@ q
+ORDER BY rank DESC, s.id
+LIMIT 20 OFFSET 0;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*)
+FROM public.services s
+WHERE s.search_vector @@ websearch_to_tsquery('simple', 'repair phones');
+
+-- a selective query, where the GIN index matters most
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT s.id AS id, ts_rank_cd(s.search_vector, q) AS rank
+FROM public.services s,
+     websearch_to_tsquery('simple', 'certified installation Odesa') q
+WHERE s.search_vector @@ q
+ORDER BY rank DESC, s.id
+LIMIT 20 OFFSET 0;
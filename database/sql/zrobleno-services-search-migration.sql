@@ -0,0 +1,10 @@
+-- Migration: full-text search column on services
+-- Rewrites the table to compute the generated column for existing rows.
+
+ALTER TABLE IF EXISTS public.services
+    ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', title), 'A') ||
+        setweight(to_tsvector('simple', description), 'B')) STORED;
+
+CREATE INDEX IF NOT EXISTS services_search_vector_idx
+    ON public.services USING gin (search_vector);
@@ -0,0 +1,30 @@
+-- Migration: ascending browse indexes on services
+-- Listings append id in the direction of the last sort key, so (priority, id) and
+-- (avg_rating, id) serve both directions, read forwards or backwards. The indexes are rebuilt
+-- under a new name and swapped in, so listings keep an index while they are built.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS services_category_id_priority_id_idx_new
+    ON public.services USING btree (category_id, priority, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS services_priority_id_idx_new
+    ON public.services USING btree (priority, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS services_category_id_avg_rating_id_idx_new
+    ON public.services USING btree (category_id, avg_rating, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS services_avg_rating_id_idx_new
+    ON public.services USING btree (avg_rating, id);
+
+DROP INDEX CONCURRENTLY IF EXISTS public.services_category_id_priority_id_idx;
+DROP INDEX CONCURRENTLY IF EXISTS public.services_priority_id_idx;
+DROP INDEX CONCURRENTLY IF EXISTS public.services_category_id_avg_rating_id_idx;
+DROP INDEX CONCURRENTLY IF EXISTS public.services_avg_rating_id_idx;
+
+ALTER INDEX public.services_category_id_priority_id_idx_new
+    RENAME TO services_category_id_priority_id_idx;
+ALTER INDEX public.services_priority_id_idx_new
+    RENAME TO services_priority_id_idx;
+ALTER INDEX public.services_category_id_avg_rating_id_idx_new
+    RENAME TO services_category_id_avg_rating_id_idx;
+ALTER INDEX public.services_avg_rating_id_idx_new
+    RENAME TO services_avg_rating_id_idx;
@@ -0,0 +1,6 @@
+-- Migration: trigram index on services.title for fuzzy title suggestions
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS services_title_trgm_idx
+    ON public.services USING gin (title gin_trgm_ops);
@@ -1,3 +1,7 @@
+-- Extension: pg_trgm, for the trigram index on services.title
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 DROP TABLE IF EXISTS public.service_categories;
 
 CREATE TABLE IF NOT EXISTS public.service_categories
@@ -31,6 +35,12 @@ CREATE TABLE IF NOT EXISTS public.services
     priority         integer                                             NOT NULL,
     created_at       timestamp(6) with time zone                         NOT NULL DEFAULT NOW(),
     last_modified_at timestamp(6) with time zone                         NOT NULL DEFAULT NOW(),
+    rating_sum       bigint                                              NOT NULL DEFAULT 0,
+    rating_count     integer                                             NOT NULL DEFAULT 0,
+    avg_rating       numeric(3, 2)                                       NOT NULL DEFAULT 0,
+    search_vector    tsvector GENERATED ALWAYS AS (
+                         setweight(to_tsvector('simple', title), 'A') ||
+                         setweight(to_tsvector('simple', description), 'B')) STORED,
     CONSTRAINT services_pkey PRIMARY KEY (id)
     )
     TABLESPACE pg_default;
@@ -38,6 +48,70 @@ CREATE TABLE IF NOT EXISTS public.services
 ALTER SEQUENCE IF EXISTS public.services_id_seq
     OWNED by public.services.id;
 
+CREATE INDEX IF NOT EXISTS services_category_id_priority_id_idx
+    ON public.services USING btree (category_id, priority, id);
+
+CREATE INDEX IF NOT EXISTS services_category_id_price_id_idx
+    ON public.services USING btree (category_id, price, id);
+
+CREATE INDEX IF NOT EXISTS services_priority_id_idx
+    ON public.services USING btree (priority, id);
+
+CREATE INDEX IF NOT EXISTS services_price_id_idx
+    ON public.services USING btree (price, id);
+
+CREATE INDEX IF NOT EXISTS services_category_id_avg_rating_id_idx
+    ON public.services USING btree (category_id, avg_rating, id);
+
+CREATE INDEX IF NOT EXISTS services_avg_rating_id_idx
+    ON public.services USING btree (avg_rating, id);
+
+CREATE INDEX IF NOT EXISTS services_search_vector_idx
+    ON public.services USING gin (search_vector);
+
+CREATE INDEX IF NOT EXISTS services_title_trgm_idx
+    ON public.services USING gin (title gin_trgm_ops);
+
+-- Table: public.service_changes
+
+DROP TABLE IF EXISTS public.service_changes;
+
+CREATE TABLE IF NOT EXISTS public.service_changes
+(
+    id             bigint                                              NOT NULL DEFAULT nextval('service_changes_id_seq'::regclass),
+    service_id     bigint                                              NOT NULL,
+    type           character varying(255) COLLATE pg_catalog."default" NOT NULL,
+    created_at     timestamp(6) with time zone                         NOT NULL DEFAULT NOW(),
+    transaction_id bigint                                              NOT NULL DEFAULT pg_current_xact_id()::text::bigint,
+    CONSTRAINT service_changes_pkey PRIMARY KEY (id),
+    CONSTRAINT service_changes_type_check CHECK (type::text = ANY
+                                                 (ARRAY ['CREATED'::character varying, 'UPDATED'::character varying, 'DELETED'::character varying]::text[]))
+)
+    TABLESPACE pg_default;
+
+-- changes are read in (transaction_id, id) order
+CREATE INDEX IF NOT EXISTS service_changes_transaction_id_id_idx
+    ON public.service_changes (transaction_id, id);
+
+ALTER SEQUENCE IF EXISTS public.service_changes_id_seq
+    OWNED by public.service_changes.id;
+
+-- Table: public.service_rating_cursor
+
+DROP TABLE IF EXISTS public.service_rating_cursor;
+
+CREATE TABLE IF NOT EXISTS public.service_rating_cursor
+(
+    id                  smallint NOT NULL,
+    last_change_id      bigint   NOT NULL,
+    last_transaction_id bigint   NOT NULL,
+    CONSTRAINT service_rating_cursor_pkey PRIMARY KEY (id)
+)
+    TABLESPACE pg_default;
+
+INSERT INTO public.service_rating_cursor (id, last_change_id, last_transaction_id)
+VALUES (1, 0, 0);
+
 -- Table: public.order_statuses
 
 DROP TABLE IF EXISTS public.order_statuses;
@@ -56,6 +130,10 @@ ALTER SEQUENCE IF EXISTS public.order_statuses_id_seq
     OWNED by public.order_statuses.id;
 
 -- Table: public.orders
+-- List-partitioned by archived: live orders are in orders_live, completed and canceled orders
+-- moved there by the order service's archiver are in orders_archive. Both are range-partitioned
+-- by month of created_at; partitions are created ahead by create_order_partitions, which the
+-- order service calls on a schedule.
 
 DROP TABLE IF EXISTS public.orders;
 
@@ -63,22 +141,104 @@ CREATE TABLE IF NOT EXISTS public.orders
 (
     id               bigint                                              NOT NULL DEFAULT nextval('orders_id_seq'::regclass),
     owner_id         uuid                                                NOT NULL,
-    status_id        bigint,
+    status           smallint                                            NOT NULL,
     service_id       bigint                                              NOT NULL,
     comment          character varying(255) COLLATE pg_catalog."default",
     created_at       timestamp(6) with time zone                         NOT NULL DEFAULT NOW(),
     last_modified_at timestamp(6) with time zone                         NOT NULL DEFAULT NOW(),
-    CONSTRAINT orders_pkey PRIMARY KEY (id),
-    CONSTRAINT fkm5letvn141v0flinbgcc1t74q FOREIGN KEY (status_id)
-        REFERENCES public.order_statuses (id) MATCH SIMPLE
-        ON UPDATE NO ACTION
-        ON DELETE NO ACTION
-)
+    archived         boolean                                             NOT NULL DEFAULT false,
+    CONSTRAINT orders_pkey PRIMARY KEY (id, created_at, archived),
+    CONSTRAINT orders_status_check CHECK (status BETWEEN 1 AND 5)
+) PARTITION BY LIST (archived)
     TABLESPACE pg_default;
 
+CREATE TABLE IF NOT EXISTS public.orders_live
+    PARTITION OF public.orders FOR VALUES IN (false)
+    PARTITION BY RANGE (created_at);
+
+CREATE TABLE IF NOT EXISTS public.orders_default
+    PARTITION OF public.orders_live DEFAULT;
+
+CREATE TABLE IF NOT EXISTS public.orders_archive
+    PARTITION OF public.orders FOR VALUES IN (true)
+    PARTITION BY RANGE (created_at);
+
+CREATE TABLE IF NOT EXISTS public.orders_archive_default
+    PARTITION OF public.orders_archive DEFAULT;
+
 ALTER SEQUENCE IF EXISTS public.orders_id_seq
     OWNED by public.orders.id;
 
+CREATE INDEX IF NOT EXISTS orders_owner_id_created_at_id_idx
+    ON public.orders USING btree (owner_id, created_at, id);
+
+CREATE OR REPLACE FUNCTION public.create_order_partitions(months_ahead integer)
+    RETURNS integer
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    month_start timestamptz;
+    suffix      text;
+    created     integer := 0;
+BEGIN
+    FOR i IN 0..months_ahead
+        LOOP
+            month_start := date_trunc('month', NOW() AT TIME ZONE 'UTC') AT TIME ZONE 'UTC'
+                               + make_interval(months => i);
+            suffix := to_char(month_start AT TIME ZONE 'UTC', 'YYYY_MM');
+
+            IF to_regclass('public.orders_' || suffix) IS NULL THEN
+                EXECUTE format('CREATE TABLE public.%I PARTITION OF public.orders_live FOR VALUES FROM (%L) TO (%L)',
+                               'orders_' || suffix, month_start, month_start + interval '1 month');
+                created := created + 1;
+            END IF;
+
+            IF to_regclass('public.orders_archive_' || suffix) IS NULL THEN
+                EXECUTE format('CREATE TABLE public.%I PARTITION OF public.orders_archive FOR VALUES FROM (%L) TO (%L)',
+                               'orders_archive_' || suffix, month_start, month_start + interval '1 month');
+                created := created + 1;
+            END IF;
+        END LOOP;
+
+    RETURN created;
+END;
+$$;
+
+SELECT public.create_order_partitions(3);
+
+-- Table: public.order_status_counts
+
+DROP TABLE IF EXISTS public.order_status_counts;
+
+CREATE TABLE IF NOT EXISTS public.order_status_counts
+(
+    owner_id uuid     NOT NULL,
+    status   smallint NOT NULL,
+    count    bigint   NOT NULL DEFAULT 0,
+    CONSTRAINT order_status_counts_pkey PRIMARY KEY (owner_id, status)
+)
+    TABLESPACE pg_default;
+
+-- Table: public.order_idempotency_keys
+
+DROP TABLE IF EXISTS public.order_idempotency_keys;
+
+CREATE TABLE IF NOT EXISTS public.order_idempotency_keys
+(
+    owner_id        uuid                        NOT NULL,
+    idempotency_key character varying(255)      NOT NULL,
+    request_hash    character varying(64)       NOT NULL,
+    order_id        bigint                      NOT NULL,
+    response        text                        NOT NULL,
+    created_at      timestamp(6) with time zone NOT NULL DEFAULT NOW(),
+    CONSTRAINT order_idempotency_keys_pkey PRIMARY KEY (owner_id, idempotency_key)
+)
+    TABLESPACE pg_default;
+
+CREATE INDEX IF NOT EXISTS order_idempotency_keys_created_at_idx
+    ON public.order_idempotency_keys USING btree (created_at);
+
 -- Table: public.feedbacks
 
 DROP TABLE IF EXISTS public.feedbacks;
@@ -87,6 +247,7 @@ CREATE TABLE IF NOT EXISTS public.feedbacks
 (
     id               bigint                      NOT NULL DEFAULT nextval('feedbacks_id_seq'::regclass),
     order_id         bigint                      NOT NULL,
+    service_id       bigint                      NOT NULL,
     owner_id         uuid                        NOT NULL,
     rating           integer                     NOT NULL,
     comment          character varying(255) COLLATE pg_catalog."default",
@@ -97,4 +258,28 @@ CREATE TABLE IF NOT EXISTS public.feedbacks
     TABLESPACE pg_default;
 
 ALTER SEQUENCE IF EXISTS public.feedback_id_seq
-    OWNED by public.feedbacks.id;
\ No newline at end of file
+    OWNED by public.feedbacks.id;
+
+-- Table: public.feedback_rating_changes
+
+DROP TABLE IF EXISTS public.feedback_rating_changes;
+
+CREATE TABLE IF NOT EXISTS public.feedback_rating_changes
+(
+    id             bigint                      NOT NULL DEFAULT nextval('feedback_rating_changes_id_seq'::regclass),
+    feedback_id    bigint                      NOT NULL,
+    service_id     bigint                      NOT NULL,
+    rating_delta   integer                     NOT NULL,
+    count_delta    integer                     NOT NULL,
+    created_at     timestamp(6) with time zone NOT NULL DEFAULT NOW(),
+    transaction_id bigint                      NOT NULL DEFAULT pg_current_xact_id()::text::bigint,
+    CONSTRAINT feedback_rating_changes_pkey PRIMARY KEY (id)
+)
+    TABLESPACE pg_default;
+
+-- changes are read in (transaction_id, id) order
+CREATE INDEX IF NOT EXISTS feedback_rating_changes_transaction_id_id_idx
+    ON public.feedback_rating_changes (transaction_id, id);
+
+ALTER SEQUENCE IF EXISTS public.feedback_rating_changes_id_seq
+    OWNED by public.feedback_rating_changes.id;
\ No newline at end of file
@@ -31,6 +31,9 @@ public class Feedback {
   @Column(name = "order_id", nullable = false)
   private Long orderId;
 
+  @Column(name = "service_id", nullable = false)
+  private Long serviceId;
+
   @Column(name = "owner_id", nullable = false)
   private UUID ownerId;
 
@@ -80,6 +83,7 @@ public class Feedback {
     return getClass().getSimpleName() + "(" +
         "id = " + id + ", " +
         "orderId = " + orderId + ", " +
+        "serviceId = " + serviceId + ", " +
         "ownerId = " + ownerId + ", " +
         "rating = " + rating + ", " +
         "comment = " + comment + ", " +
@@ -2,6 +2,7 @@ package com.stepaniuk.feedback;
 
 
 import com.stepaniuk.zrobleno.payload.feedback.FeedbackCreateRequest;
+import com.stepaniuk.zrobleno.payload.feedback.FeedbackRatingChangesResponse;
 import com.stepaniuk.zrobleno.payload.feedback.FeedbackResponse;
 import com.stepaniuk.zrobleno.payload.feedback.FeedbackUpdateRequest;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -56,4 +58,18 @@ public class FeedbackController {
       @Nullable @RequestParam(required = false) Long orderId) {
     return ResponseEntity.ok(feedbackService.getAllFeedbacks(pageable, ownerId, orderId));
   }
+
+  @GetMapping("/by-order-ids")
+  public ResponseEntity<List<FeedbackResponse>> getFeedbacksByOrderIds(
+      @RequestParam List<Long> orderIds) {
+    return ResponseEntity.ok(feedbackService.getFeedbacksByOrderIds(orderIds));
+  }
+
+  @GetMapping("/rating-changes")
+  public ResponseEntity<FeedbackRatingChangesResponse> getRatingChanges(
+      @RequestParam(defaultValue = "0") Long afterTransactionId,
+      @RequestParam(defaultValue = "0") Long after,
+      @RequestParam(defaultValue = "1000") int limit) {
+    return ResponseEntity.ok(feedbackService.getRatingChanges(afterTransactionId, after, limit));
+  }
 }
@@ -1,11 +1,29 @@
 package com.stepaniuk.feedback;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface FeedbackRepository extends JpaRepository<Feedback, Long>,
     JpaSpecificationExecutor<Feedback> {
 
+  List<Feedback> findAllByOrderIdIn(Collection<Long> orderIds);
+
+  /**
+   * Reads the feedback and locks its row until the end of the transaction, so that the rating a
+   * change is computed from cannot be changed concurrently.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select f from Feedback f where f.id = :id")
+  Optional<Feedback> findForUpdateById(@Param("id") Long id);
+
 }
\ No newline at end of file
@@ -2,42 +2,74 @@ package com.stepaniuk.feedback;
 
 
 import com.stepaniuk.feedback.client.OrderClient;
+import com.stepaniuk.feedback.rating.FeedbackRatingChange;
+import com.stepaniuk.feedback.rating.FeedbackRatingChangeMapper;
+import com.stepaniuk.feedback.rating.FeedbackRatingChangeRepository;
 import com.stepaniuk.zrobleno.payload.feedback.FeedbackCreateRequest;
+import com.stepaniuk.zrobleno.payload.feedback.FeedbackRatingChangesResponse;
 import com.stepaniuk.zrobleno.payload.feedback.FeedbackResponse;
 import com.stepaniuk.zrobleno.payload.feedback.FeedbackUpdateRequest;
 import com.stepaniuk.zrobleno.types.exception.feedback.NoSuchFeedbackByIdException;
 import com.stepaniuk.zrobleno.types.exception.order.NoSuchOrderByIdException;
-import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
 import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 public class FeedbackService {
 
+  private static final int MAX_RATING_CHANGES_SIZE = 1000;
+
   private final FeedbackRepository feedbackRepository;
+  private final FeedbackRatingChangeRepository feedbackRatingChangeRepository;
   private final FeedbackMapper feedbackMapper;
+  private final FeedbackRatingChangeMapper feedbackRatingChangeMapper;
   private final OrderClient orderClient;
+  private final TransactionTemplate transactionTemplate;
+
+  public FeedbackService(FeedbackRepository feedbackRepository,
+      FeedbackRatingChangeRepository feedbackRatingChangeRepository,
+      FeedbackMapper feedbackMapper, FeedbackRatingChangeMapper feedbackRatingChangeMapper,
+      OrderClient orderClient, PlatformTransactionManager transactionManager) {
+    this.feedbackRepository = feedbackRepository;
+    this.feedbackRatingChangeRepository = feedbackRatingChangeRepository;
+    this.feedbackMapper = feedbackMapper;
+    this.feedbackRatingChangeMapper = feedbackRatingChangeMapper;
+    this.orderClient = orderClient;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
 
+  /**
+   * Resolves the order before starting the transaction, so no connection is held while waiting
+   * for the order service. Only the insert and the rating change run in the transaction.
+   */
   public FeedbackResponse createFeedback(FeedbackCreateRequest request) {
-    Feedback feedback = new Feedback();
-
     var order = orderClient.getOrderById(request.getOrderId());
 
     if(order == null)
       throw new NoSuchOrderByIdException(request.getOrderId());
 
+    Feedback feedback = new Feedback();
     feedback.setOrderId(request.getOrderId());
+    feedback.setServiceId(order.getServiceId());
     feedback.setOwnerId(request.getOwnerId());
     feedback.setRating(request.getRating());
     feedback.setComment(request.getComment());
 
-    var savedFeedback = feedbackRepository.save(feedback);
+    var savedFeedback = transactionTemplate.execute(transaction -> {
+      var result = feedbackRepository.save(feedback);
+      recordRatingChange(result, result.getRating(), 1);
+      return result;
+    });
+
     return feedbackMapper.toResponse(savedFeedback);
   }
 
@@ -66,24 +98,70 @@ public class FeedbackService {
     return feedbackRepository.findAll(specification, pageable).map(feedbackMapper::toResponse);
   }
 
+  public List<FeedbackResponse> getFeedbacksByOrderIds(List<Long> orderIds) {
+    if (orderIds.isEmpty()) {
+      return List.of();
+    }
+
+    return feedbackRepository.findAllByOrderIdIn(orderIds).stream()
+        .map(feedbackMapper::toResponse)
+        .toList();
+  }
+
+  @Transactional
   public void deleteFeedback(Long id) {
-    var feedback = feedbackRepository.findById(id).orElseThrow(
+    var feedback = feedbackRepository.findForUpdateById(id).orElseThrow(
         () -> new NoSuchFeedbackByIdException(id)
     );
     feedbackRepository.delete(feedback);
+    recordRatingChange(feedback, -feedback.getRating(), -1);
   }
 
+  /**
+   * Locks the feedback before reading its rating, so concurrent updates compute their rating
+   * deltas one after another and the deltas add up to the final rating.
+   */
+  @Transactional
   public FeedbackResponse updateFeedback(Long id, FeedbackUpdateRequest request) {
-    var feedback = feedbackRepository.findById(id).orElseThrow(
+    var feedback = feedbackRepository.findForUpdateById(id).orElseThrow(
         () -> new NoSuchFeedbackByIdException(id)
     );
 
-    if(request.getRating() != null)
+    if (request.getRating() != null && !request.getRating().equals(feedback.getRating())) {
+      recordRatingChange(feedback, request.getRating() - feedback.getRating(), 0);
       feedback.setRating(request.getRating());
+    }
     if(request.getComment() != null)
       feedback.setComment(request.getComment());
 
     var updatedFeedback = feedbackRepository.save(feedback);
     return feedbackMapper.toResponse(updatedFeedback);
   }
+
+  /**
+   * Returns up to {@code limit} rating changes after the given position, see
+   * {@link FeedbackRatingChangeRepository#findAllCompletedAfter}, together with the position to
+   * continue from.
+   */
+  @Transactional(readOnly = true)
+  public FeedbackRatingChangesResponse getRatingChanges(Long afterTransactionId, Long after,
+      int limit) {
+    var changes = feedbackRatingChangeRepository.findAllCompletedAfter(afterTransactionId, after,
+        Math.max(1, Math.min(limit, MAX_RATING_CHANGES_SIZE)));
+
+    if (changes.isEmpty()) {
+      return new FeedbackRatingChangesResponse(List.of(), after, afterTransactionId);
+    }
+
+    var lastChange = changes.get(changes.size() - 1);
+
+    return new FeedbackRatingChangesResponse(
+        changes.stream().map(feedbackRatingChangeMapper::toResponse).toList(), lastChange.getId(),
+        lastChange.getTransactionId());
+  }
+
+  private void recordRatingChange(Feedback feedback, int ratingDelta, int countDelta) {
+    feedbackRatingChangeRepository.save(new FeedbackRatingChange(feedback.getId(),
+        feedback.getServiceId(), ratingDelta, countDelta));
+  }
 }
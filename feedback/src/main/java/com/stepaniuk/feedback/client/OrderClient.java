@@ -5,7 +5,8 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 
-@FeignClient(name = "order-service", url = "${application.config.order.url}", primary = false)
+@FeignClient(name = "orders", contextId = "order-service", path = "/api/orders",
+    url = "${application.config.order.url}", primary = false)
 public interface OrderClient {
 
     @GetMapping("/{id}")
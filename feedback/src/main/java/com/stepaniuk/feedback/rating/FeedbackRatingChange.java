@@ -0,0 +1,104 @@
+package com.stepaniuk.feedback.rating;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * How one create, update or delete of a feedback changed the rating sum and the number of
+ * ratings of its service. The service service adds these deltas to its per-service aggregates
+ * in {@code (transactionId, id)} order.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@RequiredArgsConstructor
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@Table(name = "feedback_rating_changes")
+public class FeedbackRatingChange {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "feedback_rating_changes_id_gen")
+  @SequenceGenerator(name = "feedback_rating_changes_id_gen", sequenceName = "feedback_rating_changes_id_seq", allocationSize = 1)
+  @Column(name = "id", nullable = false)
+  private Long id;
+
+  @Column(name = "feedback_id", nullable = false)
+  private Long feedbackId;
+
+  @Column(name = "service_id", nullable = false)
+  private Long serviceId;
+
+  @Column(name = "rating_delta", nullable = false)
+  private Integer ratingDelta;
+
+  @Column(name = "count_delta", nullable = false)
+  private Integer countDelta;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  @CreatedDate
+  private Instant createdAt;
+
+  /**
+   * Id of the transaction that recorded the change, assigned by the database on insert.
+   */
+  @Column(name = "transaction_id", nullable = false, insertable = false, updatable = false,
+      columnDefinition = "bigint default pg_current_xact_id()::text::bigint")
+  private Long transactionId;
+
+  public FeedbackRatingChange(Long feedbackId, Long serviceId, Integer ratingDelta,
+      Integer countDelta) {
+    this.feedbackId = feedbackId;
+    this.serviceId = serviceId;
+    this.ratingDelta = ratingDelta;
+    this.countDelta = countDelta;
+  }
+
+  @Override
+  public final boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null) {
+      return false;
+    }
+    Class<?> oEffectiveClass = o instanceof HibernateProxy
+        ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass()
+        : o.getClass();
+    Class<?> thisEffectiveClass = this instanceof HibernateProxy
+        ? ((HibernateProxy) this).getHibernateLazyInitializer()
+        .getPersistentClass() : this.getClass();
+    if (thisEffectiveClass != oEffectiveClass) {
+      return false;
+    }
+    FeedbackRatingChange that = (FeedbackRatingChange) o;
+    return getId() != null && Objects.equals(getId(), that.getId());
+  }
+
+  @Override
+  public final int hashCode() {
+    return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer()
+        .getPersistentClass().hashCode() : getClass().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(" +
+        "id = " + id + ", " +
+        "feedbackId = " + feedbackId + ", " +
+        "serviceId = " + serviceId + ", " +
+        "ratingDelta = " + ratingDelta + ", " +
+        "countDelta = " + countDelta + ", " +
+        "createdAt = " + createdAt + ", " +
+        "transactionId = " + transactionId + ")";
+  }
+}
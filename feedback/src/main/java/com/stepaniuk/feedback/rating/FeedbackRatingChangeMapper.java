@@ -0,0 +1,11 @@
+package com.stepaniuk.feedback.rating;
+
+import com.stepaniuk.zrobleno.payload.feedback.FeedbackRatingChangeResponse;
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring", injectionStrategy = InjectionStrategy.CONSTRUCTOR)
+public interface FeedbackRatingChangeMapper {
+
+  FeedbackRatingChangeResponse toResponse(FeedbackRatingChange feedbackRatingChange);
+}
@@ -0,0 +1,28 @@
+package com.stepaniuk.feedback.rating;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FeedbackRatingChangeRepository extends JpaRepository<FeedbackRatingChange, Long> {
+
+  /**
+   * Returns up to {@code limit} rating changes after {@code (afterTransactionId, afterId)} in
+   * {@code (transaction_id, id)} order, limited to transactions older than the oldest one still
+   * running. Those have all ended, so no change shows up before the last returned one later and
+   * writers need no lock to keep readers from skipping changes.
+   */
+  @Query(value = """
+      select * from feedback_rating_changes
+      where (transaction_id, id) > (:afterTransactionId, :afterId)
+        and transaction_id < pg_snapshot_xmin(pg_current_snapshot())::text::bigint
+      order by transaction_id, id
+      limit :limit""", nativeQuery = true)
+  List<FeedbackRatingChange> findAllCompletedAfter(
+      @Param("afterTransactionId") Long afterTransactionId, @Param("afterId") Long afterId,
+      @Param("limit") int limit);
+}
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.stepaniuk.feedback.testspecific.ControllerLevelUnitTest;
 import com.stepaniuk.zrobleno.payload.feedback.FeedbackCreateRequest;
+import com.stepaniuk.zrobleno.payload.feedback.FeedbackRatingChangeResponse;
+import com.stepaniuk.zrobleno.payload.feedback.FeedbackRatingChangesResponse;
 import com.stepaniuk.zrobleno.payload.feedback.FeedbackResponse;
 import com.stepaniuk.zrobleno.payload.feedback.FeedbackUpdateRequest;
 import com.stepaniuk.zrobleno.types.exception.feedback.NoSuchFeedbackByIdException;
@@ -290,4 +292,59 @@ class FeedbackControllerTest {
         .andExpect(jsonPath("$.content[0].lastModifiedAt", instantComparesEqualTo(response.getLastModifiedAt())))
         .andExpect(jsonPath("$.content[0].links[0].href", is("http://localhost/feedbacks/" + feedbackId)));
   }
+
+  @Test
+  void shouldReturnListOfFeedbackResponsesWhenGettingFeedbacksByOrderIds() throws Exception {
+    // given
+    var ownerId = UUID.randomUUID();
+    var firstResponse = getNewFeedbackResponseWithAllFields(1L, 1L, ownerId, 5, "Some comment");
+    var secondResponse = getNewFeedbackResponseWithAllFields(2L, 2L, ownerId, 4, "Other comment");
+    firstResponse.add(Link.of("http://localhost/feedbacks/1", "self"));
+    secondResponse.add(Link.of("http://localhost/feedbacks/2", "self"));
+
+    when(feedbackService.getFeedbacksByOrderIds(eq(List.of(1L, 2L)))).thenReturn(
+        List.of(firstResponse, secondResponse)
+    );
+
+    // when && then
+    // @formatter:off
+    mockMvc.perform(get("/feedbacks/by-order-ids")
+            .contentType("application/json")
+            .param("orderIds", "1", "2")
+        )
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id", is(firstResponse.getId()), Long.class))
+        .andExpect(jsonPath("$[0].orderId", is(firstResponse.getOrderId()), Long.class))
+        .andExpect(jsonPath("$[0].rating", is(firstResponse.getRating())))
+        .andExpect(jsonPath("$[1].id", is(secondResponse.getId()), Long.class))
+        .andExpect(jsonPath("$[1].orderId", is(secondResponse.getOrderId()), Long.class))
+        .andExpect(jsonPath("$[1].rating", is(secondResponse.getRating())));
+  }
+
+  @Test
+  void shouldReturnRatingChangesWhenGettingRatingChanges() throws Exception {
+    // given
+    var change = new FeedbackRatingChangeResponse(4L, 1L, 2L, -2, 0, Instant.now());
+
+    when(feedbackService.getRatingChanges(99L, 3L, 100)).thenReturn(
+        new FeedbackRatingChangesResponse(List.of(change), 4L, 100L));
+
+    // when && then
+    // @formatter:off
+    mockMvc.perform(get("/feedbacks/rating-changes")
+            .contentType("application/json")
+            .param("afterTransactionId", "99")
+            .param("after", "3")
+            .param("limit", "100")
+        )
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.lastChangeId", is(4L), Long.class))
+        .andExpect(jsonPath("$.lastTransactionId", is(100L), Long.class))
+        .andExpect(jsonPath("$.changes[0].id", is(change.getId()), Long.class))
+        .andExpect(jsonPath("$.changes[0].feedbackId", is(change.getFeedbackId()), Long.class))
+        .andExpect(jsonPath("$.changes[0].serviceId", is(change.getServiceId()), Long.class))
+        .andExpect(jsonPath("$.changes[0].ratingDelta", is(change.getRatingDelta())))
+        .andExpect(jsonPath("$.changes[0].countDelta", is(change.getCountDelta())));
+    // @formatter:on
+  }
 }
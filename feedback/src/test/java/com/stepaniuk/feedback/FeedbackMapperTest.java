@@ -27,7 +27,7 @@ class FeedbackMapperTest {
     Instant timeOfModification = Instant.now().plus(Duration.ofHours(20));
 
     Feedback feedbackToMap = new Feedback(
-        1L, 1L, UUID.randomUUID(), 5, "comment", timeOfCreation, timeOfModification
+        1L, 1L, 1L, UUID.randomUUID(), 5, "comment", timeOfCreation, timeOfModification
     );
 
     // when
@@ -0,0 +1,106 @@
+package com.stepaniuk.feedback;
+
+
+import com.stepaniuk.feedback.rating.FeedbackRatingChange;
+import com.stepaniuk.feedback.rating.FeedbackRatingChangeRepository;
+import com.stepaniuk.feedback.testspecific.JpaLevelTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a surrounding test transaction, so that each change commits on its own and a
+ * change can be kept uncommitted while others commit.
+ */
+@JpaLevelTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(statements = "delete from feedback_rating_changes",
+    executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class FeedbackRatingChangeRepositoryTest {
+
+  @Autowired
+  private FeedbackRatingChangeRepository feedbackRatingChangeRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Test
+  void shouldSaveRatingChangeWithTransactionId() {
+    // when
+    var savedChange = feedbackRatingChangeRepository.save(new FeedbackRatingChange(1L, 2L, 5, 1));
+
+    // then
+    assertNotNull(savedChange.getId());
+    assertNotNull(savedChange.getCreatedAt());
+    assertEquals(2L, savedChange.getServiceId());
+    var foundChange = feedbackRatingChangeRepository.findById(savedChange.getId()).orElseThrow();
+    assertNotNull(foundChange.getTransactionId());
+  }
+
+  @Test
+  void shouldReturnCompletedRatingChangesAfterGivenPositionInOrder() {
+    // given
+    var first = feedbackRatingChangeRepository.save(new FeedbackRatingChange(1L, 2L, 5, 1));
+    var second = feedbackRatingChangeRepository.save(new FeedbackRatingChange(1L, 2L, -1, 0));
+    var third = feedbackRatingChangeRepository.save(new FeedbackRatingChange(1L, 2L, -4, -1));
+    var firstTransactionId = feedbackRatingChangeRepository.findById(first.getId()).orElseThrow()
+        .getTransactionId();
+
+    // when
+    var changes = feedbackRatingChangeRepository.findAllCompletedAfter(firstTransactionId,
+        first.getId(), 1);
+
+    // then
+    assertEquals(1, changes.size());
+    assertEquals(second.getId(), changes.get(0).getId());
+    assertTrue(changes.get(0).getId() < third.getId());
+  }
+
+  @Test
+  void shouldNotReturnRatingChangesAfterChangeOfRunningTransaction() throws Exception {
+    // given
+    var inserted = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var running = CompletableFuture.supplyAsync(() ->
+        new TransactionTemplate(transactionManager).execute(transaction -> {
+          var change = feedbackRatingChangeRepository.saveAndFlush(
+              new FeedbackRatingChange(1L, 2L, 5, 1));
+          inserted.countDown();
+          await(release);
+          return change;
+        }));
+    assertTrue(inserted.await(10, TimeUnit.SECONDS));
+    var committed = feedbackRatingChangeRepository.save(new FeedbackRatingChange(2L, 2L, 4, 1));
+
+    // when
+    var changesWhileRunning = feedbackRatingChangeRepository.findAllCompletedAfter(0L, 0L, 10);
+    release.countDown();
+    var late = running.get(10, TimeUnit.SECONDS);
+    var changesAfterCommit = feedbackRatingChangeRepository.findAllCompletedAfter(0L, 0L, 10);
+
+    // then
+    assertTrue(changesWhileRunning.isEmpty());
+    assertEquals(2, changesAfterCommit.size());
+    assertEquals(late.getId(), changesAfterCommit.get(0).getId());
+    assertEquals(committed.getId(), changesAfterCommit.get(1).getId());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+}
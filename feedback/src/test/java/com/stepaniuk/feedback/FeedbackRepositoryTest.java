@@ -22,7 +22,7 @@ class FeedbackRepositoryTest {
   @Test
   void shouldSaveFeedback(){
     Feedback feedbackToSave = new Feedback(
-        1L, 1L, UUID.randomUUID(), 5, "comment", Instant.now(), Instant.now()
+        1L, 1L, 1L, UUID.randomUUID(), 5, "comment", Instant.now(), Instant.now()
     );
 
     Feedback savedFeedback = feedbackRepository.save(feedbackToSave);
@@ -40,7 +40,7 @@ class FeedbackRepositoryTest {
   @Test
   void shouldThrowExceptionWhenSavingFeedbackWithoutRating(){
     Feedback feedbackToSave = new Feedback(
-        null, 1L, UUID.randomUUID(), null, "comment", Instant.now(), Instant.now()
+        null, 1L, 1L, UUID.randomUUID(), null, "comment", Instant.now(), Instant.now()
     );
 
     assertThrows(Exception.class, () -> feedbackRepository.save(feedbackToSave));
@@ -108,4 +108,14 @@ class FeedbackRepositoryTest {
     assertNotNull(feedbacks);
     assertFalse(feedbacks.isEmpty());
   }
+
+  @Test
+  void shouldReturnFeedbacksWhenFindAllByOrderIdIn(){
+    List<Feedback> feedbacks = feedbackRepository.findAllByOrderIdIn(List.of(1L, 3L, 100L));
+
+    assertNotNull(feedbacks);
+    assertEquals(2, feedbacks.size());
+    assertTrue(feedbacks.stream().anyMatch(feedback -> feedback.getOrderId().equals(1L)));
+    assertTrue(feedbacks.stream().anyMatch(feedback -> feedback.getOrderId().equals(3L)));
+  }
 }
@@ -0,0 +1,132 @@
+package com.stepaniuk.feedback;
+
+
+import com.stepaniuk.feedback.client.OrderClient;
+import com.stepaniuk.feedback.rating.FeedbackRatingChange;
+import com.stepaniuk.feedback.rating.FeedbackRatingChangeMapperImpl;
+import com.stepaniuk.feedback.rating.FeedbackRatingChangeRepository;
+import com.stepaniuk.feedback.testspecific.JpaLevelTest;
+import com.stepaniuk.zrobleno.payload.feedback.FeedbackUpdateRequest;
+import com.stepaniuk.zrobleno.types.exception.feedback.NoSuchFeedbackByIdException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the service against the database without a surrounding test transaction, so that each call
+ * commits on its own and concurrent calls contend for the same rows.
+ */
+@JpaLevelTest
+@Import({FeedbackService.class, FeedbackMapperImpl.class, FeedbackRatingChangeMapperImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(scripts = "classpath:sql/feedbacks.sql")
+@Sql(statements = {"delete from feedback_rating_changes", "delete from feedbacks"},
+    executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class FeedbackServiceConcurrencyTest {
+
+  private static final int THREADS = 8;
+
+  @Autowired
+  private FeedbackService feedbackService;
+
+  @Autowired
+  private FeedbackRepository feedbackRepository;
+
+  @Autowired
+  private FeedbackRatingChangeRepository feedbackRatingChangeRepository;
+
+  @MockBean
+  private OrderClient orderClient;
+
+  @Test
+  void shouldRecordRatingDeltasAddingUpToFinalRatingWhenUpdatingConcurrently() throws Exception {
+    // given
+    var initialRating = feedbackRepository.findById(1L).orElseThrow().getRating();
+    var tasks = new ArrayList<Callable<Object>>();
+    for (int i = 0; i < THREADS; i++) {
+      var rating = i % 5 + 1;
+      tasks.add(() -> feedbackService.updateFeedback(1L, new FeedbackUpdateRequest(rating, null)));
+    }
+
+    // when
+    runConcurrently(tasks);
+
+    // then
+    var finalRating = feedbackRepository.findById(1L).orElseThrow().getRating();
+    var ratingDeltas = ratingChangesOf(1L).stream()
+        .mapToInt(FeedbackRatingChange::getRatingDelta)
+        .sum();
+    assertEquals(finalRating - initialRating, ratingDeltas);
+  }
+
+  @Test
+  void shouldRecordSingleRatingChangeWhenDeletingConcurrently() throws Exception {
+    // given
+    var tasks = new ArrayList<Callable<Object>>();
+    for (int i = 0; i < THREADS; i++) {
+      tasks.add(() -> {
+        feedbackService.deleteFeedback(1L);
+        return null;
+      });
+    }
+
+    // when
+    var failures = runConcurrently(tasks);
+
+    // then
+    assertEquals(THREADS - 1, failures.size());
+    assertTrue(failures.stream().allMatch(NoSuchFeedbackByIdException.class::isInstance));
+    var changes = ratingChangesOf(1L);
+    assertEquals(1, changes.size());
+    assertEquals(-5, changes.get(0).getRatingDelta());
+    assertEquals(-1, changes.get(0).getCountDelta());
+  }
+
+  private List<FeedbackRatingChange> ratingChangesOf(Long feedbackId) {
+    return feedbackRatingChangeRepository.findAll().stream()
+        .filter(change -> change.getFeedbackId().equals(feedbackId))
+        .toList();
+  }
+
+  private List<Throwable> runConcurrently(List<Callable<Object>> tasks) throws Exception {
+    var executor = Executors.newFixedThreadPool(tasks.size());
+    try {
+      var start = new CountDownLatch(1);
+      var futures = new ArrayList<Future<Object>>();
+      for (var task : tasks) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          return task.call();
+        }));
+      }
+      start.countDown();
+
+      var failures = new ArrayList<Throwable>();
+      for (var future : futures) {
+        try {
+          future.get(30, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+          failures.add(e.getCause());
+        }
+      }
+      return failures;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -2,6 +2,9 @@ package com.stepaniuk.feedback;
 
 
 import com.stepaniuk.feedback.client.OrderClient;
+import com.stepaniuk.feedback.rating.FeedbackRatingChange;
+import com.stepaniuk.feedback.rating.FeedbackRatingChangeMapperImpl;
+import com.stepaniuk.feedback.rating.FeedbackRatingChangeRepository;
 import com.stepaniuk.zrobleno.payload.feedback.FeedbackCreateRequest;
 import com.stepaniuk.zrobleno.payload.feedback.FeedbackUpdateRequest;
 import com.stepaniuk.zrobleno.payload.order.OrderResponse;
@@ -9,6 +12,8 @@ import com.stepaniuk.zrobleno.testspecific.ServiceLevelUnitTest;
 import com.stepaniuk.zrobleno.types.exception.feedback.NoSuchFeedbackByIdException;
 import com.stepaniuk.zrobleno.types.order.OrderStatusName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.stubbing.Answer1;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -17,6 +22,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.Duration;
 import java.time.Instant;
@@ -31,7 +37,8 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ServiceLevelUnitTest
-@ContextConfiguration(classes = {FeedbackService.class, FeedbackMapperImpl.class})
+@ContextConfiguration(classes = {FeedbackService.class, FeedbackMapperImpl.class,
+    FeedbackRatingChangeMapperImpl.class})
 class FeedbackServiceTest {
 
   @Autowired
@@ -40,11 +47,17 @@ class FeedbackServiceTest {
   @MockBean
   private FeedbackRepository feedbackRepository;
 
+  @MockBean
+  private FeedbackRatingChangeRepository feedbackRatingChangeRepository;
+
   @MockBean
   private OrderClient client;
 
+  @MockBean
+  private PlatformTransactionManager transactionManager;
+
   private static Feedback getNewFeedbackWithAllFields(Long id, Long orderId, UUID ownerId) {
-    return new Feedback(id, orderId, ownerId, 5, "comment", Instant.now(),
+    return new Feedback(id, orderId, 1L, ownerId, 5, "comment", Instant.now(),
         Instant.now().plus(Duration.ofHours(15)));
   }
   @Test
@@ -65,6 +78,26 @@ class FeedbackServiceTest {
     assertEquals(request.getRating(), response.getRating());
     assertEquals(request.getComment(), response.getComment());
     assertTrue(response.hasLinks());
+    assertRatingChangeRecorded(1L, 1L, 5, 1);
+  }
+
+  @Test
+  void shouldResolveOrderBeforeStartingTransactionWhenCreatingFeedback() {
+    // given
+    var ownerId = UUID.randomUUID();
+    var request = new FeedbackCreateRequest(1L, ownerId, 5, "comment");
+
+    when(feedbackRepository.save(any())).thenAnswer(answer(getFakeSave(1L)));
+    when(client.getOrderById(1L)).thenReturn(new OrderResponse(1L, ownerId,
+        OrderStatusName.CONFIRMED, 1L, null, null, Instant.now(), Instant.now()));
+    // when
+    feedbackService.createFeedback(request);
+    // then
+    InOrder inOrder = inOrder(client, transactionManager, feedbackRepository);
+    inOrder.verify(client).getOrderById(1L);
+    inOrder.verify(transactionManager).getTransaction(any());
+    inOrder.verify(feedbackRepository).save(any());
+    inOrder.verify(transactionManager).commit(any());
   }
 
   @Test
@@ -177,21 +210,57 @@ class FeedbackServiceTest {
 
   }
 
+  @Test
+  void shouldReturnFeedbackResponsesWhenGettingFeedbacksByOrderIds() {
+    // given
+    var ownerId = UUID.randomUUID();
+    var firstFeedback = getNewFeedbackWithAllFields(1L, 1L, ownerId);
+    var secondFeedback = getNewFeedbackWithAllFields(2L, 2L, ownerId);
+    var orderIds = List.of(1L, 2L, 3L);
+
+    when(feedbackRepository.findAllByOrderIdIn(orderIds)).thenReturn(
+        List.of(firstFeedback, secondFeedback));
+
+    // when
+    var responses = feedbackService.getFeedbacksByOrderIds(orderIds);
+
+    // then
+    assertNotNull(responses);
+    assertEquals(2, responses.size());
+    assertEquals(firstFeedback.getId(), responses.get(0).getId());
+    assertEquals(firstFeedback.getOrderId(), responses.get(0).getOrderId());
+    assertEquals(secondFeedback.getId(), responses.get(1).getId());
+    assertEquals(secondFeedback.getOrderId(), responses.get(1).getOrderId());
+    assertTrue(responses.get(0).hasLinks());
+    verify(feedbackRepository, times(1)).findAllByOrderIdIn(orderIds);
+  }
+
+  @Test
+  void shouldReturnEmptyListWhenGettingFeedbacksByEmptyOrderIds() {
+    // when
+    var responses = feedbackService.getFeedbacksByOrderIds(List.of());
+
+    // then
+    assertTrue(responses.isEmpty());
+    verifyNoInteractions(feedbackRepository);
+  }
+
   @Test
   void shouldReturnVoidWhenDeleteFeedback(){
     //given
     var feedback = getNewFeedbackWithAllFields(1L, 1L, UUID.randomUUID());
-    when(feedbackRepository.findById(1L)).thenReturn(Optional.of(feedback));
+    when(feedbackRepository.findForUpdateById(1L)).thenReturn(Optional.of(feedback));
     //when
     feedbackService.deleteFeedback(1L);
     //then
     verify(feedbackRepository, times(1)).delete(feedback);
+    assertRatingChangeRecorded(1L, 1L, -5, -1);
   }
 
   @Test
   void shouldReturnNoSuchFeedbackByIdExceptionWhenDeleteFeedbackByNonExistingId(){
     // given
-    when(feedbackRepository.findById(1L)).thenReturn(Optional.empty());
+    when(feedbackRepository.findForUpdateById(1L)).thenReturn(Optional.empty());
 
     // when && then
     assertThrows(NoSuchFeedbackByIdException.class, () -> feedbackService.deleteFeedback(1L));
@@ -202,7 +271,7 @@ class FeedbackServiceTest {
     // given
     var feedback = getNewFeedbackWithAllFields(1L, 1L, UUID.randomUUID());
     var request = new FeedbackUpdateRequest(4, null);
-    when(feedbackRepository.findById(1L)).thenReturn(Optional.of(feedback));
+    when(feedbackRepository.findForUpdateById(1L)).thenReturn(Optional.of(feedback));
     when(feedbackRepository.save(any())).thenAnswer(answer(getFakeSave(1L)));
     // when
     var response = feedbackService.updateFeedback(1L, request);
@@ -214,6 +283,63 @@ class FeedbackServiceTest {
     assertEquals(request.getRating(), response.getRating());
     assertEquals(feedback.getComment(), response.getComment());
     assertTrue(response.hasLinks());
+    assertRatingChangeRecorded(1L, 1L, -1, 0);
+  }
+
+  @Test
+  void shouldNotRecordRatingChangeWhenUpdatingOnlyComment() {
+    // given
+    var feedback = getNewFeedbackWithAllFields(1L, 1L, UUID.randomUUID());
+    var request = new FeedbackUpdateRequest(5, "new comment");
+    when(feedbackRepository.findForUpdateById(1L)).thenReturn(Optional.of(feedback));
+    when(feedbackRepository.save(any())).thenAnswer(answer(getFakeSave(1L)));
+    // when
+    var response = feedbackService.updateFeedback(1L, request);
+    // then
+    assertEquals("new comment", response.getComment());
+    verifyNoInteractions(feedbackRatingChangeRepository);
+  }
+
+  @Test
+  void shouldReturnRatingChangesAfterGivenPositionWhenGettingRatingChanges() {
+    // given
+    var now = Instant.now();
+    when(feedbackRatingChangeRepository.findAllCompletedAfter(99L, 3L, 2)).thenReturn(List.of(
+        new FeedbackRatingChange(5L, 1L, 2L, 5, 1, now, 100L),
+        new FeedbackRatingChange(4L, 1L, 2L, -2, 0, now, 101L)));
+    // when
+    var response = feedbackService.getRatingChanges(99L, 3L, 2);
+    // then
+    assertEquals(4L, response.getLastChangeId());
+    assertEquals(101L, response.getLastTransactionId());
+    assertEquals(2, response.getChanges().size());
+    assertEquals(2L, response.getChanges().get(0).getServiceId());
+    assertEquals(-2, response.getChanges().get(1).getRatingDelta());
+  }
+
+  @Test
+  void shouldReturnGivenPositionWhenThereAreNoNewerRatingChanges() {
+    // given
+    when(feedbackRatingChangeRepository.findAllCompletedAfter(eq(99L), eq(7L), anyInt()))
+        .thenReturn(List.of());
+    // when
+    var response = feedbackService.getRatingChanges(99L, 7L, 100);
+    // then
+    assertEquals(7L, response.getLastChangeId());
+    assertEquals(99L, response.getLastTransactionId());
+    assertTrue(response.getChanges().isEmpty());
+  }
+
+  private void assertRatingChangeRecorded(Long feedbackId, Long serviceId, int ratingDelta,
+      int countDelta) {
+    var changeCaptor = ArgumentCaptor.forClass(FeedbackRatingChange.class);
+    verify(feedbackRatingChangeRepository).save(changeCaptor.capture());
+
+    var change = changeCaptor.getValue();
+    assertEquals(feedbackId, change.getFeedbackId());
+    assertEquals(serviceId, change.getServiceId());
+    assertEquals(ratingDelta, change.getRatingDelta());
+    assertEquals(countDelta, change.getCountDelta());
   }
 
   private Answer1<Feedback, Feedback> getFakeSave(long id) {
@@ -1,6 +1,6 @@
-INSERT INTO feedbacks(id, order_id, owner_id, rating, comment, created_at, last_modified_at) VALUES
-                                                                                           (1, 1, 'b869fce1-f221-45bc-9363-f3bec945ac12', 5, 'Great service!', '2020-01-01 00:00:00', '2020-01-01 00:00:00'),
-                                                                                           (2, 2, 'b869fce1-f221-45bc-9363-f3bec945ac12', 4, 'Good service!', '2020-01-01 00:00:00', '2020-01-01 00:00:00'),
-                                                                                           (3, 3, 'b869fce1-f221-45bc-9363-f3bec945ac12', 3, 'Average service!', '2020-01-01 00:00:00', '2020-01-01 00:00:00'),
-                                                                                           (4, 4, 'b869fce1-f221-45bc-9363-f3bec945ac12', 2, 'Bad service!', '2020-01-01 00:00:00', '2020-01-01 00:00:00'),
-                                                                                           (5, 5, 'b869fce1-f221-45bc-9363-f3bec945ac12', 1, 'Terrible service!', '2020-01-01 00:00:00', '2020-01-01 00:00:00');
+INSERT INTO feedbacks(id, order_id, service_id, owner_id, rating, comment, created_at, last_modified_at) VALUES
+                                                                                           (1, 1, 1, 'b869fce1-f221-45bc-9363-f3bec945ac12', 5, 'Great service!', '2020-01-01 00:00:00', '2020-01-01 00:00:00'),
+                                                                                           (2, 2, 1, 'b869fce1-f221-45bc-9363-f3bec945ac12', 4, 'Good service!', '2020-01-01 00:00:00', '2020-01-01 00:00:00'),
+                                                                                           (3, 3, 1, 'b869fce1-f221-45bc-9363-f3bec945ac12', 3, 'Average service!', '2020-01-01 00:00:00', '2020-01-01 00:00:00'),
+                                                                                           (4, 4, 1, 'b869fce1-f221-45bc-9363-f3bec945ac12', 2, 'Bad service!', '2020-01-01 00:00:00', '2020-01-01 00:00:00'),
+                                                                                           (5, 5, 1, 'b869fce1-f221-45bc-9363-f3bec945ac12', 1, 'Terrible service!', '2020-01-01 00:00:00', '2020-01-01 00:00:00');
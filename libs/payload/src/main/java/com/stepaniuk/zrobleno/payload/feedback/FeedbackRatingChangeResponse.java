@@ -0,0 +1,36 @@
+package com.stepaniuk.zrobleno.payload.feedback;
+
+import com.stepaniuk.zrobleno.validation.shared.Id;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class FeedbackRatingChangeResponse {
+  @NotNull
+  private Long id;
+
+  @Id
+  @NotNull
+  private Long feedbackId;
+
+  @Id
+  @NotNull
+  private Long serviceId;
+
+  @NotNull
+  private Integer ratingDelta;
+
+  @NotNull
+  private Integer countDelta;
+
+  @NotNull
+  private Instant createdAt;
+}
@@ -0,0 +1,21 @@
+package com.stepaniuk.zrobleno.payload.order;
+
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class OrderBatchCreateRequest {
+
+  @NotNull
+  @Size(max = 1000)
+  private List<@NotNull @Valid OrderCreateRequest> orders;
+}
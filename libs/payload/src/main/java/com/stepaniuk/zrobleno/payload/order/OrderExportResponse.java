@@ -0,0 +1,44 @@
+package com.stepaniuk.zrobleno.payload.order;
+
+
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import com.stepaniuk.zrobleno.validation.shared.Id;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class OrderExportResponse {
+
+  @Id
+  @NotNull
+  private Long id;
+
+  @NotNull
+  private UUID ownerId;
+
+  @NotNull
+  private OrderStatusName status;
+
+  @Id
+  @NotNull
+  private Long serviceId;
+
+  @Nullable
+  private String comment;
+
+  @NotNull
+  private Instant createdAt;
+
+  @NotNull
+  private Instant lastModifiedAt;
+}
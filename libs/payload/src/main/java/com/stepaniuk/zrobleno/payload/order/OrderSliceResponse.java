@@ -0,0 +1,26 @@
+package com.stepaniuk.zrobleno.payload.order;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class OrderSliceResponse {
+
+  @NotNull
+  private List<OrderResponse> content;
+
+  @NotNull
+  private Boolean hasNext;
+
+  @Nullable
+  private String next;
+}
@@ -0,0 +1,27 @@
+package com.stepaniuk.zrobleno.payload.order;
+
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class OrderStatsResponse {
+
+  @NotNull
+  private UUID ownerId;
+
+  @NotNull
+  private Map<OrderStatusName, Long> counts;
+
+  @NotNull
+  private Long total;
+}
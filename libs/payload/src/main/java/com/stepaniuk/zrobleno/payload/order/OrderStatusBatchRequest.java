@@ -0,0 +1,25 @@
+package com.stepaniuk.zrobleno.payload.order;
+
+
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import com.stepaniuk.zrobleno.validation.shared.Id;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class OrderStatusBatchRequest {
+
+  @NotNull
+  @Size(max = 1000)
+  private List<@Id Long> ids;
+
+  @NotNull
+  private OrderStatusName status;
+}
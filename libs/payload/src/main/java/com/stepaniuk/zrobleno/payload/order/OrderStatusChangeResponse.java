@@ -0,0 +1,29 @@
+package com.stepaniuk.zrobleno.payload.order;
+
+
+import com.stepaniuk.zrobleno.types.order.OrderStatusChangeOutcome;
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import com.stepaniuk.zrobleno.validation.shared.Id;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.lang.Nullable;
+
+@Getter
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class OrderStatusChangeResponse {
+
+  @Id
+  @NotNull
+  private Long id;
+
+  @NotNull
+  private OrderStatusChangeOutcome outcome;
+
+  @Nullable
+  private OrderStatusName status;
+}
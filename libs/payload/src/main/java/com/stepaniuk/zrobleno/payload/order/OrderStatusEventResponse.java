@@ -0,0 +1,33 @@
+package com.stepaniuk.zrobleno.payload.order;
+
+
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import com.stepaniuk.zrobleno.validation.shared.Id;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class OrderStatusEventResponse {
+
+  @Id
+  @NotNull
+  private Long id;
+
+  @NotNull
+  private UUID ownerId;
+
+  @NotNull
+  private OrderStatusName status;
+
+  @NotNull
+  private Instant changedAt;
+}
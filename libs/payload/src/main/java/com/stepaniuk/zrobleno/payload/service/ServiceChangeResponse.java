@@ -0,0 +1,30 @@
+package com.stepaniuk.zrobleno.payload.service;
+
+import com.stepaniuk.zrobleno.types.service.ServiceChangeType;
+import com.stepaniuk.zrobleno.validation.shared.Id;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class ServiceChangeResponse {
+  @NotNull
+  private Long id;
+
+  @Id
+  @NotNull
+  private Long serviceId;
+
+  @NotNull
+  private ServiceChangeType type;
+
+  @NotNull
+  private Instant createdAt;
+}
@@ -0,0 +1,24 @@
+package com.stepaniuk.zrobleno.payload.service;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class ServiceChangesResponse {
+  @NotNull
+  private List<ServiceChangeResponse> changes;
+
+  @NotNull
+  private Long lastChangeId;
+
+  @NotNull
+  private Long lastTransactionId;
+}
@@ -57,4 +57,10 @@ public class ServiceResponse extends RepresentationModel<ServiceResponse> {
 
   @NotNull
   private final Instant lastModifiedAt;
+
+  @NotNull
+  private BigDecimal avgRating;
+
+  @NotNull
+  private Integer ratingCount;
 }
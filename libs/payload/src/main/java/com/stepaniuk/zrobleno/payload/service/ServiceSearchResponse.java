@@ -0,0 +1,19 @@
+package com.stepaniuk.zrobleno.payload.service;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class ServiceSearchResponse {
+  @NotNull
+  private ServiceResponse service;
+
+  @NotNull
+  private Float rank;
+}
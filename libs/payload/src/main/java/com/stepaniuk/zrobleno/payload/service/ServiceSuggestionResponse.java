@@ -0,0 +1,23 @@
+package com.stepaniuk.zrobleno.payload.service;
+
+import com.stepaniuk.zrobleno.validation.service.Title;
+import com.stepaniuk.zrobleno.validation.shared.Id;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class ServiceSuggestionResponse {
+  @Id
+  @NotNull
+  private Long id;
+
+  @Title
+  @NotNull
+  private String title;
+}
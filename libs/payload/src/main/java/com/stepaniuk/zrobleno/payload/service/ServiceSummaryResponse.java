@@ -0,0 +1,39 @@
+package com.stepaniuk.zrobleno.payload.service;
+
+import com.stepaniuk.zrobleno.validation.service.Title;
+import com.stepaniuk.zrobleno.validation.shared.Id;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.Relation;
+import org.springframework.lang.Nullable;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode(callSuper = true)
+@Relation(collectionRelation = "services", itemRelation = "service")
+public class ServiceSummaryResponse extends RepresentationModel<ServiceSummaryResponse> {
+  @Id
+  @NotNull
+  private Long id;
+
+  @Id
+  @NotNull
+  private Long categoryId;
+
+  @Title
+  @NotNull
+  private String title;
+
+  @Nullable
+  private BigDecimal price;
+
+  @NotNull
+  private Integer priority;
+}
@@ -0,0 +1,21 @@
+package com.stepaniuk.zrobleno.types.exception.order;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when a call to another service does not complete within the enrichment
+ * deadline.
+ *
+ * @see RuntimeException
+ */
+@Getter
+public class EnrichmentTimeoutException extends RuntimeException {
+
+  private final long timeoutMillis;
+
+  public EnrichmentTimeoutException(long timeoutMillis) {
+    super("Remote call did not complete within " + timeoutMillis + " ms");
+    this.timeoutMillis = timeoutMillis;
+  }
+
+}
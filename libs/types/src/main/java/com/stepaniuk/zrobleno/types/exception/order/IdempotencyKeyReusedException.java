@@ -0,0 +1,20 @@
+package com.stepaniuk.zrobleno.types.exception.order;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when Idempotency-Key of an owner is sent again with a different request.
+ *
+ * @see RuntimeException
+ */
+@Getter
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+  private final String idempotencyKey;
+
+  public IdempotencyKeyReusedException(String idempotencyKey) {
+    super("Idempotency key was used with a different request: " + idempotencyKey);
+    this.idempotencyKey = idempotencyKey;
+  }
+
+}
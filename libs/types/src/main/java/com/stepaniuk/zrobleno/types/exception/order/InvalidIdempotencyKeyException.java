@@ -0,0 +1,20 @@
+package com.stepaniuk.zrobleno.types.exception.order;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when value of Idempotency-Key header is blank or too long.
+ *
+ * @see RuntimeException
+ */
+@Getter
+public class InvalidIdempotencyKeyException extends RuntimeException {
+
+  private final String idempotencyKey;
+
+  public InvalidIdempotencyKeyException(String idempotencyKey) {
+    super("Invalid idempotency key: " + idempotencyKey);
+    this.idempotencyKey = idempotencyKey;
+  }
+
+}
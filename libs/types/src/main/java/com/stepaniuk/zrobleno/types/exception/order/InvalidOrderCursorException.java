@@ -0,0 +1,20 @@
+package com.stepaniuk.zrobleno.types.exception.order;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when continuation token of orders slice cannot be decoded.
+ *
+ * @see RuntimeException
+ */
+@Getter
+public class InvalidOrderCursorException extends RuntimeException {
+
+  private final String cursor;
+
+  public InvalidOrderCursorException(String cursor) {
+    super("Invalid orders cursor: " + cursor);
+    this.cursor = cursor;
+  }
+
+}
@@ -0,0 +1,22 @@
+package com.stepaniuk.zrobleno.types.exception.order;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when a batch request holds more orders than can be handled at once.
+ *
+ * @see RuntimeException
+ */
+@Getter
+public class OrderBatchTooLargeException extends RuntimeException {
+
+  private final int size;
+  private final int maxSize;
+
+  public OrderBatchTooLargeException(int size, int maxSize) {
+    super("Order batch of size " + size + " exceeds the maximum of " + maxSize);
+    this.size = size;
+    this.maxSize = maxSize;
+  }
+
+}
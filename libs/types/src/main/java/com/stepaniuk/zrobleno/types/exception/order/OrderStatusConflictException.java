@@ -0,0 +1,27 @@
+package com.stepaniuk.zrobleno.types.exception.order;
+
+
+
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import lombok.Getter;
+
+/**
+ * Exception thrown when status of order was changed concurrently.
+ *
+ * @see RuntimeException
+ */
+@Getter
+public class OrderStatusConflictException extends RuntimeException {
+  private final OrderStatusName status;
+  private final OrderStatusName expectedStatus;
+  private final Long id;
+
+  public OrderStatusConflictException(OrderStatusName status, OrderStatusName expectedStatus,
+      Long id) {
+    super("Order status conflict! Expected " + expectedStatus + " before changing to " + status
+        + " in order with id: " + id);
+    this.status = status;
+    this.expectedStatus = expectedStatus;
+    this.id = id;
+  }
+}
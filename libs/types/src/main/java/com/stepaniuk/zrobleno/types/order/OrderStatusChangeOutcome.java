@@ -0,0 +1,7 @@
+package com.stepaniuk.zrobleno.types.order;
+
+public enum OrderStatusChangeOutcome {
+  CHANGED,
+  ILLEGAL_STATUS,
+  NOT_FOUND
+}
@@ -0,0 +1,7 @@
+package com.stepaniuk.zrobleno.types.service;
+
+public enum ServiceChangeType {
+  CREATED,
+  UPDATED,
+  DELETED
+}
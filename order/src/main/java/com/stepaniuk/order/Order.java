@@ -1,12 +1,14 @@
 package com.stepaniuk.order;
 
 
-import com.stepaniuk.order.status.OrderStatus;
+import com.stepaniuk.order.status.OrderStatusNameConverter;
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.PartitionKey;
 import org.hibernate.proxy.HibernateProxy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -22,20 +24,22 @@ import java.util.UUID;
 @RequiredArgsConstructor
 @Entity
 @EntityListeners(AuditingEntityListener.class)
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "orders_owner_id_created_at_id_idx", columnList = "owner_id, created_at, id")
+})
 public class Order {
   @Id
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id_gen")
-  @SequenceGenerator(name = "orders_id_gen", sequenceName = "orders_id_seq", allocationSize = 1)
+  @SequenceGenerator(name = "orders_id_gen", sequenceName = "orders_id_seq", allocationSize = 50)
   @Column(name = "id", nullable = false)
   private Long id;
 
   @Column(name = "owner_id", nullable = false)
   private UUID ownerId;
 
-  @ManyToOne
-  @JoinColumn(name = "status_id")
-  private OrderStatus status;
+  @Convert(converter = OrderStatusNameConverter.class)
+  @Column(name = "status", nullable = false, columnDefinition = "smallint")
+  private OrderStatusName status;
 
   @Column(name="service_id", nullable = false)
   private Long serviceId;
@@ -45,12 +49,21 @@ public class Order {
 
   @Column(name = "created_at", nullable = false, updatable = false)
   @CreatedDate
+  @PartitionKey
   private Instant createdAt;
 
   @Column(name = "last_modified_at", nullable = false)
   @LastModifiedDate
   private Instant lastModifiedAt;
 
+  /**
+   * Whether the order was moved to the archive partitions by
+   * {@link com.stepaniuk.order.archive.OrderArchiver}. Only the archiver sets it.
+   */
+  @Column(name = "archived", nullable = false, insertable = false, updatable = false,
+      columnDefinition = "boolean default false")
+  private boolean archived;
+
   @Override
   public final boolean equals(Object o) {
     if (this == o) {
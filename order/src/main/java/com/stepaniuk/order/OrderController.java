@@ -1,17 +1,31 @@
 package com.stepaniuk.order;
 
 
+import com.stepaniuk.order.export.OrderExporter;
+import com.stepaniuk.order.idempotency.OrderIdempotencyStore;
+import com.stepaniuk.order.stream.OrderStatusStreamHub;
+import com.stepaniuk.zrobleno.payload.order.OrderBatchCreateRequest;
 import com.stepaniuk.zrobleno.payload.order.OrderCreateRequest;
 import com.stepaniuk.zrobleno.payload.order.OrderResponse;
+import com.stepaniuk.zrobleno.payload.order.OrderSliceResponse;
+import com.stepaniuk.zrobleno.payload.order.OrderStatsResponse;
+import com.stepaniuk.zrobleno.payload.order.OrderStatusBatchRequest;
+import com.stepaniuk.zrobleno.payload.order.OrderStatusChangeResponse;
 import com.stepaniuk.zrobleno.payload.order.OrderUpdateRequest;
 import com.stepaniuk.zrobleno.types.order.OrderStatusName;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -20,10 +34,25 @@ import java.util.UUID;
 public class OrderController {
 
   private final OrderService orderService;
+  private final OrderIdempotencyStore orderIdempotencyStore;
+  private final OrderExporter orderExporter;
+  private final OrderStatusStreamHub orderStatusStreamHub;
 
   @PostMapping
-  public ResponseEntity<OrderResponse> createOrder(@RequestBody OrderCreateRequest request) {
-    return new ResponseEntity<>(orderService.createOrder(request),
+  public ResponseEntity<OrderResponse> createOrder(@RequestBody OrderCreateRequest request,
+      @Nullable @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+    if (idempotencyKey == null) {
+      return new ResponseEntity<>(orderService.createOrder(request), HttpStatus.CREATED);
+    }
+
+    return new ResponseEntity<>(orderIdempotencyStore.getOrCreate(request, idempotencyKey,
+        () -> orderService.createOrder(request, idempotencyKey)), HttpStatus.CREATED);
+  }
+
+  @PostMapping("/batch")
+  public ResponseEntity<List<OrderResponse>> createOrders(
+      @RequestBody OrderBatchCreateRequest request) {
+    return new ResponseEntity<>(orderService.createOrders(request.getOrders()),
         HttpStatus.CREATED);
   }
 
@@ -58,6 +87,33 @@ public class OrderController {
     return ResponseEntity.ok(orderService.changeStatus(id, OrderStatusName.COMPLETED));
   }
 
+  @PostMapping("/status:batch")
+  public ResponseEntity<List<OrderStatusChangeResponse>> changeStatuses(
+      @RequestBody OrderStatusBatchRequest request) {
+    return ResponseEntity.ok(orderService.changeStatuses(request.getIds(), request.getStatus()));
+  }
+
+  @GetMapping("/stats")
+  public ResponseEntity<OrderStatsResponse> getStats(@RequestParam UUID ownerId) {
+    return ResponseEntity.ok(orderService.getStats(ownerId));
+  }
+
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> exportOrders(
+      @Nullable @RequestParam(required = false) OrderStatusName status,
+      @Nullable @RequestParam(required = false) UUID ownerId,
+      @Nullable @RequestParam(required = false) Instant from,
+      @Nullable @RequestParam(required = false) Instant to) {
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(outputStream -> orderExporter.export(outputStream, status, ownerId, from, to));
+  }
+
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> streamStatusChanges(@RequestParam UUID ownerId) {
+    return ResponseEntity.ok(orderStatusStreamHub.subscribe(ownerId));
+  }
+
   @GetMapping("/v1")
   public ResponseEntity<Page<OrderResponse>> getAllOrders(Pageable pageable) {
     return ResponseEntity.ok(orderService.getAllOrders(pageable, null));
@@ -67,4 +123,11 @@ public class OrderController {
   public ResponseEntity<Page<OrderResponse>> getAllOrders(Pageable pageable, UUID ownerId) {
     return ResponseEntity.ok(orderService.getAllOrders(pageable, ownerId));
   }
+
+  @GetMapping("/v3")
+  public ResponseEntity<OrderSliceResponse> getAllOrdersAfter(@RequestParam UUID ownerId,
+      @Nullable @RequestParam(required = false) String after,
+      @RequestParam(defaultValue = "20") int limit) {
+    return ResponseEntity.ok(orderService.getAllOrders(ownerId, after, limit));
+  }
 }
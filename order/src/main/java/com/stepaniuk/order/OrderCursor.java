@@ -0,0 +1,35 @@
+package com.stepaniuk.order;
+
+import com.stepaniuk.zrobleno.types.exception.order.InvalidOrderCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position of an order in the {@code (created_at DESC, id DESC)} keyset, encoded as an opaque
+ * continuation token.
+ */
+record OrderCursor(Instant createdAt, Long id) {
+
+  static OrderCursor of(Order order) {
+    return new OrderCursor(order.getCreatedAt(), order.getId());
+  }
+
+  static OrderCursor decode(String token) {
+    try {
+      var value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      var separator = value.indexOf(',');
+      return new OrderCursor(Instant.parse(value.substring(0, separator)),
+          Long.valueOf(value.substring(separator + 1)));
+    } catch (RuntimeException e) {
+      throw new InvalidOrderCursorException(token);
+    }
+  }
+
+  String encode() {
+    var value = createdAt + "," + id;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -11,7 +11,7 @@ import org.springframework.lang.Nullable;
 @Mapper(componentModel = "spring", injectionStrategy = InjectionStrategy.CONSTRUCTOR)
 public interface OrderMapper {
   @BeanMapping(qualifiedByName = "addLinks")
-  @Mapping(target = "status", source = "order.status.name")
+  @Mapping(target = "status", source = "order.status")
   @Mapping(target = "feedback", source = "feedback")
   @Mapping(target = "id", source = "order.id")
   @Mapping(target = "createdAt", source = "order.createdAt")
@@ -23,20 +23,28 @@ public interface OrderMapper {
   @AfterMapping
   @Named("addLinks")
   default OrderResponse addLinks(Order order, @MappingTarget OrderResponse response) {
-    response.add(Link.of("/orders/" + order.getId()).withSelfRel());
+    return withLinks(response);
+  }
+
+  /**
+   * Adds the links of the status the response holds, for responses that were not just mapped from
+   * an order, e.g. ones replayed from storage.
+   */
+  default OrderResponse withLinks(OrderResponse response) {
+    response.add(Link.of("/orders/" + response.getId()).withSelfRel());
 
-    if(order.getStatus().getName().equals(OrderStatusName.CREATED)){
-      response.add(Link.of("/orders/" + order.getId() + "/cancel").withRel("cancel"));
-      response.add(Link.of("/orders/" + order.getId() + "/confirm").withRel("confirm"));
+    if (response.getStatus() == OrderStatusName.CREATED) {
+      response.add(Link.of("/orders/" + response.getId() + "/cancel").withRel("cancel"));
+      response.add(Link.of("/orders/" + response.getId() + "/confirm").withRel("confirm"));
     }
 
-    if (order.getStatus().getName().equals(OrderStatusName.CONFIRMED)) {
-      response.add(Link.of("/orders/" + order.getId() + "/in-progress").withRel("in-progress"));
-      response.add(Link.of("/orders/" + order.getId() + "/cancel").withRel("cancel"));
+    if (response.getStatus() == OrderStatusName.CONFIRMED) {
+      response.add(Link.of("/orders/" + response.getId() + "/in-progress").withRel("in-progress"));
+      response.add(Link.of("/orders/" + response.getId() + "/cancel").withRel("cancel"));
     }
 
-    if (order.getStatus().getName().equals(OrderStatusName.IN_PROGRESS)) {
-      response.add(Link.of("/orders/" + order.getId() + "/complete").withRel("complete"));
+    if (response.getStatus() == OrderStatusName.IN_PROGRESS) {
+      response.add(Link.of("/orders/" + response.getId() + "/complete").withRel("complete"));
     }
 
     return response;
@@ -1,11 +1,120 @@
 package com.stepaniuk.order;
 
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long>,
     JpaSpecificationExecutor<Order> {
 
-}
\ No newline at end of file
+  /**
+   * Reads a page of orders without counting them, so that the count can run while the orders are
+   * being enriched.
+   */
+  @Query("select o from Order o")
+  Slice<Order> findSlice(Pageable pageable);
+
+  @Query("select o from Order o where o.ownerId = :ownerId")
+  Slice<Order> findSliceByOwnerId(@Param("ownerId") UUID ownerId, Pageable pageable);
+
+  long countByOwnerId(UUID ownerId);
+
+  @Query("""
+      select o from Order o
+      where o.ownerId = :ownerId
+      order by o.createdAt desc, o.id desc""")
+  Slice<Order> findFirstSliceByOwnerId(@Param("ownerId") UUID ownerId, Pageable pageable);
+
+  /**
+   * Seeks past {@code (createdAt, id)} in {@code (created_at DESC, id DESC)} order. The
+   * {@code createdAt <= :createdAt} bound is implied by the condition after it, but PostgreSQL
+   * cannot derive a range from an {@code or}. Without the bound, the index scan on
+   * {@code (owner_id, created_at, id)} starts at the owner's newest order instead of at the
+   * cursor, and no partition newer than the cursor is pruned.
+   */
+  @Query("""
+      select o from Order o
+      where o.ownerId = :ownerId
+        and o.createdAt <= :createdAt
+        and (o.createdAt < :createdAt or o.id < :id)
+      order by o.createdAt desc, o.id desc""")
+  Slice<Order> findSliceByOwnerIdAfter(@Param("ownerId") UUID ownerId,
+      @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("""
+      update Order o set o.status = :status, o.lastModifiedAt = :lastModifiedAt
+      where o.id = :id and o.createdAt = :createdAt and o.status = :expectedStatus""")
+  int updateStatusByIdAndStatus(@Param("id") Long id, @Param("createdAt") Instant createdAt,
+      @Param("expectedStatus") OrderStatusName expectedStatus,
+      @Param("status") OrderStatusName status,
+      @Param("lastModifiedAt") Instant lastModifiedAt);
+
+  /**
+   * Changes the status of the given orders that have one of {@code predecessors} and returns a
+   * row for each of the given orders that exists. Changed orders are locked in id order, so
+   * concurrent batches do not deadlock, and a row changed concurrently is re-read before its
+   * status is checked; their previous status is the one the lock saw. Orders that were not
+   * changed are returned with their current status.
+   */
+  @Transactional
+  @Query(value = """
+      with locked as (
+          select id, created_at, status from orders
+          where id in (:ids) and status in (:predecessors)
+          order by id
+          for update),
+      changed as (
+          update orders o set status = :status, last_modified_at = now()
+          from locked l
+          where o.id = l.id and o.created_at = l.created_at
+          returning o.id, l.status as previous_status)
+      select o.id as id, o.owner_id as "ownerId",
+          coalesce(c.previous_status, o.status) as "previousStatus",
+          c.id is not null as changed
+      from orders o
+      left join changed c on c.id = o.id
+      where o.id in (:ids)""", nativeQuery = true)
+  List<OrderStatusUpdate> updateStatusByIdInAndStatusIn(@Param("ids") Collection<Long> ids,
+      @Param("status") Short status,
+      @Param("predecessors") Collection<Short> predecessors);
+
+  /**
+   * Moves up to {@code limit} orders with one of the given statuses, created and last modified
+   * before {@code before}, to the archive partitions of {@code orders} and returns how many were
+   * moved. Archived orders stay visible to every query on {@code orders}; only the partitions that
+   * hold them change. The {@code created_at} bound lets the planner skip newer partitions, and
+   * skipping locked rows lets concurrent runs on other instances take disjoint batches.
+   */
+  @Transactional
+  @Modifying
+  @Query(value = """
+      update orders set archived = true
+      where id in (select id from orders
+                   where archived = false
+                     and status in (:statuses)
+                     and created_at < :before
+                     and last_modified_at < :before
+                   order by id
+                   limit :limit
+                   for update skip locked)
+        and archived = false
+        and created_at < :before""", nativeQuery = true)
+  int archiveByStatusInAndLastModifiedAtBefore(@Param("statuses") Collection<Short> statuses,
+      @Param("before") Instant before, @Param("limit") int limit);
+
+}
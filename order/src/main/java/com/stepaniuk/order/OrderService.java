@@ -1,137 +1,335 @@
 package com.stepaniuk.order;
 
 
+import com.stepaniuk.order.client.EnrichmentExecutor;
 import com.stepaniuk.order.client.FeedbackClient;
-import com.stepaniuk.order.client.ServiceClient;
-import com.stepaniuk.order.status.OrderStatusRepository;
+import com.stepaniuk.order.client.ServiceBatchLoader;
+import com.stepaniuk.order.client.ServiceIdIndex;
+import com.stepaniuk.order.idempotency.OrderIdempotencyStore;
+import com.stepaniuk.order.shared.DegradedResponseAdvice;
+import com.stepaniuk.order.stats.OrderStatsService;
+import com.stepaniuk.order.status.OrderStatusNameConverter;
+import com.stepaniuk.order.status.OrderStatusTransitions;
+import com.stepaniuk.order.stream.OrderStatusChangedEvent;
+import com.stepaniuk.zrobleno.payload.feedback.FeedbackResponse;
 import com.stepaniuk.zrobleno.payload.order.OrderCreateRequest;
 import com.stepaniuk.zrobleno.payload.order.OrderResponse;
+import com.stepaniuk.zrobleno.payload.order.OrderSliceResponse;
+import com.stepaniuk.zrobleno.payload.order.OrderStatsResponse;
+import com.stepaniuk.zrobleno.payload.order.OrderStatusChangeResponse;
 import com.stepaniuk.zrobleno.payload.order.OrderUpdateRequest;
 import com.stepaniuk.zrobleno.types.exception.order.IllegalOrderStatusException;
 import com.stepaniuk.zrobleno.types.exception.order.NoSuchOrderByIdException;
-import com.stepaniuk.zrobleno.types.exception.order.NoSuchOrderStatusByNameException;
+import com.stepaniuk.zrobleno.types.exception.order.OrderBatchTooLargeException;
 import com.stepaniuk.zrobleno.types.exception.service.NoSuchServiceByIdException;
+import com.stepaniuk.zrobleno.types.order.OrderStatusChangeOutcome;
 import com.stepaniuk.zrobleno.types.order.OrderStatusName;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.UUID;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
+  private static final int MAX_SLICE_SIZE = 100;
+  private static final int MAX_BATCH_SIZE = 1000;
+
   private final OrderRepository orderRepository;
-  private final OrderStatusRepository orderStatusRepository;
   private final OrderMapper orderMapper;
   private final FeedbackClient feedbackClient;
-  private final ServiceClient serviceClient;
+  private final ServiceBatchLoader serviceBatchLoader;
+  private final ServiceIdIndex serviceIdIndex;
+  private final EnrichmentExecutor enrichmentExecutor;
+  private final OrderStatsService orderStatsService;
+  private final OrderStatusUpdater orderStatusUpdater;
+  private final OrderIdempotencyStore orderIdempotencyStore;
+  private final ApplicationEventPublisher applicationEventPublisher;
 
+  @Transactional
   public OrderResponse createOrder(OrderCreateRequest request) {
-    Order order = new Order();
+    return createOrder(request, null);
+  }
 
-    var orderStatus = orderStatusRepository.findByName(OrderStatusName.CREATED)
-        .orElseThrow(() -> new NoSuchOrderStatusByNameException(OrderStatusName.CREATED));
+  /**
+   * Creates an order and, when an idempotency key is given, records it in the same transaction
+   * so that a concurrent request with the same key fails instead of creating a duplicate.
+   */
+  @Transactional
+  public OrderResponse createOrder(OrderCreateRequest request, @Nullable String idempotencyKey) {
+    var serviceExists = serviceIdIndex.contains(request.getServiceId())
+        ? CompletableFuture.completedFuture(true)
+        : lookUpService(request.getServiceId());
+    Order order = new Order();
 
-    order.setStatus(orderStatus);
+    order.setStatus(OrderStatusName.CREATED);
     order.setOwnerId(request.getOwnerId());
     order.setComment(request.getComment());
-    var service = serviceClient.getServiceById(request.getServiceId());
 
-    if(service == null) {
+    if (!enrichmentExecutor.await(serviceExists)) {
       throw new NoSuchServiceByIdException(request.getServiceId());
     }
 
     order.setServiceId(request.getServiceId());
 
     var savedOrder = orderRepository.save(order);
-    return orderMapper.toResponse(savedOrder, null);
+    orderStatsService.recordCreated(savedOrder.getOwnerId(), 1);
+
+    var response = orderMapper.toResponse(savedOrder, null);
+
+    if (idempotencyKey != null) {
+      orderIdempotencyStore.claim(request, idempotencyKey, response);
+    }
+
+    return response;
+  }
+
+  @Transactional
+  public List<OrderResponse> createOrders(List<OrderCreateRequest> requests) {
+    checkBatchSize(requests.size());
+    if (requests.isEmpty()) {
+      return List.of();
+    }
+
+    checkServicesExist(requests.stream()
+        .map(OrderCreateRequest::getServiceId)
+        .collect(Collectors.toCollection(LinkedHashSet::new)));
+
+    var orders = requests.stream().map(request -> {
+      Order order = new Order();
+      order.setStatus(OrderStatusName.CREATED);
+      order.setOwnerId(request.getOwnerId());
+      order.setServiceId(request.getServiceId());
+      order.setComment(request.getComment());
+      return order;
+    }).toList();
+
+    var savedOrders = orderRepository.saveAll(orders);
+
+    savedOrders.stream()
+        .collect(Collectors.groupingBy(Order::getOwnerId, Collectors.counting()))
+        .forEach(orderStatsService::recordCreated);
+
+    return savedOrders.stream()
+        .map(order -> orderMapper.toResponse(order, null))
+        .toList();
   }
 
   public OrderResponse getOrder(Long id) {
-    var order = orderRepository.findById(id).orElseThrow(
-        () -> new NoSuchOrderByIdException(id)
-    );
+    var feedback = enrichmentExecutor.submit(() -> getFeedbackByOrderId(id));
+    var order = orderRepository.findById(id)
+        .orElseThrow(() -> new NoSuchOrderByIdException(id));
 
-    var feedback = feedbackClient.getAllFeedbacks(Pageable.ofSize(1),
-        null, order.getId()).getContent().stream().findFirst().orElse(null);
-    return orderMapper.toResponse(order, feedback);
+    return orderMapper.toResponse(order, awaitFeedback(feedback, null));
   }
 
+  /**
+   * Status changes go through the same compare-and-set as {@link #changeStatus}. The feedback
+   * lookup runs while the status is changed and is awaited after the transaction has ended.
+   */
   public OrderResponse updateOrder(Long id, OrderUpdateRequest request) {
+    var feedback = enrichmentExecutor.submit(() -> getFeedbackByOrderId(id));
     var order = orderRepository.findById(id).orElseThrow(() -> new NoSuchOrderByIdException(id));
-    var feedback = feedbackClient.getAllFeedbacks(Pageable.ofSize(1), null, id).getContent()
-        .stream().findFirst().orElse(null);
 
     if (request.getStatus() != null) {
-      var orderStatus = orderStatusRepository.findByName(request.getStatus())
-          .orElseThrow(() -> new NoSuchOrderStatusByNameException(request.getStatus()));
-      checkStatusForIllegal(request.getStatus(), order.getStatus().getName(), id);
-      order.setStatus(orderStatus);
+      checkStatusForIllegal(request.getStatus(), order.getStatus(), id);
+      orderStatusUpdater.changeStatus(order, request.getStatus());
     }
 
-    return orderMapper.toResponse(orderRepository.save(order), feedback);
+    return orderMapper.toResponse(order, awaitFeedback(feedback, null));
   }
 
+  /**
+   * Reads the orders first and counts them while their feedback is looked up, so the count query
+   * overlaps the remote call instead of running before it.
+   */
   public Page<OrderResponse> getAllOrders(Pageable pageable,
       @Nullable UUID ownerId) {
 
-    Specification<Order> specification = Specification.where(null);
+    var orders = ownerId == null
+        ? orderRepository.findSlice(pageable)
+        : orderRepository.findSliceByOwnerId(ownerId, pageable);
+    var feedback = enrichmentExecutor.submit(() -> getFeedbacksByOrderId(orders.getContent()));
 
-    if (ownerId != null) {
-      specification = specification.and(
-          (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("ownerId"), ownerId));
-    }
+    var page = PageableExecutionUtils.getPage(orders.getContent(), pageable,
+        () -> ownerId == null ? orderRepository.count() : orderRepository.countByOwnerId(ownerId));
+    var feedbacks = awaitFeedback(feedback, Map.of());
+
+    return page.map(order -> orderMapper.toResponse(order, feedbacks.get(order.getId())));
+  }
+
+  public OrderSliceResponse getAllOrders(UUID ownerId, @Nullable String after, int limit) {
+    var pageable = PageRequest.ofSize(Math.min(Math.max(limit, 1), MAX_SLICE_SIZE));
 
-    var orders = orderRepository.findAll(specification, pageable);
+    var orders = after == null
+        ? orderRepository.findFirstSliceByOwnerId(ownerId, pageable)
+        : findSliceByOwnerIdAfter(ownerId, OrderCursor.decode(after), pageable);
+    var feedbacks = awaitFeedback(
+        enrichmentExecutor.submit(() -> getFeedbacksByOrderId(orders.getContent())), Map.of());
 
-    return orders.map(order -> {
-      var feedback = feedbackClient.getAllFeedbacks(Pageable.ofSize(1), null, order.getId())
-          .getContent().stream().findFirst().orElse(null);
-      return orderMapper.toResponse(order, feedback);
-    });
+    var content = orders.getContent().stream()
+        .map(order -> orderMapper.toResponse(order, feedbacks.get(order.getId())))
+        .toList();
+    var next = orders.hasNext()
+        ? OrderCursor.of(orders.getContent().get(orders.getNumberOfElements() - 1)).encode()
+        : null;
+
+    return new OrderSliceResponse(content, orders.hasNext(), next);
   }
 
   public OrderResponse changeStatus(Long id, OrderStatusName status) {
+    var feedback = enrichmentExecutor.submit(() -> getFeedbackByOrderId(id));
     var order = orderRepository.findById(id).orElseThrow(() -> new NoSuchOrderByIdException(id));
-    var orderStatus = orderStatusRepository.findByName(status)
-        .orElseThrow(() -> new NoSuchOrderStatusByNameException(status));
-    var feedback = feedbackClient.getAllFeedbacks(Pageable.ofSize(1), null, id).getContent()
+
+    checkStatusForIllegal(status, order.getStatus(), id);
+    orderStatusUpdater.changeStatus(order, status);
+
+    return orderMapper.toResponse(order, awaitFeedback(feedback, null));
+  }
+
+  @Transactional
+  public List<OrderStatusChangeResponse> changeStatuses(List<Long> ids, OrderStatusName status) {
+    checkBatchSize(ids.size());
+    var orderIds = new LinkedHashSet<>(ids);
+
+    if (orderIds.isEmpty()) {
+      return List.of();
+    }
+
+    var predecessors = OrderStatusTransitions.getPredecessors(status);
+    var changedOrders = new ArrayList<OrderStatusUpdate>();
+    var currentStatuses = new HashMap<Long, OrderStatusName>();
+
+    if (predecessors.isEmpty()) {
+      orderRepository.findAllById(orderIds)
+          .forEach(order -> currentStatuses.put(order.getId(), order.getStatus()));
+    } else {
+      for (var update : orderRepository.updateStatusByIdInAndStatusIn(orderIds,
+          OrderStatusNameConverter.toCode(status),
+          predecessors.stream().map(OrderStatusNameConverter::toCode).toList())) {
+        if (update.getChanged()) {
+          changedOrders.add(update);
+        } else {
+          currentStatuses.put(update.getId(),
+              OrderStatusNameConverter.fromCode(update.getPreviousStatus()));
+        }
+      }
+    }
+
+    var changedIds = changedOrders.stream().map(OrderStatusUpdate::getId)
+        .collect(Collectors.toSet());
+    var changedAt = Instant.now();
+
+    changedOrders.stream()
+        .collect(Collectors.groupingBy(OrderStatusUpdate::getOwnerId,
+            Collectors.groupingBy(
+                update -> OrderStatusNameConverter.fromCode(update.getPreviousStatus()),
+                Collectors.counting())))
+        .forEach((ownerId, counts) -> counts.forEach((previousStatus, count) ->
+            orderStatsService.recordStatusChange(ownerId, previousStatus, status, count)));
+    changedOrders.forEach(update -> applicationEventPublisher.publishEvent(
+        new OrderStatusChangedEvent(update.getId(), update.getOwnerId(), status, changedAt)));
+
+    return orderIds.stream().map(id -> {
+      if (changedIds.contains(id)) {
+        return new OrderStatusChangeResponse(id, OrderStatusChangeOutcome.CHANGED, status);
+      }
+      if (currentStatuses.containsKey(id)) {
+        return new OrderStatusChangeResponse(id, OrderStatusChangeOutcome.ILLEGAL_STATUS,
+            currentStatuses.get(id));
+      }
+      return new OrderStatusChangeResponse(id, OrderStatusChangeOutcome.NOT_FOUND, null);
+    }).toList();
+  }
+
+  public OrderStatsResponse getStats(UUID ownerId) {
+    return orderStatsService.getStats(ownerId);
+  }
+
+  private void checkServicesExist(Set<Long> serviceIds) {
+    var lookups = new LinkedHashMap<Long, CompletableFuture<Boolean>>();
+
+    for (var serviceId : serviceIds) {
+      if (!serviceIdIndex.contains(serviceId)) {
+        lookups.put(serviceId, lookUpService(serviceId));
+      }
+    }
+
+    for (var lookup : lookups.entrySet()) {
+      if (!enrichmentExecutor.await(lookup.getValue())) {
+        throw new NoSuchServiceByIdException(lookup.getKey());
+      }
+    }
+  }
+
+  private CompletableFuture<Boolean> lookUpService(Long serviceId) {
+    return enrichmentExecutor.withTimeout(
+        serviceBatchLoader.load(serviceId).thenApply(Objects::nonNull));
+  }
+
+  private Slice<Order> findSliceByOwnerIdAfter(UUID ownerId, OrderCursor cursor,
+      Pageable pageable) {
+    return orderRepository.findSliceByOwnerIdAfter(ownerId, cursor.createdAt(), cursor.id(),
+        pageable);
+  }
+
+  /**
+   * Feedback is optional in order responses, so when the feedback service fails or its breaker
+   * is open the response is built with the fallback and marked as degraded.
+   */
+  private <T> T awaitFeedback(CompletableFuture<T> feedback, @Nullable T fallback) {
+    try {
+      return enrichmentExecutor.await(feedback);
+    } catch (RuntimeException e) {
+      log.warn("Responding without feedback: {}", e.toString());
+      DegradedResponseAdvice.markDegraded("feedback");
+      return fallback;
+    }
+  }
+
+  @Nullable
+  private FeedbackResponse getFeedbackByOrderId(Long orderId) {
+    return feedbackClient.getAllFeedbacks(Pageable.ofSize(1), null, orderId).getContent()
         .stream().findFirst().orElse(null);
+  }
 
-    checkStatusForIllegal(status, order.getStatus().getName(), id);
+  private Map<Long, FeedbackResponse> getFeedbacksByOrderId(List<Order> orders) {
+    if (orders.isEmpty()) {
+      return Map.of();
+    }
 
-    order.setStatus(orderStatus);
+    var orderIds = orders.stream().map(Order::getId).toList();
 
-    return orderMapper.toResponse(orderRepository.save(order), feedback);
+    return feedbackClient.getFeedbacksByOrderIds(orderIds).stream()
+        .collect(Collectors.toMap(FeedbackResponse::getOrderId, Function.identity(),
+            (first, second) -> first));
   }
 
   private void checkStatusForIllegal(OrderStatusName newStatus, OrderStatusName oldStatus,
                                      Long id) {
-
-    switch (oldStatus) {
-      case CREATED:
-        if (newStatus != OrderStatusName.CANCELED && newStatus != OrderStatusName.CONFIRMED) {
-          throw new IllegalOrderStatusException(newStatus, oldStatus, id);
-        }
-        break;
-      case CONFIRMED:
-        if (newStatus != OrderStatusName.CANCELED && newStatus != OrderStatusName.IN_PROGRESS) {
-          throw new IllegalOrderStatusException(newStatus, oldStatus, id);
-        }
-        break;
-      case IN_PROGRESS:
-        if (newStatus != OrderStatusName.COMPLETED) {
-          throw new IllegalOrderStatusException(newStatus, oldStatus, id);
-        }
-        break;
-      case COMPLETED, CANCELED:
-        throw new IllegalOrderStatusException(newStatus, oldStatus, id);
+    if (!OrderStatusTransitions.isAllowed(oldStatus, newStatus)) {
+      throw new IllegalOrderStatusException(newStatus, oldStatus, id);
     }
+  }
 
+  private void checkBatchSize(int size) {
+    if (size > MAX_BATCH_SIZE) {
+      throw new OrderBatchTooLargeException(size, MAX_BATCH_SIZE);
+    }
   }
 }
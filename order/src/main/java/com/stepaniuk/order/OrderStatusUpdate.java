@@ -0,0 +1,18 @@
+package com.stepaniuk.order;
+
+import java.util.UUID;
+
+/**
+ * An order of a batch status change: whether its status was changed, and the status code it had
+ * before the change.
+ */
+public interface OrderStatusUpdate {
+
+  Long getId();
+
+  UUID getOwnerId();
+
+  Short getPreviousStatus();
+
+  Boolean getChanged();
+}
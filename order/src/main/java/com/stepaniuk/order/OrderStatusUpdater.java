@@ -0,0 +1,51 @@
+package com.stepaniuk.order;
+
+import com.stepaniuk.order.stats.OrderStatsService;
+import com.stepaniuk.order.stream.OrderStatusChangedEvent;
+import com.stepaniuk.zrobleno.types.exception.order.OrderStatusConflictException;
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Changes the status of a single order in a short transaction: the compare-and-set update, the
+ * counter delta and the change event. Callers run remote lookups outside of it, so neither the
+ * order row nor the owner's counter rows stay locked while waiting on another service.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderStatusUpdater {
+
+  private final OrderRepository orderRepository;
+  private final OrderStatsService orderStatsService;
+  private final ApplicationEventPublisher applicationEventPublisher;
+
+  /**
+   * Moves the order from the status it was read with to the given one. The counter delta is only
+   * recorded when the update matched, i.e. when the status read is still the current one.
+   *
+   * @throws OrderStatusConflictException if the status was changed since the order was read
+   */
+  @Transactional
+  public void changeStatus(Order order, OrderStatusName status) {
+    var previousStatus = order.getStatus();
+    var lastModifiedAt = Instant.now();
+    var updatedRows = orderRepository.updateStatusByIdAndStatus(order.getId(),
+        order.getCreatedAt(), previousStatus, status, lastModifiedAt);
+
+    if (updatedRows == 0) {
+      throw new OrderStatusConflictException(status, previousStatus, order.getId());
+    }
+
+    orderStatsService.recordStatusChange(order.getOwnerId(), previousStatus, status, 1);
+    applicationEventPublisher.publishEvent(
+        new OrderStatusChangedEvent(order.getId(), order.getOwnerId(), status, lastModifiedAt));
+
+    order.setStatus(status);
+    order.setLastModifiedAt(lastModifiedAt);
+  }
+}
@@ -0,0 +1,11 @@
+package com.stepaniuk.order;
+
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@EnableScheduling
+@Configuration
+public class SchedulingConfig {
+
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.stepaniuk.order.archive;
+
+import com.stepaniuk.order.OrderRepository;
+import com.stepaniuk.order.status.OrderStatusNameConverter;
+import com.stepaniuk.order.status.OrderStatusTransitions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Moves orders that reached a terminal status long ago from the live partitions of
+ * {@code orders} to its archive partitions, so that the live partitions stay small. Archived
+ * orders are still read, listed and counted in order stats like any other order.
+ */
+@Slf4j
+@Component
+public class OrderArchiver {
+
+  private static final List<Short> TERMINAL_STATUSES = OrderStatusTransitions.getTerminalStatuses()
+      .stream().map(OrderStatusNameConverter::toCode).toList();
+
+  private final OrderRepository orderRepository;
+  private final Duration archiveAfter;
+  private final int batchSize;
+
+  public OrderArchiver(OrderRepository orderRepository,
+      @Value("${application.config.archive.after-days:90}") long archiveAfterDays,
+      @Value("${application.config.archive.batch-size:1000}") int batchSize) {
+    this.orderRepository = orderRepository;
+    this.archiveAfter = Duration.ofDays(archiveAfterDays);
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Archives in batches, each in its own transaction, until a batch comes back short.
+   */
+  @Scheduled(cron = "${application.config.archive.cron:0 30 3 * * *}")
+  public int archive() {
+    var before = Instant.now().minus(archiveAfter);
+    var archived = 0;
+    int moved;
+
+    do {
+      moved = orderRepository.archiveByStatusInAndLastModifiedAtBefore(TERMINAL_STATUSES, before,
+          batchSize);
+      archived += moved;
+    } while (moved == batchSize);
+
+    log.info("Archived {} orders last modified before {}", archived, before);
+
+    return archived;
+  }
+}
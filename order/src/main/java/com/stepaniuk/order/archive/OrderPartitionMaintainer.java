@@ -0,0 +1,39 @@
+package com.stepaniuk.order.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates monthly live and archive partitions of {@code orders} ahead of time. Rows outside every
+ * partition land in {@code orders_default} or {@code orders_archive_default}, which would block
+ * creating the partition for their month later.
+ */
+@Slf4j
+@Component
+public class OrderPartitionMaintainer {
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int monthsAhead;
+
+  public OrderPartitionMaintainer(JdbcTemplate jdbcTemplate,
+      @Value("${application.config.archive.partition-months-ahead:3}") int monthsAhead) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.monthsAhead = monthsAhead;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(cron = "${application.config.archive.partition-cron:0 0 3 * * *}")
+  public void createPartitions() {
+    var created = jdbcTemplate.queryForObject("select create_order_partitions(?)", Integer.class,
+        monthsAhead);
+
+    if (created != null && created > 0) {
+      log.info("Created {} order partitions", created);
+    }
+  }
+}
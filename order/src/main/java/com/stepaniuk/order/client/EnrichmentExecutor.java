@@ -0,0 +1,91 @@
+package com.stepaniuk.order.client;
+
+import com.stepaniuk.zrobleno.types.exception.order.EnrichmentTimeoutException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Runs remote enrichment calls on a bounded pool so that independent lookups overlap, each
+ * limited by its own deadline. A call that misses its deadline is cancelled, so it leaves the
+ * queue or is interrupted instead of holding a pool thread, and a full pool fails the call rather
+ * than running it on the request thread.
+ */
+@Component
+public class EnrichmentExecutor implements DisposableBean {
+
+  private final ExecutorService executorService;
+  private final long timeoutMillis;
+
+  public EnrichmentExecutor(
+      @Value("${application.config.enrichment.concurrency:32}") int concurrency,
+      @Value("${application.config.enrichment.queue-capacity:256}") int queueCapacity,
+      @Value("${application.config.enrichment.timeout-millis:2000}") long timeoutMillis) {
+    this.executorService = new ThreadPoolExecutor(concurrency, concurrency,
+        60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity),
+        new CustomizableThreadFactory("enrichment-"),
+        new ThreadPoolExecutor.AbortPolicy());
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  public <T> CompletableFuture<T> submit(Supplier<T> call) {
+    var result = new CompletableFuture<T>();
+    Future<?> task;
+    try {
+      task = executorService.submit(() -> {
+        try {
+          result.complete(call.get());
+        } catch (Throwable e) {
+          result.completeExceptionally(e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      result.completeExceptionally(e);
+      return result;
+    }
+
+    return result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+        .whenComplete((value, e) -> {
+          if (e instanceof TimeoutException) {
+            task.cancel(true);
+          }
+        });
+  }
+
+  /**
+   * Applies the enrichment deadline to a future completed elsewhere. Pass a dependent stage, not a
+   * future shared with other callers, since the timeout completes the given future itself. The
+   * work behind the future is not cancelled, so it must be bounded by its own client timeouts.
+   */
+  public <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future) {
+    return future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Waits for the call and rethrows its failure unwrapped.
+   *
+   * @throws EnrichmentTimeoutException if the call missed its deadline
+   */
+  public <T> T await(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof TimeoutException) {
+        throw new EnrichmentTimeoutException(timeoutMillis);
+      }
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public void destroy() {
+    executorService.shutdown();
+  }
+}
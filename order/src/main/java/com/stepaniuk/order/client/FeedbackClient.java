@@ -9,13 +9,19 @@ import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
 import java.util.UUID;
 
-@FeignClient(name = "feedback-service", url = "${application.config.feedback.url}")
+@FeignClient(name = "feedbacks", contextId = "feedback-service", path = "/api/feedbacks",
+    url = "${application.config.feedback.url}", qualifiers = "feedbackFeignClient",
+    primary = false)
 public interface FeedbackClient {
 
     @GetMapping("/v2")
     Page<FeedbackResponse> getAllFeedbacks(Pageable pageable,
                                            @Nullable @RequestParam(required = false) UUID ownerId,
                                            @Nullable @RequestParam(required = false) Long orderId);
+
+    @GetMapping("/by-order-ids")
+    List<FeedbackResponse> getFeedbacksByOrderIds(@RequestParam List<Long> orderIds);
 }
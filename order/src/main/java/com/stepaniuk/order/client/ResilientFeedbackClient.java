@@ -0,0 +1,41 @@
+package com.stepaniuk.order.client;
+
+import com.stepaniuk.zrobleno.payload.feedback.FeedbackResponse;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Guards calls to the feedback service with a circuit breaker and a bulkhead, so that a slow or
+ * failing feedback service is cut off quickly instead of holding every enrichment thread.
+ */
+@Primary
+@Component
+@RequiredArgsConstructor
+@CircuitBreaker(name = "feedback-service")
+@Bulkhead(name = "feedback-service")
+public class ResilientFeedbackClient implements FeedbackClient {
+
+  @Qualifier("feedbackFeignClient")
+  private final FeedbackClient feedbackClient;
+
+  @Override
+  public Page<FeedbackResponse> getAllFeedbacks(Pageable pageable, @Nullable UUID ownerId,
+      @Nullable Long orderId) {
+    return feedbackClient.getAllFeedbacks(pageable, ownerId, orderId);
+  }
+
+  @Override
+  public List<FeedbackResponse> getFeedbacksByOrderIds(List<Long> orderIds) {
+    return feedbackClient.getFeedbacksByOrderIds(orderIds);
+  }
+}
@@ -0,0 +1,59 @@
+package com.stepaniuk.order.client;
+
+import com.stepaniuk.zrobleno.payload.service.ServiceChangesResponse;
+import com.stepaniuk.zrobleno.payload.service.ServiceIdsResponse;
+import com.stepaniuk.zrobleno.payload.service.ServiceResponse;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Guards calls to the service service with a circuit breaker and a bulkhead. Unlike feedback,
+ * service lookups have no degraded answer, so an open breaker surfaces as 503 to the caller.
+ * <p>
+ * The background calls that keep {@link ServiceIdIndex} up to date use their own breaker and
+ * bulkhead, so a slow full reload neither takes permits from request-path lookups nor opens the
+ * breaker in front of them.
+ */
+@Primary
+@Component
+@RequiredArgsConstructor
+@CircuitBreaker(name = "service-service")
+@Bulkhead(name = "service-service")
+public class ResilientServiceClient implements ServiceClient {
+
+  @Qualifier("serviceFeignClient")
+  private final ServiceClient serviceClient;
+
+  @Override
+  public ServiceResponse getServiceById(Long id) {
+    return serviceClient.getServiceById(id);
+  }
+
+  @Override
+  public Page<ServiceResponse> getAllServices(Pageable pageable, List<Long> serviceIds) {
+    return serviceClient.getAllServices(pageable, serviceIds);
+  }
+
+  @Override
+  @CircuitBreaker(name = "service-service-replication")
+  @Bulkhead(name = "service-service-replication")
+  public ServiceIdsResponse getServiceIds() {
+    return serviceClient.getServiceIds();
+  }
+
+  @Override
+  @CircuitBreaker(name = "service-service-replication")
+  @Bulkhead(name = "service-service-replication")
+  public ServiceChangesResponse getServiceChanges(Long afterTransactionId, Long after,
+      int limit) {
+    return serviceClient.getServiceChanges(afterTransactionId, after, limit);
+  }
+}
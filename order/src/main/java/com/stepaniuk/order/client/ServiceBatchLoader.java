@@ -0,0 +1,171 @@
+package com.stepaniuk.order.client;
+
+import com.stepaniuk.zrobleno.payload.service.ServiceResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces service lookups into batched {@code /services/v2?serviceIds=} calls. Lookups of an id
+ * already in flight share its result; new ids wait up to {@code window-millis} for others to
+ * join them, or until {@code max-batch-size} ids are pending. Returned futures complete with
+ * {@code null} for services that do not exist.
+ */
+@Slf4j
+@Component
+public class ServiceBatchLoader implements DisposableBean {
+
+  private final ServiceClient serviceClient;
+  private final int maxBatchSize;
+  private final long windowMillis;
+  private final ScheduledExecutorService scheduler;
+  private final ExecutorService executorService;
+
+  private final Map<Long, CompletableFuture<ServiceResponse>> inFlight = new ConcurrentHashMap<>();
+  private final List<PendingLookup> pending = new ArrayList<>();
+  private boolean flushScheduled;
+
+  private final DistributionSummary batchSize;
+  private final Timer waitTime;
+  private final Counter coalesced;
+
+  public ServiceBatchLoader(ServiceClient serviceClient, MeterRegistry meterRegistry,
+      @Value("${application.config.service-batch.max-batch-size:100}") int maxBatchSize,
+      @Value("${application.config.service-batch.window-millis:5}") long windowMillis,
+      @Value("${application.config.service-batch.concurrency:4}") int concurrency) {
+    this.serviceClient = serviceClient;
+    this.maxBatchSize = maxBatchSize;
+    this.windowMillis = windowMillis;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(
+        new CustomizableThreadFactory("service-batch-timer-"));
+    this.executorService = Executors.newFixedThreadPool(concurrency,
+        new CustomizableThreadFactory("service-batch-"));
+    this.batchSize = DistributionSummary.builder("service.lookup.batch.size")
+        .description("Distinct service ids per batched lookup")
+        .register(meterRegistry);
+    this.waitTime = Timer.builder("service.lookup.batch.wait")
+        .description("Time a service lookup waits before its batch is sent")
+        .register(meterRegistry);
+    this.coalesced = Counter.builder("service.lookup.coalesced")
+        .description("Service lookups that joined a lookup of the same id in flight")
+        .register(meterRegistry);
+  }
+
+  public CompletableFuture<ServiceResponse> load(Long serviceId) {
+    var future = new CompletableFuture<ServiceResponse>();
+    var existing = inFlight.putIfAbsent(serviceId, future);
+
+    if (existing != null) {
+      coalesced.increment();
+      return existing;
+    }
+
+    List<PendingLookup> batch = null;
+
+    synchronized (pending) {
+      pending.add(new PendingLookup(serviceId, System.nanoTime()));
+
+      if (pending.size() >= maxBatchSize) {
+        batch = drain();
+      } else if (!flushScheduled) {
+        flushScheduled = true;
+        scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+      }
+    }
+
+    if (batch != null) {
+      dispatch(batch);
+    }
+
+    return future;
+  }
+
+  @Override
+  public void destroy() {
+    scheduler.shutdownNow();
+    executorService.shutdown();
+  }
+
+  private void flush() {
+    List<PendingLookup> batch;
+
+    synchronized (pending) {
+      flushScheduled = false;
+      batch = drain();
+    }
+
+    if (!batch.isEmpty()) {
+      dispatch(batch);
+    }
+  }
+
+  private List<PendingLookup> drain() {
+    var batch = List.copyOf(pending);
+    pending.clear();
+    return batch;
+  }
+
+  private void dispatch(List<PendingLookup> batch) {
+    try {
+      executorService.execute(() -> load(batch));
+    } catch (RejectedExecutionException e) {
+      complete(batch, null, e);
+    }
+  }
+
+  private void load(List<PendingLookup> batch) {
+    var now = System.nanoTime();
+    batch.forEach(lookup -> waitTime.record(Duration.ofNanos(now - lookup.enqueuedAt())));
+    batchSize.record(batch.size());
+
+    var serviceIds = batch.stream().map(PendingLookup::serviceId).toList();
+
+    try {
+      var services = serviceClient.getAllServices(PageRequest.of(0, serviceIds.size()),
+              serviceIds)
+          .stream()
+          .collect(Collectors.toMap(ServiceResponse::getId, Function.identity()));
+
+      complete(batch, services, null);
+    } catch (RuntimeException e) {
+      log.debug("Batched lookup of {} services failed: {}", serviceIds.size(), e.toString());
+      complete(batch, null, e);
+    }
+  }
+
+  private void complete(List<PendingLookup> batch, Map<Long, ServiceResponse> services,
+      RuntimeException error) {
+    for (var lookup : batch) {
+      // removed first, so that lookups arriving after completion fetch a fresh result
+      var future = inFlight.remove(lookup.serviceId());
+
+      if (future == null) {
+        continue;
+      }
+      if (error != null) {
+        future.completeExceptionally(error);
+      } else {
+        future.complete(services.get(lookup.serviceId()));
+      }
+    }
+  }
+
+  private record PendingLookup(Long serviceId, long enqueuedAt) {
+
+  }
+}
@@ -1,13 +1,32 @@
 package com.stepaniuk.order.client;
 
+import com.stepaniuk.zrobleno.payload.service.ServiceChangesResponse;
+import com.stepaniuk.zrobleno.payload.service.ServiceIdsResponse;
 import com.stepaniuk.zrobleno.payload.service.ServiceResponse;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name = "service-service", url = "${application.config.service.url}")
+import java.util.List;
+
+@FeignClient(name = "services", contextId = "service-service", path = "/api/services",
+    url = "${application.config.service.url}", qualifiers = "serviceFeignClient",
+    primary = false)
 public interface ServiceClient {
 
     @GetMapping("/{id}")
     ServiceResponse getServiceById(@PathVariable Long id);
+
+    @GetMapping("/v2")
+    Page<ServiceResponse> getAllServices(Pageable pageable, @RequestParam List<Long> serviceIds);
+
+    @GetMapping("/ids")
+    ServiceIdsResponse getServiceIds();
+
+    @GetMapping("/changes")
+    ServiceChangesResponse getServiceChanges(@RequestParam Long afterTransactionId,
+        @RequestParam Long after, @RequestParam int limit);
 }
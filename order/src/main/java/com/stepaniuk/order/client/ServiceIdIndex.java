@@ -0,0 +1,114 @@
+package com.stepaniuk.order.client;
+
+import com.stepaniuk.zrobleno.payload.service.ServiceChangesResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+
+/**
+ * Local replica of the ids of existing services. It is loaded from a snapshot of the service
+ * module and kept current by polling its change feed from the position of the snapshot, with a
+ * periodic full reload to bound drift. The feed may repeat changes the snapshot already contains,
+ * which is harmless since a service is created before it is deleted.
+ * Until the first snapshot is loaded every id is reported as unknown, so callers fall back to
+ * {@link ServiceClient}.
+ */
+@Slf4j
+@Component
+public class ServiceIdIndex {
+
+  private final ServiceClient serviceClient;
+  private final int batchSize;
+
+  private volatile BitSet ids = new BitSet();
+  private volatile boolean ready;
+  private long lastTransactionId;
+  private long lastChangeId;
+
+  public ServiceIdIndex(ServiceClient serviceClient,
+      @Value("${application.config.service-index.batch-size:1000}") int batchSize) {
+    this.serviceClient = serviceClient;
+    this.batchSize = batchSize;
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  public boolean contains(Long serviceId) {
+    return ready && serviceId > 0 && serviceId <= Integer.MAX_VALUE
+        && ids.get(serviceId.intValue());
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(fixedDelayString = "${application.config.service-index.resync-interval-millis:600000}",
+      initialDelayString = "${application.config.service-index.resync-interval-millis:600000}")
+  public void resync() {
+    try {
+      loadSnapshot();
+    } catch (RuntimeException e) {
+      log.warn("Failed to load service ids snapshot", e);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${application.config.service-index.poll-interval-millis:5000}",
+      initialDelayString = "${application.config.service-index.poll-interval-millis:5000}")
+  public void poll() {
+    try {
+      if (ready) {
+        applyChanges();
+      } else {
+        loadSnapshot();
+      }
+    } catch (RuntimeException e) {
+      log.warn("Failed to apply service id changes after change {} of transaction {}",
+          lastChangeId, lastTransactionId, e);
+    }
+  }
+
+  private synchronized void loadSnapshot() {
+    var snapshot = serviceClient.getServiceIds();
+    var loadedIds = new BitSet();
+
+    for (var serviceId : snapshot.getIds()) {
+      loadedIds.set(Math.toIntExact(serviceId));
+    }
+
+    ids = loadedIds;
+    lastTransactionId = snapshot.getLastTransactionId();
+    lastChangeId = snapshot.getLastChangeId();
+    ready = true;
+  }
+
+  private synchronized void applyChanges() {
+    ServiceChangesResponse response;
+
+    do {
+      response = serviceClient.getServiceChanges(lastTransactionId, lastChangeId, batchSize);
+
+      if (response.getChanges().isEmpty()) {
+        return;
+      }
+
+      var updatedIds = (BitSet) ids.clone();
+
+      for (var change : response.getChanges()) {
+        switch (change.getType()) {
+          case CREATED -> updatedIds.set(Math.toIntExact(change.getServiceId()));
+          case DELETED -> updatedIds.clear(Math.toIntExact(change.getServiceId()));
+          case UPDATED -> {
+          }
+        }
+      }
+
+      ids = updatedIds;
+      lastTransactionId = response.getLastTransactionId();
+      lastChangeId = response.getLastChangeId();
+    } while (response.getChanges().size() >= batchSize);
+  }
+}
@@ -0,0 +1,101 @@
+package com.stepaniuk.order.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stepaniuk.order.status.OrderStatusNameConverter;
+import com.stepaniuk.zrobleno.payload.order.OrderExportResponse;
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.UUID;
+
+/**
+ * Writes orders as newline-delimited JSON straight from a forward-only cursor. Rows are fetched
+ * {@code fetch-size} at a time and written one by one, bypassing the persistence context, so heap
+ * usage does not grow with the number of exported orders. Archived orders are exported too.
+ */
+@Component
+public class OrderExporter {
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+
+  public OrderExporter(DataSource dataSource, PlatformTransactionManager transactionManager,
+      ObjectMapper objectMapper,
+      @Value("${application.config.export.fetch-size:500}") int fetchSize) {
+    var template = new JdbcTemplate(dataSource);
+    template.setFetchSize(fetchSize);
+
+    this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    // PostgreSQL only streams with a cursor inside a transaction
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.objectMapper = objectMapper;
+  }
+
+  public void export(OutputStream outputStream, @Nullable OrderStatusName status,
+      @Nullable UUID ownerId, @Nullable Instant from, @Nullable Instant to) {
+    var conditions = new ArrayList<String>();
+    var parameters = new MapSqlParameterSource();
+
+    if (status != null) {
+      conditions.add("status = :status");
+      parameters.addValue("status", OrderStatusNameConverter.toCode(status));
+    }
+    if (ownerId != null) {
+      conditions.add("owner_id = :ownerId");
+      parameters.addValue("ownerId", ownerId);
+    }
+    if (from != null) {
+      conditions.add("created_at >= :from");
+      parameters.addValue("from", Timestamp.from(from));
+    }
+    if (to != null) {
+      conditions.add("created_at < :to");
+      parameters.addValue("to", Timestamp.from(to));
+    }
+
+    var sql = "select id, owner_id, status, service_id, comment, created_at, last_modified_at"
+        + " from orders"
+        + (conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions))
+        + " order by id";
+
+    transactionTemplate.executeWithoutResult(transaction ->
+        jdbcTemplate.query(sql, parameters, resultSet -> {
+          try {
+            outputStream.write(objectMapper.writeValueAsBytes(toResponse(resultSet)));
+            outputStream.write('\n');
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }));
+  }
+
+  private static OrderExportResponse toResponse(ResultSet resultSet) throws SQLException {
+    return new OrderExportResponse(
+        resultSet.getLong("id"),
+        resultSet.getObject("owner_id", UUID.class),
+        OrderStatusNameConverter.fromCode(resultSet.getShort("status")),
+        resultSet.getLong("service_id"),
+        resultSet.getString("comment"),
+        resultSet.getTimestamp("created_at").toInstant(),
+        resultSet.getTimestamp("last_modified_at").toInstant()
+    );
+  }
+}
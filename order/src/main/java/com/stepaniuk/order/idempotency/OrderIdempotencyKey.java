@@ -0,0 +1,73 @@
+package com.stepaniuk.order.idempotency;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.Instant;
+import java.util.Objects;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@RequiredArgsConstructor
+@Entity
+@Table(name = "order_idempotency_keys", indexes = {
+    @Index(name = "order_idempotency_keys_created_at_idx", columnList = "created_at")
+})
+public class OrderIdempotencyKey {
+
+  @EmbeddedId
+  private OrderIdempotencyKeyId id;
+
+  @Column(name = "request_hash", nullable = false, length = 64)
+  private String requestHash;
+
+  @Column(name = "order_id", nullable = false)
+  private Long orderId;
+
+  @Column(name = "response", nullable = false, columnDefinition = "text")
+  private String response;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private Instant createdAt;
+
+  @Override
+  public final boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null) {
+      return false;
+    }
+    Class<?> oEffectiveClass = o instanceof HibernateProxy
+        ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass()
+        : o.getClass();
+    Class<?> thisEffectiveClass = this instanceof HibernateProxy
+        ? ((HibernateProxy) this).getHibernateLazyInitializer()
+        .getPersistentClass() : this.getClass();
+    if (thisEffectiveClass != oEffectiveClass) {
+      return false;
+    }
+    OrderIdempotencyKey that = (OrderIdempotencyKey) o;
+    return getId() != null && Objects.equals(getId(), that.getId());
+  }
+
+  @Override
+  public final int hashCode() {
+    return Objects.hash(id);
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(" +
+        "id = " + id + ", " +
+        "requestHash = " + requestHash + ", " +
+        "orderId = " + orderId + ", " +
+        "response = " + response + ", " +
+        "createdAt = " + createdAt + ")";
+  }
+}
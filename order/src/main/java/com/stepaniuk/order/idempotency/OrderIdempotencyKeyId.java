@@ -0,0 +1,29 @@
+package com.stepaniuk.order.idempotency;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+@ToString
+@Embeddable
+public class OrderIdempotencyKeyId implements Serializable {
+
+  @Column(name = "owner_id", nullable = false)
+  private UUID ownerId;
+
+  @Column(name = "idempotency_key", nullable = false)
+  private String idempotencyKey;
+}
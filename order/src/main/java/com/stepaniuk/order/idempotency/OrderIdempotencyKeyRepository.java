@@ -0,0 +1,42 @@
+package com.stepaniuk.order.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Repository
+public interface OrderIdempotencyKeyRepository extends
+    JpaRepository<OrderIdempotencyKey, OrderIdempotencyKeyId> {
+
+  /**
+   * Inserts the key right away rather than on flush, so that a concurrent request holding the
+   * same key waits for the other transaction and then finds the key taken. A row created before
+   * {@code expiredBefore} that the cleanup has not removed yet is taken over. Returns 0 when the
+   * key is held by a row that has not expired. {@code response} is the serialized response that
+   * retries of the request get back.
+   */
+  @Transactional
+  @Modifying
+  @Query(value = """
+      insert into order_idempotency_keys
+          (owner_id, idempotency_key, request_hash, order_id, response, created_at)
+      values (:ownerId, :idempotencyKey, :requestHash, :orderId, :response, now())
+      on conflict (owner_id, idempotency_key)
+      do update set request_hash = excluded.request_hash, order_id = excluded.order_id,
+          response = excluded.response, created_at = excluded.created_at
+      where order_idempotency_keys.created_at < :expiredBefore""", nativeQuery = true)
+  int insert(@Param("ownerId") UUID ownerId, @Param("idempotencyKey") String idempotencyKey,
+      @Param("requestHash") String requestHash, @Param("orderId") Long orderId,
+      @Param("response") String response, @Param("expiredBefore") Instant expiredBefore);
+
+  @Transactional
+  @Modifying
+  @Query("delete from OrderIdempotencyKey k where k.createdAt < :createdAt")
+  int deleteAllByCreatedAtBefore(@Param("createdAt") Instant createdAt);
+}
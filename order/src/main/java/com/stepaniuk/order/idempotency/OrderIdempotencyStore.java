@@ -0,0 +1,195 @@
+package com.stepaniuk.order.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stepaniuk.order.OrderMapper;
+import com.stepaniuk.zrobleno.payload.order.OrderCreateRequest;
+import com.stepaniuk.zrobleno.payload.order.OrderResponse;
+import com.stepaniuk.zrobleno.types.exception.order.IdempotencyKeyReusedException;
+import com.stepaniuk.zrobleno.types.exception.order.InvalidIdempotencyKeyException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Remembers responses of order creations by owner and Idempotency-Key so that retried requests
+ * get the original response back. Each key is stored with a hash of the request it came with, and
+ * a different request under the same key is rejected rather than answered with another order.
+ * Recent keys are held in a bounded Caffeine cache; older ones and keys created by other instances
+ * are resolved from {@code order_idempotency_keys}, which is written in the same transaction as
+ * the order and holds the serialized response, so a retry gets the original response rather than
+ * the current state of the order.
+ */
+@Component
+public class OrderIdempotencyStore {
+
+  private static final int MAX_KEY_LENGTH = 255;
+
+  private final OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+  private final OrderMapper orderMapper;
+  private final ObjectMapper objectMapper;
+  private final ObjectReader responseReader;
+  private final Duration ttl;
+  private final Cache<OrderIdempotencyKeyId, StoredResponse> responses;
+
+  public OrderIdempotencyStore(OrderIdempotencyKeyRepository orderIdempotencyKeyRepository,
+      OrderMapper orderMapper, ObjectMapper objectMapper,
+      @Value("${application.config.idempotency.max-size:10000}") int maxSize,
+      @Value("${application.config.idempotency.ttl-seconds:86400}") long ttlSeconds) {
+    this.orderIdempotencyKeyRepository = orderIdempotencyKeyRepository;
+    this.orderMapper = orderMapper;
+    this.objectMapper = objectMapper;
+    this.responseReader = objectMapper.readerFor(OrderResponse.class)
+        .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    this.ttl = Duration.ofSeconds(ttlSeconds);
+    this.responses = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .build();
+  }
+
+  /**
+   * Returns the response stored for the owner's key, or runs {@code create} and stores its
+   * response. If a concurrent request with the same key wins the race, its response is returned
+   * instead.
+   *
+   * @throws IdempotencyKeyReusedException if the key was used with a different request
+   */
+  public OrderResponse getOrCreate(OrderCreateRequest request, String idempotencyKey,
+      Supplier<OrderResponse> create) {
+    if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+      throw new InvalidIdempotencyKeyException(idempotencyKey);
+    }
+
+    var id = new OrderIdempotencyKeyId(request.getOwnerId(), idempotencyKey);
+    var requestHash = hash(request);
+    var storedResponse = find(id, requestHash);
+
+    if (storedResponse.isPresent()) {
+      return storedResponse.get();
+    }
+
+    try {
+      var response = create.get();
+      remember(id, requestHash, response);
+      return response;
+    } catch (DataIntegrityViolationException e) {
+      return find(id, requestHash).orElseThrow(() -> e);
+    }
+  }
+
+  /**
+   * Records the key with the response of an order that is being created, in the transaction
+   * creating it. A row of the same key that has expired but was not cleaned up yet is replaced.
+   *
+   * @throws DuplicateKeyException if a concurrent request holds the key
+   */
+  public void claim(OrderCreateRequest request, String idempotencyKey, OrderResponse response) {
+    var inserted = orderIdempotencyKeyRepository.insert(request.getOwnerId(), idempotencyKey,
+        hash(request), response.getId(), serialize(response), Instant.now().minus(ttl));
+
+    if (inserted == 0) {
+      throw new DuplicateKeyException("Idempotency key is already taken: " + idempotencyKey);
+    }
+  }
+
+  public Optional<OrderResponse> find(OrderIdempotencyKeyId id, String requestHash) {
+    var storedResponse = responses.getIfPresent(id);
+
+    if (storedResponse != null) {
+      checkRequestHash(id, requestHash, storedResponse.requestHash());
+      return Optional.of(storedResponse.response());
+    }
+
+    var now = Instant.now();
+    var key = orderIdempotencyKeyRepository.findById(id)
+        .filter(value -> value.getCreatedAt().plus(ttl).isAfter(now));
+
+    if (key.isEmpty()) {
+      return Optional.empty();
+    }
+
+    checkRequestHash(id, requestHash, key.get().getRequestHash());
+
+    var response = deserialize(key.get().getResponse());
+    remember(id, requestHash, response);
+
+    return Optional.of(response);
+  }
+
+  /**
+   * Hex-encoded SHA-256 of the fields of the request, so a retry is recognized regardless of how
+   * its body was formatted.
+   */
+  public static String hash(OrderCreateRequest request) {
+    var fingerprint = request.getOwnerId() + "\n" + request.getServiceId() + "\n"
+        + (request.getComment() == null ? "-" : "+" + request.getComment());
+
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+          .digest(fingerprint.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${application.config.idempotency.cleanup-interval-millis:3600000}",
+      initialDelayString = "${application.config.idempotency.cleanup-interval-millis:3600000}")
+  public void evictExpired() {
+    responses.cleanUp();
+    orderIdempotencyKeyRepository.deleteAllByCreatedAtBefore(Instant.now().minus(ttl));
+  }
+
+  private static void checkRequestHash(OrderIdempotencyKeyId id, String requestHash,
+      String storedRequestHash) {
+    if (!storedRequestHash.equals(requestHash)) {
+      throw new IdempotencyKeyReusedException(id.getIdempotencyKey());
+    }
+  }
+
+  /**
+   * Links are left out, they are added again from the status when the response is replayed.
+   */
+  private String serialize(OrderResponse response) {
+    ObjectNode json = objectMapper.valueToTree(response);
+    json.remove("links");
+
+    try {
+      return objectMapper.writeValueAsString(json);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private OrderResponse deserialize(String response) {
+    try {
+      return orderMapper.withLinks(responseReader.readValue(response));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void remember(OrderIdempotencyKeyId id, String requestHash, OrderResponse response) {
+    responses.put(id, new StoredResponse(requestHash, response));
+  }
+
+  private record StoredResponse(String requestHash, OrderResponse response) {
+
+  }
+}
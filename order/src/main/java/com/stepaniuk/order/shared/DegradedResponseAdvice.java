@@ -0,0 +1,69 @@
+package com.stepaniuk.order.shared;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Lists the parts that a response had to be built without, e.g. because a remote service was
+ * unavailable, in the {@value #HEADER} header.
+ */
+@ControllerAdvice
+public class DegradedResponseAdvice implements ResponseBodyAdvice<Object> {
+
+  public static final String HEADER = "X-Degraded";
+
+  private static final String ATTRIBUTE = DegradedResponseAdvice.class.getName() + ".parts";
+
+  /**
+   * Marks the response of the current request as missing the given part. Does nothing outside of
+   * a request, so it must be called on the request thread.
+   */
+  public static void markDegraded(String part) {
+    var attributes = RequestContextHolder.getRequestAttributes();
+
+    if (attributes == null) {
+      return;
+    }
+
+    @SuppressWarnings("unchecked")
+    var parts = (Set<String>) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+
+    if (parts == null) {
+      parts = new LinkedHashSet<>();
+      attributes.setAttribute(ATTRIBUTE, parts, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    parts.add(part);
+  }
+
+  @Override
+  public boolean supports(MethodParameter returnType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    return true;
+  }
+
+  @Override
+  public Object beforeBodyWrite(@Nullable Object body, MethodParameter returnType,
+      MediaType selectedContentType, Class<? extends HttpMessageConverter<?>> selectedConverterType,
+      ServerHttpRequest request, ServerHttpResponse response) {
+    if (request instanceof ServletServerHttpRequest servletRequest
+        && servletRequest.getServletRequest().getAttribute(ATTRIBUTE) instanceof Set<?> parts) {
+      response.getHeaders().set(HEADER, String.join(",", parts.stream().map(Object::toString)
+          .toList()));
+    }
+
+    return body;
+  }
+}
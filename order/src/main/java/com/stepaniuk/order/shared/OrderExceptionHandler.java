@@ -1,8 +1,16 @@
 package com.stepaniuk.order.shared;
 
+import com.stepaniuk.zrobleno.types.exception.order.EnrichmentTimeoutException;
+import com.stepaniuk.zrobleno.types.exception.order.IdempotencyKeyReusedException;
 import com.stepaniuk.zrobleno.types.exception.order.IllegalOrderStatusException;
+import com.stepaniuk.zrobleno.types.exception.order.InvalidIdempotencyKeyException;
+import com.stepaniuk.zrobleno.types.exception.order.InvalidOrderCursorException;
 import com.stepaniuk.zrobleno.types.exception.order.NoSuchOrderByIdException;
 import com.stepaniuk.zrobleno.types.exception.order.NoSuchOrderStatusByNameException;
+import com.stepaniuk.zrobleno.types.exception.order.OrderBatchTooLargeException;
+import com.stepaniuk.zrobleno.types.exception.order.OrderStatusConflictException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -21,6 +29,15 @@ public class OrderExceptionHandler {
         return problemDetail;
     }
 
+    @ExceptionHandler(value = {OrderStatusConflictException.class})
+    public ProblemDetail handleOrderStatusConflictException(OrderStatusConflictException e) {
+        var problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT,
+                "Order status conflict! Expected " + e.getExpectedStatus() + " before changing to " + e.getStatus() + " in order with id: " + e.getId());
+        problemDetail.setTitle("Order status conflict");
+        problemDetail.setInstance(URI.create("/orders/" + e.getId()));
+        return problemDetail;
+    }
+
     @ExceptionHandler(value = {NoSuchOrderByIdException.class})
     public ProblemDetail handleNoSuchOrderByIdException(NoSuchOrderByIdException e) {
         var problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND,
@@ -38,4 +55,50 @@ public class OrderExceptionHandler {
         problemDetail.setInstance(URI.create("/orders/status/" + e.getName()));
         return problemDetail;
     }
+
+    @ExceptionHandler(value = {InvalidIdempotencyKeyException.class})
+    public ProblemDetail handleInvalidIdempotencyKeyException(InvalidIdempotencyKeyException e) {
+        var problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST,
+                "Invalid idempotency key " + e.getIdempotencyKey());
+        problemDetail.setTitle("Invalid idempotency key");
+        problemDetail.setInstance(URI.create("/orders"));
+        return problemDetail;
+    }
+
+    @ExceptionHandler(value = {IdempotencyKeyReusedException.class})
+    public ProblemDetail handleIdempotencyKeyReusedException(IdempotencyKeyReusedException e) {
+        var problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Idempotency key " + e.getIdempotencyKey() + " was used with a different request");
+        problemDetail.setTitle("Idempotency key reused");
+        problemDetail.setInstance(URI.create("/orders"));
+        return problemDetail;
+    }
+
+    @ExceptionHandler(value = {InvalidOrderCursorException.class})
+    public ProblemDetail handleInvalidOrderCursorException(InvalidOrderCursorException e) {
+        var problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST,
+                "Invalid orders cursor " + e.getCursor());
+        problemDetail.setTitle("Invalid orders cursor");
+        problemDetail.setInstance(URI.create("/orders/v3"));
+        return problemDetail;
+    }
+
+    @ExceptionHandler(value = {OrderBatchTooLargeException.class})
+    public ProblemDetail handleOrderBatchTooLargeException(OrderBatchTooLargeException e) {
+        var problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST,
+                "Order batch of size " + e.getSize() + " exceeds the maximum of " + e.getMaxSize());
+        problemDetail.setTitle("Order batch too large");
+        problemDetail.setInstance(URI.create("/orders"));
+        return problemDetail;
+    }
+
+    @ExceptionHandler(value = {CallNotPermittedException.class, BulkheadFullException.class,
+            EnrichmentTimeoutException.class})
+    public ProblemDetail handleRemoteServiceUnavailableException(RuntimeException e) {
+        var problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE,
+                e.getMessage());
+        problemDetail.setTitle("Remote service unavailable");
+        problemDetail.setInstance(URI.create("/orders"));
+        return problemDetail;
+    }
 }
@@ -0,0 +1,52 @@
+package com.stepaniuk.order.stats;
+
+import com.stepaniuk.order.status.OrderStatusNameConverter;
+import com.stepaniuk.zrobleno.payload.order.OrderStatsResponse;
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps per-owner order counts by status. Callers apply deltas within the transaction of the
+ * write that caused them, and only for rows that write actually changed, i.e. after a
+ * compare-and-set or under a row lock, so counts never drift from the orders table.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderStatsService {
+
+  private final OrderStatusCountRepository orderStatusCountRepository;
+
+  public void recordCreated(UUID ownerId, long count) {
+    orderStatusCountRepository.addToCount(ownerId,
+        OrderStatusNameConverter.toCode(OrderStatusName.CREATED), count);
+  }
+
+  public void recordStatusChange(UUID ownerId, OrderStatusName previousStatus,
+      OrderStatusName status, long count) {
+    orderStatusCountRepository.addToCount(ownerId,
+        OrderStatusNameConverter.toCode(previousStatus), -count);
+    orderStatusCountRepository.addToCount(ownerId,
+        OrderStatusNameConverter.toCode(status), count);
+  }
+
+  public OrderStatsResponse getStats(UUID ownerId) {
+    Map<OrderStatusName, Long> counts = new EnumMap<>(OrderStatusName.class);
+
+    for (var status : OrderStatusName.values()) {
+      counts.put(status, 0L);
+    }
+
+    for (var statusCount : orderStatusCountRepository.findAllByIdOwnerId(ownerId)) {
+      counts.put(statusCount.getId().getStatus(), statusCount.getCount());
+    }
+
+    var total = counts.values().stream().mapToLong(Long::longValue).sum();
+
+    return new OrderStatsResponse(ownerId, counts, total);
+  }
+}
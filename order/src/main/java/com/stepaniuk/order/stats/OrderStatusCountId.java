@@ -0,0 +1,33 @@
+package com.stepaniuk.order.stats;
+
+import com.stepaniuk.order.status.OrderStatusNameConverter;
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+@ToString
+@Embeddable
+public class OrderStatusCountId implements Serializable {
+
+  @Column(name = "owner_id", nullable = false)
+  private UUID ownerId;
+
+  @Convert(converter = OrderStatusNameConverter.class)
+  @Column(name = "status", nullable = false, columnDefinition = "smallint")
+  private OrderStatusName status;
+}
@@ -0,0 +1,28 @@
+package com.stepaniuk.order.stats;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OrderStatusCountRepository extends
+    JpaRepository<OrderStatusCount, OrderStatusCountId> {
+
+  List<OrderStatusCount> findAllByIdOwnerId(UUID ownerId);
+
+  @Transactional
+  @Modifying
+  @Query(value = """
+      insert into order_status_counts (owner_id, status, count)
+      values (:ownerId, :status, :delta)
+      on conflict (owner_id, status)
+      do update set count = order_status_counts.count + excluded.count""", nativeQuery = true)
+  void addToCount(@Param("ownerId") UUID ownerId, @Param("status") Short status,
+      @Param("delta") long delta);
+}
@@ -0,0 +1,44 @@
+package com.stepaniuk.order.status;
+
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link OrderStatusName} as a stable smallint code. Codes match the ids of the seeded
+ * {@code order_statuses} rows and must never be reassigned.
+ */
+@Converter
+public class OrderStatusNameConverter implements AttributeConverter<OrderStatusName, Short> {
+
+  public static short toCode(OrderStatusName name) {
+    return switch (name) {
+      case CREATED -> 1;
+      case CANCELED -> 2;
+      case CONFIRMED -> 3;
+      case IN_PROGRESS -> 4;
+      case COMPLETED -> 5;
+    };
+  }
+
+  public static OrderStatusName fromCode(short code) {
+    return switch (code) {
+      case 1 -> OrderStatusName.CREATED;
+      case 2 -> OrderStatusName.CANCELED;
+      case 3 -> OrderStatusName.CONFIRMED;
+      case 4 -> OrderStatusName.IN_PROGRESS;
+      case 5 -> OrderStatusName.COMPLETED;
+      default -> throw new IllegalArgumentException("Unknown order status code: " + code);
+    };
+  }
+
+  @Override
+  public Short convertToDatabaseColumn(OrderStatusName name) {
+    return name == null ? null : toCode(name);
+  }
+
+  @Override
+  public OrderStatusName convertToEntityAttribute(Short code) {
+    return code == null ? null : fromCode(code);
+  }
+}
@@ -0,0 +1,62 @@
+package com.stepaniuk.order.status;
+
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Allowed transitions between order statuses.
+ */
+public final class OrderStatusTransitions {
+
+  private static final Map<OrderStatusName, Set<OrderStatusName>> SUCCESSORS =
+      new EnumMap<>(OrderStatusName.class);
+
+  static {
+    SUCCESSORS.put(OrderStatusName.CREATED,
+        EnumSet.of(OrderStatusName.CANCELED, OrderStatusName.CONFIRMED));
+    SUCCESSORS.put(OrderStatusName.CONFIRMED,
+        EnumSet.of(OrderStatusName.CANCELED, OrderStatusName.IN_PROGRESS));
+    SUCCESSORS.put(OrderStatusName.IN_PROGRESS, EnumSet.of(OrderStatusName.COMPLETED));
+    SUCCESSORS.put(OrderStatusName.COMPLETED, EnumSet.noneOf(OrderStatusName.class));
+    SUCCESSORS.put(OrderStatusName.CANCELED, EnumSet.noneOf(OrderStatusName.class));
+  }
+
+  private OrderStatusTransitions() {
+  }
+
+  public static boolean isAllowed(OrderStatusName from, OrderStatusName to) {
+    return SUCCESSORS.get(from).contains(to);
+  }
+
+  /**
+   * Statuses an order never leaves again.
+   */
+  public static Set<OrderStatusName> getTerminalStatuses() {
+    var terminalStatuses = EnumSet.noneOf(OrderStatusName.class);
+
+    SUCCESSORS.forEach((from, successors) -> {
+      if (successors.isEmpty()) {
+        terminalStatuses.add(from);
+      }
+    });
+
+    return Collections.unmodifiableSet(terminalStatuses);
+  }
+
+  public static Set<OrderStatusName> getPredecessors(OrderStatusName to) {
+    var predecessors = EnumSet.noneOf(OrderStatusName.class);
+
+    SUCCESSORS.forEach((from, successors) -> {
+      if (successors.contains(to)) {
+        predecessors.add(from);
+      }
+    });
+
+    return Collections.unmodifiableSet(predecessors);
+  }
+}
@@ -0,0 +1,15 @@
+package com.stepaniuk.order.stream;
+
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Published by the order service whenever the status of an order changes. Subscribers of the
+ * status stream only see it after the changing transaction has committed.
+ */
+public record OrderStatusChangedEvent(Long id, UUID ownerId, OrderStatusName status,
+                                      Instant changedAt) {
+
+}
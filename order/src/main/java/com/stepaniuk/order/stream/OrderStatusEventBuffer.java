@@ -0,0 +1,84 @@
+package com.stepaniuk.order.stream;
+
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pending status events of one subscriber. Events of the same order are coalesced, so only the
+ * latest status of each order waits for delivery. When more than {@code capacity} orders are
+ * pending, the oldest one is dropped and the next batch tells the subscriber to resync.
+ */
+public class OrderStatusEventBuffer {
+
+  private final int capacity;
+  private final Map<Long, OrderStatusChangedEvent> pending;
+  private boolean overflowed;
+  private boolean draining;
+
+  public OrderStatusEventBuffer(int capacity) {
+    this.capacity = capacity;
+    this.pending = new LinkedHashMap<>();
+  }
+
+  /**
+   * Adds the event and returns whether the caller has to start draining the buffer, i.e. whether
+   * no drain is already in progress.
+   */
+  public synchronized boolean offer(OrderStatusChangedEvent event) {
+    pending.remove(event.id());
+    pending.put(event.id(), event);
+
+    if (pending.size() > capacity) {
+      var eldest = pending.keySet().iterator();
+      eldest.next();
+      eldest.remove();
+      overflowed = true;
+    }
+
+    if (draining) {
+      return false;
+    }
+
+    draining = true;
+    return true;
+  }
+
+  /**
+   * Starts a drain without a new event, e.g. to write a heartbeat first, and returns whether it was
+   * started, i.e. whether no drain is already in progress. A started drain ends like any other,
+   * by polling until nothing is pending.
+   */
+  public synchronized boolean tryStartDrain() {
+    if (draining) {
+      return false;
+    }
+
+    draining = true;
+    return true;
+  }
+
+  /**
+   * Takes all pending events. Returns {@code null} and ends the drain when nothing is pending.
+   */
+  @Nullable
+  public synchronized Batch poll() {
+    if (pending.isEmpty() && !overflowed) {
+      draining = false;
+      return null;
+    }
+
+    var batch = new Batch(overflowed, new ArrayList<>(pending.values()));
+    pending.clear();
+    overflowed = false;
+
+    return batch;
+  }
+
+  public record Batch(boolean overflowed, List<OrderStatusChangedEvent> events) {
+
+  }
+}
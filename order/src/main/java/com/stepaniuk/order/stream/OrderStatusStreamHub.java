@@ -0,0 +1,214 @@
+package com.stepaniuk.order.stream;
+
+import com.stepaniuk.zrobleno.payload.order.OrderStatusEventResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans order status changes out to SSE subscribers of the order owner. Idle subscribers hold no
+ * thread, only an async request. Events are queued per subscriber in a bounded
+ * {@link OrderStatusEventBuffer} and written by a small sender pool, so a slow client never
+ * blocks the transaction that changed the status or other subscribers.
+ * <p>
+ * Each subscriber has at most one task queued or running: heartbeats are only sent to subscribers
+ * without a drain in flight. The sender queue is bounded, and a subscriber whose task does not
+ * fit is dropped and has to reconnect. A subscriber whose write has been blocked for longer than
+ * the write timeout is dropped as well and completed once the write returns.
+ */
+@Slf4j
+@Component
+public class OrderStatusStreamHub implements DisposableBean {
+
+  private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+  private final ExecutorService executorService;
+  private final long timeoutMillis;
+  private final int bufferSize;
+  private final long writeTimeoutNanos;
+
+  public OrderStatusStreamHub(
+      @Value("${application.config.status-stream.timeout-millis:1800000}") long timeoutMillis,
+      @Value("${application.config.status-stream.buffer-size:64}") int bufferSize,
+      @Value("${application.config.status-stream.senders:4}") int senders,
+      @Value("${application.config.status-stream.queue-capacity:1024}") int queueCapacity,
+      @Value("${application.config.status-stream.write-timeout-millis:10000}")
+      long writeTimeoutMillis) {
+    this.executorService = new ThreadPoolExecutor(senders, senders, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("status-stream-"));
+    this.timeoutMillis = timeoutMillis;
+    this.bufferSize = bufferSize;
+    this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+  }
+
+  public SseEmitter subscribe(UUID ownerId) {
+    var emitter = new SseEmitter(timeoutMillis);
+    var subscriber = new Subscriber(ownerId, emitter, new OrderStatusEventBuffer(bufferSize),
+        new AtomicLong(), new AtomicBoolean());
+
+    emitter.onCompletion(() -> unsubscribe(subscriber));
+    emitter.onTimeout(emitter::complete);
+    emitter.onError(e -> unsubscribe(subscriber));
+
+    subscribers.compute(ownerId, (id, ownerSubscribers) -> {
+      var result = ownerSubscribers == null ? ConcurrentHashMap.<Subscriber>newKeySet()
+          : ownerSubscribers;
+      result.add(subscriber);
+      return result;
+    });
+
+    return emitter;
+  }
+
+  public int getSubscriberCount(UUID ownerId) {
+    var ownerSubscribers = subscribers.get(ownerId);
+    return ownerSubscribers == null ? 0 : ownerSubscribers.size();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStatusChanged(OrderStatusChangedEvent event) {
+    var ownerSubscribers = subscribers.get(event.ownerId());
+
+    if (ownerSubscribers == null) {
+      return;
+    }
+
+    for (var subscriber : ownerSubscribers) {
+      if (subscriber.buffer().offer(event)) {
+        execute(subscriber, () -> drain(subscriber));
+      }
+    }
+  }
+
+  /**
+   * Keeps idle connections open through proxies and finds subscribers that went away without
+   * closing their connection. Subscribers with a drain in flight are being written to already.
+   */
+  @Scheduled(fixedDelayString = "${application.config.status-stream.heartbeat-millis:15000}")
+  public void sendHeartbeats() {
+    subscribers.values().forEach(ownerSubscribers -> ownerSubscribers.forEach(subscriber -> {
+      if (subscriber.buffer().tryStartDrain()) {
+        execute(subscriber, () -> {
+          if (send(subscriber, SseEmitter.event().comment("heartbeat"))) {
+            drain(subscriber);
+          }
+        });
+      }
+    }));
+  }
+
+  /**
+   * Drops subscribers whose current write started more than the write timeout ago. The blocked
+   * write itself is bounded by the connector's write timeout; until then no new task is scheduled
+   * for the subscriber.
+   */
+  @Scheduled(fixedDelayString = "${application.config.status-stream.write-timeout-millis:10000}")
+  public void dropStalledSubscribers() {
+    var now = System.nanoTime();
+
+    subscribers.values().forEach(ownerSubscribers -> ownerSubscribers.forEach(subscriber -> {
+      var sendStartedAt = subscriber.sendStartedAt().get();
+
+      if (sendStartedAt != 0 && now - sendStartedAt > writeTimeoutNanos) {
+        log.debug("Dropping stalled status stream subscriber of owner {}", subscriber.ownerId());
+        subscriber.stalled().set(true);
+        unsubscribe(subscriber);
+      }
+    }));
+  }
+
+  @Override
+  public void destroy() {
+    executorService.shutdown();
+    subscribers.values().forEach(ownerSubscribers ->
+        ownerSubscribers.forEach(subscriber -> subscriber.emitter().complete()));
+  }
+
+  /**
+   * Runs a drain that was just started for the subscriber. When the sender queue is full, the
+   * subscriber is completed instead, which is safe since no other task writes to it.
+   */
+  private void execute(Subscriber subscriber, Runnable task) {
+    try {
+      executorService.execute(task);
+    } catch (RejectedExecutionException e) {
+      log.debug("Dropping status stream subscriber of owner {}: sender queue is full",
+          subscriber.ownerId());
+      unsubscribe(subscriber);
+      subscriber.emitter().complete();
+    }
+  }
+
+  private void drain(Subscriber subscriber) {
+    OrderStatusEventBuffer.Batch batch;
+
+    while ((batch = subscriber.buffer().poll()) != null) {
+      if (batch.overflowed() && !send(subscriber, SseEmitter.event().name("resync").data(""))) {
+        return;
+      }
+
+      for (var event : batch.events()) {
+        var response = new OrderStatusEventResponse(event.id(), event.ownerId(), event.status(),
+            event.changedAt());
+        var sseEvent = SseEmitter.event()
+            .name("status")
+            .id(String.valueOf(event.id()))
+            .data(response, MediaType.APPLICATION_JSON);
+
+        if (!send(subscriber, sseEvent)) {
+          return;
+        }
+      }
+    }
+  }
+
+  private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+    subscriber.sendStartedAt().set(System.nanoTime());
+    try {
+      subscriber.emitter().send(event);
+    } catch (IOException | IllegalStateException e) {
+      log.debug("Dropping status stream subscriber of owner {}: {}", subscriber.ownerId(),
+          e.toString());
+      unsubscribe(subscriber);
+      return false;
+    } finally {
+      subscriber.sendStartedAt().set(0);
+    }
+
+    if (subscriber.stalled().get()) {
+      subscriber.emitter().complete();
+      return false;
+    }
+    return true;
+  }
+
+  private void unsubscribe(Subscriber subscriber) {
+    subscribers.computeIfPresent(subscriber.ownerId(), (ownerId, ownerSubscribers) -> {
+      ownerSubscribers.remove(subscriber);
+      return ownerSubscribers.isEmpty() ? null : ownerSubscribers;
+    });
+  }
+
+  private record Subscriber(UUID ownerId, SseEmitter emitter, OrderStatusEventBuffer buffer,
+                            AtomicLong sendStartedAt, AtomicBoolean stalled) {
+
+  }
+}
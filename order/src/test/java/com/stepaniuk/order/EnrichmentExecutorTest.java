@@ -0,0 +1,117 @@
+package com.stepaniuk.order;
+
+
+import com.stepaniuk.order.client.EnrichmentExecutor;
+import com.stepaniuk.zrobleno.types.exception.order.EnrichmentTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnrichmentExecutorTest {
+
+  private final EnrichmentExecutor enrichmentExecutor = new EnrichmentExecutor(2, 4, 200);
+
+  @AfterEach
+  void tearDown() {
+    enrichmentExecutor.destroy();
+  }
+
+  @Test
+  void shouldRunIndependentCallsConcurrently() {
+    // given
+    var latch = new CountDownLatch(2);
+
+    // when
+    var first = enrichmentExecutor.submit(() -> countDownAndAwait(latch));
+    var second = enrichmentExecutor.submit(() -> countDownAndAwait(latch));
+
+    // then
+    assertTrue(enrichmentExecutor.await(first));
+    assertTrue(enrichmentExecutor.await(second));
+  }
+
+  @Test
+  void shouldRethrowRuntimeExceptionOfFailedCall() {
+    // given
+    var future = enrichmentExecutor.submit(() -> {
+      throw new IllegalStateException("Remote call failed");
+    });
+
+    // when && then
+    assertThrows(IllegalStateException.class, () -> enrichmentExecutor.await(future));
+  }
+
+  @Test
+  void shouldThrowEnrichmentTimeoutExceptionWhenCallExceedsDeadline() {
+    // given
+    var future = enrichmentExecutor.submit(() -> awaitRelease(new CountDownLatch(1)));
+
+    // when
+    var exception = assertThrows(EnrichmentTimeoutException.class,
+        () -> enrichmentExecutor.await(future));
+
+    // then
+    assertEquals(200, exception.getTimeoutMillis());
+  }
+
+  @Test
+  void shouldInterruptCallThatExceedsDeadline() throws InterruptedException {
+    // given
+    var interrupted = new CountDownLatch(1);
+    var future = enrichmentExecutor.submit(() -> {
+      try {
+        return new CountDownLatch(1).await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+        return false;
+      }
+    });
+
+    // when
+    assertThrows(EnrichmentTimeoutException.class, () -> enrichmentExecutor.await(future));
+
+    // then
+    assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void shouldFailCallInsteadOfRunningItOnCallerThreadWhenPoolIsFull() {
+    // given
+    var release = new CountDownLatch(1);
+    for (int i = 0; i < 6; i++) {
+      enrichmentExecutor.submit(() -> awaitRelease(release));
+    }
+    var caller = Thread.currentThread();
+
+    // when
+    var future = enrichmentExecutor.submit(() -> Thread.currentThread() == caller);
+
+    // then
+    assertThrows(RejectedExecutionException.class, () -> enrichmentExecutor.await(future));
+    release.countDown();
+  }
+
+  private static boolean awaitRelease(CountDownLatch release) {
+    try {
+      return release.await(1, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private static boolean countDownAndAwait(CountDownLatch latch) {
+    latch.countDown();
+    try {
+      return latch.await(1, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.stepaniuk.order;
+
+
+import com.stepaniuk.order.archive.OrderArchiver;
+import com.stepaniuk.order.stats.OrderStatusCount;
+import com.stepaniuk.order.stats.OrderStatusCountRepository;
+import com.stepaniuk.order.status.OrderStatusNameConverter;
+import com.stepaniuk.order.testspecific.JpaLevelTest;
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@JpaLevelTest
+@Sql(scripts = {"classpath:sql/order_statuses.sql", "classpath:sql/orders.sql"})
+class OrderArchiverTest {
+
+  private static final UUID OWNER_ID = UUID.fromString("b869fce1-f221-45bc-9363-f3bec945ac12");
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private OrderStatusCountRepository orderStatusCountRepository;
+
+  @Test
+  void shouldArchiveOnlyOrdersWithTerminalStatus() {
+    // given
+    var orderArchiver = new OrderArchiver(orderRepository, 0, 1);
+
+    // when
+    var archived = orderArchiver.archive();
+
+    // then
+    assertEquals(1, archived);
+    assertEquals(3, orderRepository.count());
+
+    var archivedOrder = orderRepository.findById(2L).orElseThrow();
+    assertTrue(archivedOrder.isArchived());
+    assertEquals(OrderStatusName.CANCELED, archivedOrder.getStatus());
+    assertEquals(3L, archivedOrder.getServiceId());
+    assertEquals(Instant.parse("2021-01-01T00:00:00Z"), archivedOrder.getCreatedAt());
+
+    assertFalse(orderRepository.findById(1L).orElseThrow().isArchived());
+    assertFalse(orderRepository.findById(3L).orElseThrow().isArchived());
+  }
+
+  @Test
+  void shouldKeepArchivedOrdersInOwnerListings() {
+    // when
+    var archived = orderRepository.archiveByStatusInAndLastModifiedAtBefore(
+        List.of((short) 2), Instant.now(), 10);
+
+    // then
+    assertEquals(1, archived);
+
+    var orders = orderRepository.findFirstSliceByOwnerId(OWNER_ID, PageRequest.of(0, 10));
+    assertEquals(List.of(3L, 2L, 1L), orders.map(Order::getId).toList());
+    assertEquals(3, orderRepository.countByOwnerId(OWNER_ID));
+  }
+
+  @Test
+  void shouldKeepArchivedOrdersInStatusCounts() {
+    // given
+    orderStatusCountRepository.addToCount(OWNER_ID,
+        OrderStatusNameConverter.toCode(OrderStatusName.CREATED), 1);
+    orderStatusCountRepository.addToCount(OWNER_ID,
+        OrderStatusNameConverter.toCode(OrderStatusName.CANCELED), 1);
+    orderStatusCountRepository.addToCount(OWNER_ID,
+        OrderStatusNameConverter.toCode(OrderStatusName.CONFIRMED), 1);
+
+    // when
+    var archived = orderRepository.archiveByStatusInAndLastModifiedAtBefore(
+        List.of((short) 2), Instant.now(), 10);
+
+    // then
+    assertEquals(1, archived);
+
+    var counts = orderStatusCountRepository.findAllByIdOwnerId(OWNER_ID).stream()
+        .collect(Collectors.toMap(count -> count.getId().getStatus(), OrderStatusCount::getCount));
+    assertEquals(Map.of(OrderStatusName.CREATED, 1L, OrderStatusName.CANCELED, 1L,
+        OrderStatusName.CONFIRMED, 1L), counts);
+  }
+
+  @Test
+  void shouldNotArchiveOrdersModifiedAfterThreshold() {
+    // when
+    var archived = orderRepository.archiveByStatusInAndLastModifiedAtBefore(
+        List.of((short) 2), Instant.parse("2020-01-01T00:00:00Z"), 10);
+
+    // then
+    assertEquals(0, archived);
+    assertFalse(orderRepository.findById(2L).orElseThrow().isArchived());
+  }
+}
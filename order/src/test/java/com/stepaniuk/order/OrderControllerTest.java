@@ -2,14 +2,32 @@ package com.stepaniuk.order;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import com.stepaniuk.order.export.OrderExporter;
+import com.stepaniuk.order.idempotency.OrderIdempotencyStore;
+import com.stepaniuk.order.stream.OrderStatusStreamHub;
+import com.stepaniuk.order.shared.DegradedResponseAdvice;
 import com.stepaniuk.order.testspecific.ControllerLevelUnitTest;
 import com.stepaniuk.zrobleno.payload.feedback.FeedbackResponse;
+import com.stepaniuk.zrobleno.payload.order.OrderBatchCreateRequest;
 import com.stepaniuk.zrobleno.payload.order.OrderCreateRequest;
 import com.stepaniuk.zrobleno.payload.order.OrderResponse;
+import com.stepaniuk.zrobleno.payload.order.OrderSliceResponse;
+import com.stepaniuk.zrobleno.payload.order.OrderStatsResponse;
+import com.stepaniuk.zrobleno.payload.order.OrderStatusBatchRequest;
+import com.stepaniuk.zrobleno.payload.order.OrderStatusChangeResponse;
 import com.stepaniuk.zrobleno.payload.order.OrderUpdateRequest;
+import com.stepaniuk.zrobleno.types.exception.order.EnrichmentTimeoutException;
+import com.stepaniuk.zrobleno.types.exception.order.IdempotencyKeyReusedException;
 import com.stepaniuk.zrobleno.types.exception.order.IllegalOrderStatusException;
+import com.stepaniuk.zrobleno.types.exception.order.InvalidIdempotencyKeyException;
+import com.stepaniuk.zrobleno.types.exception.order.InvalidOrderCursorException;
 import com.stepaniuk.zrobleno.types.exception.order.NoSuchOrderByIdException;
+import com.stepaniuk.zrobleno.types.exception.order.OrderBatchTooLargeException;
+import com.stepaniuk.zrobleno.types.exception.order.OrderStatusConflictException;
+import com.stepaniuk.zrobleno.types.order.OrderStatusChangeOutcome;
 import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -19,17 +37,30 @@ import org.springframework.hateoas.Link;
 import org.springframework.lang.Nullable;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static com.stepaniuk.zrobleno.testspecific.hamcrest.TemporalStringMatchers.instantComparesEqualTo;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ControllerLevelUnitTest(controllers = OrderController.class)
@@ -42,6 +73,15 @@ class OrderControllerTest {
   @MockBean
   private OrderService orderService;
 
+  @MockBean
+  private OrderIdempotencyStore orderIdempotencyStore;
+
+  @MockBean
+  private OrderExporter orderExporter;
+
+  @MockBean
+  private OrderStatusStreamHub orderStatusStreamHub;
+
   @Autowired
   private ObjectMapper objectMapper;
 
@@ -99,6 +139,108 @@ class OrderControllerTest {
             is("http://localhost/orders/" + orderId + "/confirm")));
   }
 
+  @Test
+  void shouldReturnStoredOrderResponseWhenCreatingOrderWithIdempotencyKey() throws Exception {
+    var ownerId = UUID.randomUUID();
+    var request = new OrderCreateRequest(ownerId, 2L, "Comment");
+    var response = getNewOrderResponseWithAllFields(1L, ownerId, 2L,
+        OrderStatusName.CREATED, null, "Comment");
+
+    when(orderIdempotencyStore.getOrCreate(eq(request), eq("key-1"), any())).thenReturn(response);
+
+    mockMvc.perform(post("/orders")
+            .contentType("application/json")
+            .header("Idempotency-Key", "key-1")
+            .content(objectMapper.writeValueAsString(request))
+        )
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.id", is(1L), Long.class))
+        .andExpect(jsonPath("$.serviceId", is(2L), Long.class));
+
+    verify(orderService, never()).createOrder(any());
+  }
+
+  @Test
+  void shouldReturnBadRequestWhenIdempotencyKeyIsInvalid() throws Exception {
+    var request = new OrderCreateRequest(UUID.randomUUID(), 2L, "Comment");
+
+    when(orderIdempotencyStore.getOrCreate(eq(request), eq(" "), any()))
+        .thenThrow(new InvalidIdempotencyKeyException(" "));
+
+    mockMvc.perform(post("/orders")
+            .contentType("application/json")
+            .header("Idempotency-Key", " ")
+            .content(objectMapper.writeValueAsString(request))
+        )
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.title", is("Invalid idempotency key")))
+        .andExpect(jsonPath("$.instance", is("/orders")));
+  }
+
+  @Test
+  void shouldReturnUnprocessableEntityWhenIdempotencyKeyIsReusedWithDifferentRequest()
+      throws Exception {
+    var request = new OrderCreateRequest(UUID.randomUUID(), 2L, "Comment");
+
+    when(orderIdempotencyStore.getOrCreate(eq(request), eq("key-1"), any()))
+        .thenThrow(new IdempotencyKeyReusedException("key-1"));
+
+    mockMvc.perform(post("/orders")
+            .contentType("application/json")
+            .header("Idempotency-Key", "key-1")
+            .content(objectMapper.writeValueAsString(request))
+        )
+        .andExpect(status().isUnprocessableEntity())
+        .andExpect(jsonPath("$.title", is("Idempotency key reused")))
+        .andExpect(jsonPath("$.instance", is("/orders")));
+  }
+
+  @Test
+  void shouldReturnListOfOrderResponsesWhenCreatingOrdersInBatch() throws Exception {
+    var ownerId = UUID.randomUUID();
+    var firstRequest = new OrderCreateRequest(ownerId, 2L, "First");
+    var secondRequest = new OrderCreateRequest(ownerId, 3L, "Second");
+    var request = new OrderBatchCreateRequest(List.of(firstRequest, secondRequest));
+
+    var firstResponse = getNewOrderResponseWithAllFields(1L, ownerId, 2L,
+        OrderStatusName.CREATED, null, "First");
+    var secondResponse = getNewOrderResponseWithAllFields(2L, ownerId, 3L,
+        OrderStatusName.CREATED, null, "Second");
+
+    when(orderService.createOrders(eq(List.of(firstRequest, secondRequest))))
+        .thenReturn(List.of(firstResponse, secondResponse));
+
+    mockMvc.perform(post("/orders/batch")
+            .contentType("application/json")
+            .content(objectMapper.writeValueAsString(request))
+        )
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$[0].id", is(1L), Long.class))
+        .andExpect(jsonPath("$[0].serviceId", is(2L), Long.class))
+        .andExpect(jsonPath("$[0].comment", is("First")))
+        .andExpect(jsonPath("$[1].id", is(2L), Long.class))
+        .andExpect(jsonPath("$[1].serviceId", is(3L), Long.class))
+        .andExpect(jsonPath("$[1].status", is(OrderStatusName.CREATED.toString())));
+  }
+
+  @Test
+  void shouldReturnErrorResponseWhenCreatingTooManyOrdersInBatch() throws Exception {
+    var orderRequest = new OrderCreateRequest(UUID.randomUUID(), 2L, "Comment");
+    var request = new OrderBatchCreateRequest(Collections.nCopies(1001, orderRequest));
+
+    when(orderService.createOrders(any())).thenThrow(new OrderBatchTooLargeException(1001, 1000));
+
+    mockMvc.perform(post("/orders/batch")
+            .contentType("application/json")
+            .content(objectMapper.writeValueAsString(request))
+        )
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.status", is(400)))
+        .andExpect(jsonPath("$.title", is("Order batch too large")))
+        .andExpect(jsonPath("$.detail", is("Order batch of size 1001 exceeds the maximum of 1000")))
+        .andExpect(jsonPath("$.instance", is("/orders")));
+  }
+
   @Test
   void shouldReturnOrderResponseWhenGettingOrderById() throws Exception {
     var ownerId = UUID.randomUUID();
@@ -131,6 +273,68 @@ class OrderControllerTest {
             is("http://localhost/orders/" + orderId + "/confirm")));
   }
 
+  @Test
+  void shouldMarkResponseAsDegradedWhenOrderIsReturnedWithoutFeedback() throws Exception {
+    var orderId = 1L;
+    var response = getNewOrderResponseWithAllFields(orderId, UUID.randomUUID(), 2L,
+        OrderStatusName.CREATED, null, "Comment");
+
+    when(orderService.getOrder(eq(orderId))).thenAnswer(invocation -> {
+      DegradedResponseAdvice.markDegraded("feedback");
+      return response;
+    });
+
+    mockMvc.perform(get("/orders/" + orderId))
+        .andExpect(status().isOk())
+        .andExpect(header().string(DegradedResponseAdvice.HEADER, "feedback"))
+        .andExpect(jsonPath("$.id", is(orderId), Long.class));
+  }
+
+  @Test
+  void shouldNotMarkResponseAsDegradedWhenOrderIsReturnedWithAllParts() throws Exception {
+    var orderId = 1L;
+    var response = getNewOrderResponseWithAllFields(orderId, UUID.randomUUID(), 2L,
+        OrderStatusName.CREATED, null, "Comment");
+
+    when(orderService.getOrder(eq(orderId))).thenReturn(response);
+
+    mockMvc.perform(get("/orders/" + orderId))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(DegradedResponseAdvice.HEADER));
+  }
+
+  @Test
+  void shouldReturnServiceUnavailableWhenServiceServiceBreakerIsOpen() throws Exception {
+    var request = new OrderCreateRequest(UUID.randomUUID(), 2L, "Comment");
+
+    when(orderService.createOrder(any())).thenThrow(
+        CallNotPermittedException.createCallNotPermittedException(
+            CircuitBreaker.ofDefaults("service-service")));
+
+    mockMvc.perform(post("/orders")
+            .contentType("application/json")
+            .content(objectMapper.writeValueAsString(request))
+        )
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(jsonPath("$.title", is("Remote service unavailable")))
+        .andExpect(jsonPath("$.instance", is("/orders")));
+  }
+
+  @Test
+  void shouldReturnServiceUnavailableWhenServiceLookupTimesOut() throws Exception {
+    var request = new OrderCreateRequest(UUID.randomUUID(), 2L, "Comment");
+
+    when(orderService.createOrder(any())).thenThrow(new EnrichmentTimeoutException(2000));
+
+    mockMvc.perform(post("/orders")
+            .contentType("application/json")
+            .content(objectMapper.writeValueAsString(request))
+        )
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(jsonPath("$.title", is("Remote service unavailable")))
+        .andExpect(jsonPath("$.detail", is("Remote call did not complete within 2000 ms")));
+  }
+
   @Test
   void shouldReturnErrorResponseWhenGetOrderByIdAndNoSuchOrderByIdException() throws Exception {
     var orderId = 1L;
@@ -391,6 +595,25 @@ class OrderControllerTest {
         .andExpect(jsonPath("$.instance", is("/orders/1")));
   }
 
+  @Test
+  void shouldReturnErrorResponseWhenConfirmingConcurrentlyChangedOrder() throws Exception {
+    var orderId = 1L;
+
+    when(orderService.changeStatus(orderId, OrderStatusName.CONFIRMED)).thenThrow(
+        new OrderStatusConflictException(OrderStatusName.CONFIRMED, OrderStatusName.CREATED,
+            orderId));
+
+    mockMvc.perform(post("/orders/" + orderId + "/confirm")
+            .contentType("application/json")
+        )
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.status", is(409)))
+        .andExpect(jsonPath("$.title", is("Order status conflict")))
+        .andExpect(jsonPath("$.detail",
+            is("Order status conflict! Expected CREATED before changing to CONFIRMED in order with id: 1")))
+        .andExpect(jsonPath("$.instance", is("/orders/1")));
+  }
+
   @Test
   void shouldReturnPageWhenGettingAllOrders() throws Exception {
     var orderId = 2L;
@@ -455,4 +678,160 @@ class OrderControllerTest {
         .andExpect(jsonPath("$.content[0].lastModifiedAt", instantComparesEqualTo(response.getLastModifiedAt())))
         .andExpect(jsonPath("$.content[0].links[0].href", is("http://localhost/orders/1")));
   }
+
+  @Test
+  void shouldReturnSliceWhenGettingAllOrdersAfterCursor() throws Exception {
+    var orderId = 2L;
+    var ownerId = UUID.randomUUID();
+    var serviceId = 1L;
+    var comment = "Comment";
+    var after = "MjAyMS0wMS0wMVQwMDowMDowMFosMw";
+    var next = "MjAyMS0wMS0wMVQwMDowMDowMFosMg";
+
+    var response = getNewOrderResponseWithAllFields(orderId, ownerId, serviceId,
+        OrderStatusName.CANCELED, null, comment);
+    response.add(Link.of("http://localhost/orders/" + orderId, "self"));
+
+    when(orderService.getAllOrders(eq(ownerId), eq(after), eq(1))).thenReturn(
+        new OrderSliceResponse(List.of(response), true, next));
+
+    mockMvc.perform(get("/orders/v3")
+            .contentType("application/json")
+            .param("ownerId", ownerId.toString())
+            .param("after", after)
+            .param("limit", "1")
+        )
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content[0].id", is(orderId), Long.class))
+        .andExpect(jsonPath("$.content[0].ownerId", is(ownerId.toString())))
+        .andExpect(jsonPath("$.content[0].status", is(OrderStatusName.CANCELED.toString())))
+        .andExpect(jsonPath("$.content[0].serviceId", is(serviceId), Long.class))
+        .andExpect(jsonPath("$.content[0].comment", is(comment)))
+        .andExpect(jsonPath("$.hasNext", is(true)))
+        .andExpect(jsonPath("$.next", is(next)));
+  }
+
+  @Test
+  void shouldReturnErrorResponseWhenGettingAllOrdersAfterInvalidCursor() throws Exception {
+    var ownerId = UUID.randomUUID();
+
+    when(orderService.getAllOrders(eq(ownerId), eq("broken"), eq(20))).thenThrow(
+        new InvalidOrderCursorException("broken"));
+
+    mockMvc.perform(get("/orders/v3")
+            .contentType("application/json")
+            .param("ownerId", ownerId.toString())
+            .param("after", "broken")
+        )
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.status", is(400)))
+        .andExpect(jsonPath("$.title", is("Invalid orders cursor")))
+        .andExpect(jsonPath("$.detail", is("Invalid orders cursor broken")))
+        .andExpect(jsonPath("$.instance", is("/orders/v3")));
+  }
+
+  @Test
+  void shouldReturnOutcomesWhenChangingStatusesInBatch() throws Exception {
+    var request = new OrderStatusBatchRequest(List.of(1L, 2L, 3L), OrderStatusName.CONFIRMED);
+
+    when(orderService.changeStatuses(eq(request.getIds()), eq(OrderStatusName.CONFIRMED)))
+        .thenReturn(List.of(
+            new OrderStatusChangeResponse(1L, OrderStatusChangeOutcome.CHANGED,
+                OrderStatusName.CONFIRMED),
+            new OrderStatusChangeResponse(2L, OrderStatusChangeOutcome.ILLEGAL_STATUS,
+                OrderStatusName.CANCELED),
+            new OrderStatusChangeResponse(3L, OrderStatusChangeOutcome.NOT_FOUND, null)
+        ));
+
+    mockMvc.perform(post("/orders/status:batch")
+            .contentType("application/json")
+            .content(objectMapper.writeValueAsString(request))
+        )
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id", is(1L), Long.class))
+        .andExpect(jsonPath("$[0].outcome", is(OrderStatusChangeOutcome.CHANGED.toString())))
+        .andExpect(jsonPath("$[0].status", is(OrderStatusName.CONFIRMED.toString())))
+        .andExpect(jsonPath("$[1].id", is(2L), Long.class))
+        .andExpect(
+            jsonPath("$[1].outcome", is(OrderStatusChangeOutcome.ILLEGAL_STATUS.toString())))
+        .andExpect(jsonPath("$[1].status", is(OrderStatusName.CANCELED.toString())))
+        .andExpect(jsonPath("$[2].id", is(3L), Long.class))
+        .andExpect(jsonPath("$[2].outcome", is(OrderStatusChangeOutcome.NOT_FOUND.toString())));
+  }
+
+  @Test
+  void shouldReturnErrorResponseWhenChangingStatusesOfTooManyOrdersInBatch() throws Exception {
+    var request = new OrderStatusBatchRequest(Collections.nCopies(1001, 1L),
+        OrderStatusName.CONFIRMED);
+
+    when(orderService.changeStatuses(any(), eq(OrderStatusName.CONFIRMED)))
+        .thenThrow(new OrderBatchTooLargeException(1001, 1000));
+
+    mockMvc.perform(post("/orders/status:batch")
+            .contentType("application/json")
+            .content(objectMapper.writeValueAsString(request))
+        )
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.title", is("Order batch too large")));
+  }
+
+  @Test
+  void shouldReturnOrderStatsResponseWhenGettingStats() throws Exception {
+    var ownerId = UUID.randomUUID();
+    var stats = new OrderStatsResponse(ownerId, Map.of(
+        OrderStatusName.CREATED, 4L,
+        OrderStatusName.CANCELED, 1L
+    ), 5L);
+
+    when(orderService.getStats(ownerId)).thenReturn(stats);
+
+    mockMvc.perform(get("/orders/stats")
+            .contentType("application/json")
+            .param("ownerId", ownerId.toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.ownerId", is(ownerId.toString())))
+        .andExpect(jsonPath("$.counts.CREATED", is(4L), Long.class))
+        .andExpect(jsonPath("$.counts.CANCELED", is(1L), Long.class))
+        .andExpect(jsonPath("$.total", is(5L), Long.class));
+  }
+
+  @Test
+  void shouldStreamFilteredOrdersAsNdjsonWhenExporting() throws Exception {
+    var ownerId = UUID.randomUUID();
+    var from = Instant.parse("2024-01-01T00:00:00Z");
+    var lines = "{\"id\":1}\n{\"id\":2}\n";
+
+    doAnswer(invocation -> {
+      invocation.getArgument(0, OutputStream.class)
+          .write(lines.getBytes(StandardCharsets.UTF_8));
+      return null;
+    }).when(orderExporter).export(any(), eq(OrderStatusName.CREATED), eq(ownerId), eq(from),
+        isNull());
+
+    var result = mockMvc.perform(get("/orders/export")
+            .param("status", "CREATED")
+            .param("ownerId", ownerId.toString())
+            .param("from", from.toString()))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Type", "application/x-ndjson"))
+        .andExpect(content().string(lines));
+  }
+
+  @Test
+  void shouldOpenEventStreamWhenSubscribingToStatusChanges() throws Exception {
+    var ownerId = UUID.randomUUID();
+
+    when(orderStatusStreamHub.subscribe(ownerId)).thenReturn(new SseEmitter());
+
+    mockMvc.perform(get("/orders/stream")
+            .param("ownerId", ownerId.toString()))
+        .andExpect(request().asyncStarted())
+        .andExpect(header().string("Content-Type", "text/event-stream"));
+
+    verify(orderStatusStreamHub).subscribe(ownerId);
+  }
 }
@@ -0,0 +1,94 @@
+package com.stepaniuk.order;
+
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.stepaniuk.order.export.OrderExporter;
+import com.stepaniuk.order.testspecific.JpaLevelTest;
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@JpaLevelTest
+@Sql(scripts = {"classpath:sql/order_statuses.sql", "classpath:sql/orders.sql"})
+class OrderExporterTest {
+
+  private static final UUID OWNER_ID = UUID.fromString("b869fce1-f221-45bc-9363-f3bec945ac12");
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private final ObjectMapper objectMapper = new ObjectMapper()
+      .registerModule(new JavaTimeModule())
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+  private OrderExporter orderExporter;
+
+  @BeforeEach
+  void setUp() {
+    orderExporter = new OrderExporter(dataSource, transactionManager, objectMapper, 2);
+  }
+
+  @Test
+  void shouldWriteEveryOrderAsJsonLineInIdOrder() throws Exception {
+    // given
+    var outputStream = new ByteArrayOutputStream();
+
+    // when
+    orderExporter.export(outputStream, null, null, null, null);
+
+    // then
+    var lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(3, lines.length);
+
+    for (int i = 0; i < lines.length; i++) {
+      var line = objectMapper.readTree(lines[i]);
+      assertEquals(i + 1, line.get("id").asLong());
+      assertEquals(OWNER_ID.toString(), line.get("ownerId").asText());
+      assertEquals("comment", line.get("comment").asText());
+    }
+    assertEquals("CREATED", objectMapper.readTree(lines[0]).get("status").asText());
+  }
+
+  @Test
+  void shouldWriteOnlyOrdersMatchingFilters() throws Exception {
+    // given
+    var outputStream = new ByteArrayOutputStream();
+
+    // when
+    orderExporter.export(outputStream, OrderStatusName.CANCELED, OWNER_ID,
+        Instant.parse("2020-01-01T00:00:00Z"), Instant.parse("2022-01-01T00:00:00Z"));
+
+    // then
+    var lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(1, lines.length);
+    assertEquals(2L, objectMapper.readTree(lines[0]).get("id").asLong());
+  }
+
+  @Test
+  void shouldWriteNothingWhenNoOrderMatchesFilters() {
+    // given
+    var outputStream = new ByteArrayOutputStream();
+
+    // when
+    orderExporter.export(outputStream, null, UUID.randomUUID(), null, null);
+
+    // then
+    assertEquals(0, outputStream.size());
+  }
+}
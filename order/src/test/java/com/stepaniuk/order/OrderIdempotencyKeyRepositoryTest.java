@@ -0,0 +1,68 @@
+package com.stepaniuk.order;
+
+
+import com.stepaniuk.order.idempotency.OrderIdempotencyKeyId;
+import com.stepaniuk.order.idempotency.OrderIdempotencyKeyRepository;
+import com.stepaniuk.order.testspecific.JpaLevelTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@JpaLevelTest
+class OrderIdempotencyKeyRepositoryTest {
+
+  @Autowired
+  private OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+
+  @Test
+  void shouldNotInsertKeyThatIsHeldByOwnerAndNotExpired() {
+    // given
+    var ownerId = UUID.randomUUID();
+    var expiredBefore = Instant.now().minus(Duration.ofDays(1));
+
+    // when
+    var first = orderIdempotencyKeyRepository.insert(ownerId, "key-1", "hash-1", 1L,
+        "{\"id\":1}", expiredBefore);
+    var second = orderIdempotencyKeyRepository.insert(ownerId, "key-1", "hash-2", 2L,
+        "{\"id\":2}", expiredBefore);
+    var otherOwner = orderIdempotencyKeyRepository.insert(UUID.randomUUID(), "key-1", "hash-3",
+        3L, "{\"id\":3}", expiredBefore);
+
+    // then
+    assertEquals(1, first);
+    assertEquals(0, second);
+    assertEquals(1, otherOwner);
+
+    var key = orderIdempotencyKeyRepository.findById(new OrderIdempotencyKeyId(ownerId, "key-1"))
+        .orElseThrow();
+    assertEquals("hash-1", key.getRequestHash());
+    assertEquals(1L, key.getOrderId());
+    assertEquals("{\"id\":1}", key.getResponse());
+  }
+
+  @Test
+  void shouldReplaceExpiredKeyThatWasNotCleanedUpYet() {
+    // given
+    var ownerId = UUID.randomUUID();
+    orderIdempotencyKeyRepository.insert(ownerId, "key-1", "hash-1", 1L, "{\"id\":1}",
+        Instant.now());
+
+    // when
+    var inserted = orderIdempotencyKeyRepository.insert(ownerId, "key-1", "hash-2", 2L,
+        "{\"id\":2}", Instant.now().plus(Duration.ofHours(1)));
+
+    // then
+    assertEquals(1, inserted);
+
+    var key = orderIdempotencyKeyRepository.findById(new OrderIdempotencyKeyId(ownerId, "key-1"))
+        .orElseThrow();
+    assertEquals("hash-2", key.getRequestHash());
+    assertEquals(2L, key.getOrderId());
+    assertEquals("{\"id\":2}", key.getResponse());
+  }
+}
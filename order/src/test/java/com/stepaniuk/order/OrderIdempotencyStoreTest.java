@@ -0,0 +1,298 @@
+package com.stepaniuk.order;
+
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stepaniuk.order.idempotency.OrderIdempotencyKey;
+import com.stepaniuk.order.idempotency.OrderIdempotencyKeyId;
+import com.stepaniuk.order.idempotency.OrderIdempotencyKeyRepository;
+import com.stepaniuk.order.idempotency.OrderIdempotencyStore;
+import com.stepaniuk.zrobleno.payload.order.OrderCreateRequest;
+import com.stepaniuk.zrobleno.payload.order.OrderResponse;
+import com.stepaniuk.zrobleno.types.exception.order.IdempotencyKeyReusedException;
+import com.stepaniuk.zrobleno.types.exception.order.InvalidIdempotencyKeyException;
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OrderIdempotencyStoreTest {
+
+  private final OrderIdempotencyKeyRepository orderIdempotencyKeyRepository = mock(
+      OrderIdempotencyKeyRepository.class);
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+  private final OrderIdempotencyStore orderIdempotencyStore = new OrderIdempotencyStore(
+      orderIdempotencyKeyRepository, new OrderMapperImpl(), objectMapper, 1, 3600);
+
+  @Test
+  void shouldReturnStoredResponseWithoutCreatingOrderAgain() {
+    // given
+    var calls = new AtomicInteger();
+    var request = getNewOrderCreateRequest();
+    var response = getNewOrderResponse(1L);
+
+    // when
+    var first = orderIdempotencyStore.getOrCreate(request, "key-1", () -> {
+      calls.incrementAndGet();
+      return response;
+    });
+    var second = orderIdempotencyStore.getOrCreate(request, "key-1", () -> {
+      calls.incrementAndGet();
+      return getNewOrderResponse(2L);
+    });
+
+    // then
+    assertEquals(1, calls.get());
+    assertEquals(1L, first.getId());
+    assertEquals(1L, second.getId());
+  }
+
+  @Test
+  void shouldCreateOrderAgainWhenKeyIsReusedByAnotherOwner() {
+    // given
+    var calls = new AtomicInteger();
+
+    // when
+    orderIdempotencyStore.getOrCreate(getNewOrderCreateRequest(), "key-1", () -> {
+      calls.incrementAndGet();
+      return getNewOrderResponse(1L);
+    });
+    var response = orderIdempotencyStore.getOrCreate(getNewOrderCreateRequest(), "key-1", () -> {
+      calls.incrementAndGet();
+      return getNewOrderResponse(2L);
+    });
+
+    // then
+    assertEquals(2, calls.get());
+    assertEquals(2L, response.getId());
+  }
+
+  @Test
+  void shouldThrowIdempotencyKeyReusedExceptionWhenKeyIsReusedWithDifferentRequest() {
+    // given
+    var request = getNewOrderCreateRequest();
+    var otherRequest = new OrderCreateRequest(request.getOwnerId(), 2L, "Other comment");
+
+    orderIdempotencyStore.getOrCreate(request, "key-1", () -> getNewOrderResponse(1L));
+
+    // when && then
+    assertThrows(IdempotencyKeyReusedException.class,
+        () -> orderIdempotencyStore.getOrCreate(otherRequest, "key-1", () -> {
+          throw new IllegalStateException("Order must not be created");
+        }));
+  }
+
+  @Test
+  void shouldReplayStoredResponseWhenKeyIsResolvedFromDatabase() throws Exception {
+    // given
+    var storedResponse = getNewOrderResponse(5L);
+    var request = getNewOrderCreateRequest();
+    var id = new OrderIdempotencyKeyId(request.getOwnerId(), "key-1");
+
+    when(orderIdempotencyKeyRepository.findById(id)).thenReturn(Optional.of(
+        new OrderIdempotencyKey(id, OrderIdempotencyStore.hash(request), 5L,
+            objectMapper.writeValueAsString(storedResponse), Instant.now())));
+
+    // when
+    var response = orderIdempotencyStore.getOrCreate(request, "key-1", () -> {
+      throw new IllegalStateException("Order must not be created again");
+    });
+
+    // then
+    assertEquals(5L, response.getId());
+    assertEquals(storedResponse.getOwnerId(), response.getOwnerId());
+    assertEquals(storedResponse.getComment(), response.getComment());
+    assertEquals(storedResponse.getCreatedAt(), response.getCreatedAt());
+    assertEquals(storedResponse.getLastModifiedAt(), response.getLastModifiedAt());
+    assertTrue(response.getLink("confirm").isPresent());
+  }
+
+  @Test
+  void shouldReplayResponseStoredWhenClaimingKey() {
+    // given
+    var request = getNewOrderCreateRequest();
+    var id = new OrderIdempotencyKeyId(request.getOwnerId(), "key-1");
+    var createdResponse = new OrderMapperImpl().withLinks(getNewOrderResponse(5L));
+    var storedResponse = ArgumentCaptor.forClass(String.class);
+
+    when(orderIdempotencyKeyRepository.insert(any(), any(), any(), any(),
+        storedResponse.capture(), any())).thenReturn(1);
+    orderIdempotencyStore.claim(request, "key-1", createdResponse);
+
+    when(orderIdempotencyKeyRepository.findById(id)).thenReturn(Optional.of(
+        new OrderIdempotencyKey(id, OrderIdempotencyStore.hash(request), 5L,
+            storedResponse.getValue(), Instant.now())));
+
+    // when
+    var response = orderIdempotencyStore.find(id, OrderIdempotencyStore.hash(request));
+
+    // then
+    assertEquals(Optional.of(createdResponse), response);
+  }
+
+  @Test
+  void shouldThrowIdempotencyKeyReusedExceptionWhenKeyInDatabaseHasDifferentRequestHash() {
+    // given
+    var request = getNewOrderCreateRequest();
+    var id = new OrderIdempotencyKeyId(request.getOwnerId(), "key-1");
+
+    when(orderIdempotencyKeyRepository.findById(id)).thenReturn(Optional.of(
+        new OrderIdempotencyKey(id, "other-hash", 5L, "{}", Instant.now())));
+
+    // when && then
+    assertThrows(IdempotencyKeyReusedException.class,
+        () -> orderIdempotencyStore.getOrCreate(request, "key-1", () -> getNewOrderResponse(6L)));
+  }
+
+  @Test
+  void shouldIgnoreExpiredKeyInDatabase() {
+    // given
+    var request = getNewOrderCreateRequest();
+    var id = new OrderIdempotencyKeyId(request.getOwnerId(), "key-1");
+
+    when(orderIdempotencyKeyRepository.findById(id)).thenReturn(Optional.of(
+        new OrderIdempotencyKey(id, "other-hash", 5L, "{}",
+            Instant.now().minus(Duration.ofHours(2)))));
+
+    // when
+    var response = orderIdempotencyStore.getOrCreate(request, "key-1",
+        () -> getNewOrderResponse(6L));
+
+    // then
+    assertEquals(6L, response.getId());
+  }
+
+  @Test
+  void shouldReturnResponseOfConcurrentRequestWhenKeyIsTakenWhileCreating() throws Exception {
+    // given
+    var request = getNewOrderCreateRequest();
+    var id = new OrderIdempotencyKeyId(request.getOwnerId(), "key-1");
+
+    when(orderIdempotencyKeyRepository.findById(id))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(
+            new OrderIdempotencyKey(id, OrderIdempotencyStore.hash(request), 5L,
+                objectMapper.writeValueAsString(getNewOrderResponse(5L)), Instant.now())));
+
+    // when
+    var response = orderIdempotencyStore.getOrCreate(request, "key-1", () -> {
+      throw new DuplicateKeyException("duplicate key");
+    });
+
+    // then
+    assertEquals(5L, response.getId());
+  }
+
+  @Test
+  void shouldRethrowIntegrityViolationThatIsNotCausedByKey() {
+    // given
+    var request = getNewOrderCreateRequest();
+
+    when(orderIdempotencyKeyRepository.findById(any())).thenReturn(Optional.empty());
+
+    // when && then
+    assertThrows(DataIntegrityViolationException.class,
+        () -> orderIdempotencyStore.getOrCreate(request, "key-1", () -> {
+          throw new DataIntegrityViolationException("not null");
+        }));
+  }
+
+  @Test
+  void shouldClaimKeyWithRequestHashAndTakeOverOnlyExpiredRows() {
+    // given
+    var request = getNewOrderCreateRequest();
+    var expiredBefore = ArgumentCaptor.forClass(Instant.class);
+
+    when(orderIdempotencyKeyRepository.insert(eq(request.getOwnerId()), eq("key-1"),
+        eq(OrderIdempotencyStore.hash(request)), eq(5L), any(), any())).thenReturn(1);
+
+    // when
+    orderIdempotencyStore.claim(request, "key-1", getNewOrderResponse(5L));
+
+    // then
+    verify(orderIdempotencyKeyRepository).insert(eq(request.getOwnerId()), eq("key-1"),
+        eq(OrderIdempotencyStore.hash(request)), eq(5L), any(), expiredBefore.capture());
+    assertTrue(expiredBefore.getValue().isBefore(Instant.now().minus(Duration.ofMinutes(59))));
+  }
+
+  @Test
+  void shouldThrowDuplicateKeyExceptionWhenClaimingKeyHeldByConcurrentRequest() {
+    // given
+    var request = getNewOrderCreateRequest();
+
+    when(orderIdempotencyKeyRepository.insert(any(), any(), any(), any(), any(), any()))
+        .thenReturn(0);
+
+    // when && then
+    assertThrows(DuplicateKeyException.class,
+        () -> orderIdempotencyStore.claim(request, "key-1", getNewOrderResponse(5L)));
+  }
+
+  @Test
+  void shouldHashRequestsByTheirFields() {
+    var ownerId = UUID.randomUUID();
+
+    assertEquals(OrderIdempotencyStore.hash(new OrderCreateRequest(ownerId, 1L, "Comment")),
+        OrderIdempotencyStore.hash(new OrderCreateRequest(ownerId, 1L, "Comment")));
+    assertNotEquals(OrderIdempotencyStore.hash(new OrderCreateRequest(ownerId, 1L, "Comment")),
+        OrderIdempotencyStore.hash(new OrderCreateRequest(ownerId, 2L, "Comment")));
+    assertNotEquals(OrderIdempotencyStore.hash(new OrderCreateRequest(ownerId, 1L, null)),
+        OrderIdempotencyStore.hash(new OrderCreateRequest(ownerId, 1L, "")));
+  }
+
+  @Test
+  void shouldKeepAtMostMaxSizeResponsesInMemory() {
+    // given
+    var request = getNewOrderCreateRequest();
+    var requestHash = OrderIdempotencyStore.hash(request);
+    var firstId = new OrderIdempotencyKeyId(request.getOwnerId(), "key-1");
+    var secondId = new OrderIdempotencyKeyId(request.getOwnerId(), "key-2");
+    orderIdempotencyStore.getOrCreate(request, "key-1", () -> getNewOrderResponse(1L));
+    orderIdempotencyStore.getOrCreate(request, "key-2", () -> getNewOrderResponse(2L));
+    orderIdempotencyStore.evictExpired();
+
+    // when
+    var first = orderIdempotencyStore.find(firstId, requestHash);
+    var second = orderIdempotencyStore.find(secondId, requestHash);
+
+    // then
+    assertEquals(1, Stream.of(first, second).filter(Optional::isPresent).count());
+  }
+
+  @Test
+  void shouldThrowInvalidIdempotencyKeyExceptionWhenKeyIsBlank() {
+    assertThrows(InvalidIdempotencyKeyException.class,
+        () -> orderIdempotencyStore.getOrCreate(getNewOrderCreateRequest(), " ",
+            () -> getNewOrderResponse(1L)));
+    verifyNoInteractions(orderIdempotencyKeyRepository);
+  }
+
+  @Test
+  void shouldThrowInvalidIdempotencyKeyExceptionWhenKeyIsTooLong() {
+    assertThrows(InvalidIdempotencyKeyException.class,
+        () -> orderIdempotencyStore.getOrCreate(getNewOrderCreateRequest(), "k".repeat(256),
+            () -> getNewOrderResponse(1L)));
+    verifyNoInteractions(orderIdempotencyKeyRepository);
+  }
+
+  private static OrderCreateRequest getNewOrderCreateRequest() {
+    return new OrderCreateRequest(UUID.randomUUID(), 1L, "Comment");
+  }
+
+  private static OrderResponse getNewOrderResponse(Long id) {
+    return new OrderResponse(id, UUID.randomUUID(), OrderStatusName.CREATED, 1L, "Comment", null,
+        Instant.now(), Instant.now());
+  }
+}
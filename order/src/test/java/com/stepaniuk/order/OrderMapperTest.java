@@ -1,7 +1,6 @@
 package com.stepaniuk.order;
 
 
-import com.stepaniuk.order.status.OrderStatus;
 import com.stepaniuk.zrobleno.payload.feedback.FeedbackResponse;
 import com.stepaniuk.zrobleno.testspecific.MapperLevelUnitTest;
 import com.stepaniuk.zrobleno.types.order.OrderStatusName;
@@ -27,14 +26,14 @@ class OrderMapperTest {
     // given
     Instant timeOfCreation = Instant.now().plus(Duration.ofHours(10));
     Instant timeOfModification = Instant.now().plus(Duration.ofHours(20));
-    var orderStatus = new OrderStatus(1L, OrderStatusName.CREATED);
+    var orderStatus = OrderStatusName.CREATED;
     var ownerId = UUID.randomUUID();
 
     var feedback = new FeedbackResponse(1L, 1L, ownerId, 5, "text", timeOfCreation,
         timeOfModification);
 
     Order orderToMap = new Order(
-        1L, ownerId, orderStatus, 1L, "New comment", timeOfCreation, timeOfModification
+        1L, ownerId, orderStatus, 1L, "New comment", timeOfCreation, timeOfModification, false
     );
 
     // when
@@ -44,7 +43,7 @@ class OrderMapperTest {
     assertNotNull(orderResponse);
     assertEquals(orderToMap.getId(), orderResponse.getId());
     assertEquals(orderToMap.getOwnerId(), orderResponse.getOwnerId());
-    assertEquals(orderToMap.getStatus().getName(), orderResponse.getStatus());
+    assertEquals(orderToMap.getStatus(), orderResponse.getStatus());
     assertEquals(orderToMap.getServiceId(), orderResponse.getServiceId());
     assertEquals(orderToMap.getComment(), orderResponse.getComment());
     assertEquals(orderToMap.getCreatedAt(), orderResponse.getCreatedAt());
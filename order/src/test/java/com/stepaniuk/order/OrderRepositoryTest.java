@@ -1,18 +1,23 @@
 package com.stepaniuk.order;
 
 
-import com.stepaniuk.order.status.OrderStatus;
+import com.stepaniuk.order.status.OrderStatusNameConverter;
 import com.stepaniuk.order.testspecific.JpaLevelTest;
 import com.stepaniuk.zrobleno.types.order.OrderStatusName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlMergeMode;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,11 +32,11 @@ class OrderRepositoryTest {
   void shouldSaveOrder() {
     Instant timeOfCreation = Instant.now().plus(Duration.ofHours(10));
     Instant timeOfModification = Instant.now().plus(Duration.ofHours(20));
-    var orderStatus = new OrderStatus(1L, OrderStatusName.CREATED);
+    var orderStatus = OrderStatusName.CREATED;
     var ownerId = UUID.randomUUID();
 
     Order orderToSave = new Order(
-        1L, ownerId, orderStatus, 1L, "Comment", timeOfCreation, timeOfModification
+        1L, ownerId, orderStatus, 1L, "Comment", timeOfCreation, timeOfModification, false
     );
 
     Order savedOrder = orderRepository.save(orderToSave);
@@ -50,11 +55,11 @@ class OrderRepositoryTest {
   void shouldThrowExceptionWhenSavingOrderWithoutServiceIds(){
     Instant timeOfCreation = Instant.now().plus(Duration.ofHours(10));
     Instant timeOfModification = Instant.now().plus(Duration.ofHours(20));
-    var orderStatus = new OrderStatus(1L, OrderStatusName.CREATED);
+    var orderStatus = OrderStatusName.CREATED;
     var ownerId = UUID.randomUUID();
 
     Order orderToSave = new Order(
-        null, ownerId, orderStatus, null, "Comment", timeOfCreation, timeOfModification
+        null, ownerId, orderStatus, null, "Comment", timeOfCreation, timeOfModification, false
     );
 
     assertThrows(Exception.class, () -> orderRepository.save(orderToSave));
@@ -80,7 +85,7 @@ class OrderRepositoryTest {
 
   @Test
   void shouldUpdateOrderWhenChangingStatus(){
-    var orderStatus = new OrderStatus(2L, OrderStatusName.IN_PROGRESS);
+    var orderStatus = OrderStatusName.IN_PROGRESS;
     Optional<Order> optionalOrder = orderRepository.findById(1L);
     assertTrue(optionalOrder.isPresent());
 
@@ -129,4 +134,132 @@ class OrderRepositoryTest {
     assertNotNull(orders);
     assertFalse(orders.isEmpty());
   }
+
+  @Test
+  void shouldReturnSliceWithoutCountingWhenFindSliceByOwnerId(){
+    var ownerId = UUID.fromString("b869fce1-f221-45bc-9363-f3bec945ac12");
+
+    var slice = orderRepository.findSliceByOwnerId(ownerId, PageRequest.of(0, 2, Sort.by("id")));
+
+    assertEquals(2, slice.getNumberOfElements());
+    assertTrue(slice.hasNext());
+    assertEquals(1L, slice.getContent().get(0).getId());
+    assertEquals(3L, orderRepository.countByOwnerId(ownerId));
+    assertEquals(0L, orderRepository.countByOwnerId(UUID.randomUUID()));
+  }
+
+  @Test
+  void shouldReturnFirstSliceOrderedByCreatedAtAndIdDescWhenFindFirstSliceByOwnerId(){
+    var ownerId = UUID.fromString("b869fce1-f221-45bc-9363-f3bec945ac12");
+
+    var slice = orderRepository.findFirstSliceByOwnerId(ownerId, PageRequest.ofSize(2));
+
+    assertEquals(2, slice.getNumberOfElements());
+    assertTrue(slice.hasNext());
+    assertEquals(3L, slice.getContent().get(0).getId());
+    assertEquals(2L, slice.getContent().get(1).getId());
+  }
+
+  @Test
+  void shouldReturnRemainingOrdersWhenFindSliceByOwnerIdAfter(){
+    var ownerId = UUID.fromString("b869fce1-f221-45bc-9363-f3bec945ac12");
+    var lastOrder = orderRepository.findById(2L).orElseThrow();
+
+    var slice = orderRepository.findSliceByOwnerIdAfter(ownerId, lastOrder.getCreatedAt(),
+        lastOrder.getId(), PageRequest.ofSize(2));
+
+    assertEquals(1, slice.getNumberOfElements());
+    assertFalse(slice.hasNext());
+    assertEquals(1L, slice.getContent().get(0).getId());
+  }
+
+  @Test
+  @SqlMergeMode(SqlMergeMode.MergeMode.MERGE)
+  @Sql(statements = """
+      INSERT INTO orders(id, owner_id, status, service_id, comment, created_at, last_modified_at)
+      VALUES (10, 'b869fce1-f221-45bc-9363-f3bec945ac12', 1, 1,
+              'comment', '2020-06-01 00:00:00', '2020-06-01 00:00:00'),
+             (11, 'b869fce1-f221-45bc-9363-f3bec945ac12', 1, 1,
+              'comment', '2020-01-01 00:00:00', '2020-01-01 00:00:00')""")
+  void shouldSkipNewerOrdersWithLowerIdsWhenFindSliceByOwnerIdAfter(){
+    var ownerId = UUID.fromString("b869fce1-f221-45bc-9363-f3bec945ac12");
+
+    var slice = orderRepository.findSliceByOwnerIdAfter(ownerId,
+        Instant.parse("2020-06-01T00:00:00Z"), 10L, PageRequest.ofSize(10));
+
+    assertEquals(1, slice.getNumberOfElements());
+    assertFalse(slice.hasNext());
+    assertEquals(11L, slice.getContent().get(0).getId());
+  }
+
+  @Test
+  void shouldUpdateOnlyOrdersWithAllowedPredecessorWhenUpdateStatusByIdInAndStatusIn(){
+    // order 1 is CREATED, order 2 is CANCELED, order 3 is CONFIRMED
+    var updates = orderRepository.updateStatusByIdInAndStatusIn(List.of(1L, 2L, 3L, 4L),
+        OrderStatusNameConverter.toCode(OrderStatusName.CONFIRMED),
+        List.of(OrderStatusNameConverter.toCode(OrderStatusName.CREATED)));
+
+    assertEquals(3, updates.size());
+    var changedIds = updates.stream().filter(OrderStatusUpdate::getChanged)
+        .map(OrderStatusUpdate::getId).toList();
+    assertEquals(List.of(1L), changedIds);
+    assertEquals(OrderStatusName.CONFIRMED,
+        orderRepository.findById(1L).orElseThrow().getStatus());
+  }
+
+  @Test
+  void shouldReturnPreviousStatusAndOwnerWhenUpdateStatusByIdInAndStatusIn(){
+    var updates = orderRepository.updateStatusByIdInAndStatusIn(List.of(1L, 2L),
+            OrderStatusNameConverter.toCode(OrderStatusName.CONFIRMED),
+            List.of(OrderStatusNameConverter.toCode(OrderStatusName.CREATED))).stream()
+        .collect(Collectors.toMap(OrderStatusUpdate::getId, Function.identity()));
+
+    var ownerId = UUID.fromString("b869fce1-f221-45bc-9363-f3bec945ac12");
+    assertEquals(ownerId, updates.get(1L).getOwnerId());
+    assertEquals(OrderStatusNameConverter.toCode(OrderStatusName.CREATED),
+        updates.get(1L).getPreviousStatus());
+    assertEquals(ownerId, updates.get(2L).getOwnerId());
+    assertEquals(OrderStatusNameConverter.toCode(OrderStatusName.CANCELED),
+        updates.get(2L).getPreviousStatus());
+    assertFalse(updates.get(2L).getChanged());
+  }
+
+  @Test
+  void shouldUpdateStatusOnlyWhenOrderStillHasExpectedStatus(){
+    var createdStatus = OrderStatusName.CREATED;
+    var confirmedStatus = OrderStatusName.CONFIRMED;
+    var canceledStatus = OrderStatusName.CANCELED;
+    var createdAt = orderRepository.findById(1L).orElseThrow().getCreatedAt();
+
+    var firstUpdate = orderRepository.updateStatusByIdAndStatus(1L, createdAt, createdStatus,
+        confirmedStatus, Instant.now());
+    var secondUpdate = orderRepository.updateStatusByIdAndStatus(1L, createdAt, createdStatus,
+        canceledStatus, Instant.now());
+
+    assertEquals(1, firstUpdate);
+    assertEquals(0, secondUpdate);
+    assertEquals(OrderStatusName.CONFIRMED,
+        orderRepository.findById(1L).orElseThrow().getStatus());
+  }
+
+  @Test
+  @Sql(scripts = "classpath:sql/order_statuses.sql")
+  void shouldAssignConsecutiveIdsFromPooledSequenceWhenSavingAll() {
+    var orderStatus = OrderStatusName.CREATED;
+    var ownerId = UUID.randomUUID();
+
+    var ordersToSave = List.of(
+        new Order(null, ownerId, orderStatus, 1L, "First", null, null, false),
+        new Order(null, ownerId, orderStatus, 1L, "Second", null, null, false),
+        new Order(null, ownerId, orderStatus, 2L, "Third", null, null, false)
+    );
+
+    var savedOrders = orderRepository.saveAll(ordersToSave);
+
+    assertEquals(3, savedOrders.size());
+    assertNotNull(savedOrders.get(0).getId());
+    assertEquals(savedOrders.get(0).getId() + 1, savedOrders.get(1).getId());
+    assertEquals(savedOrders.get(0).getId() + 2, savedOrders.get(2).getId());
+    assertEquals(3, orderRepository.count());
+  }
 }
@@ -1,75 +1,101 @@
 package com.stepaniuk.order;
 
 
+import com.stepaniuk.order.client.EnrichmentExecutor;
 import com.stepaniuk.order.client.FeedbackClient;
-import com.stepaniuk.order.client.ServiceClient;
-import com.stepaniuk.order.status.OrderStatus;
-import com.stepaniuk.order.status.OrderStatusRepository;
+import com.stepaniuk.order.client.ServiceBatchLoader;
+import com.stepaniuk.order.client.ServiceIdIndex;
+import com.stepaniuk.order.idempotency.OrderIdempotencyStore;
+import com.stepaniuk.order.stats.OrderStatsService;
+import com.stepaniuk.order.status.OrderStatusNameConverter;
+import com.stepaniuk.order.stream.OrderStatusChangedEvent;
 import com.stepaniuk.zrobleno.payload.feedback.FeedbackResponse;
 import com.stepaniuk.zrobleno.payload.order.OrderCreateRequest;
 import com.stepaniuk.zrobleno.payload.order.OrderResponse;
 import com.stepaniuk.zrobleno.payload.order.OrderUpdateRequest;
 import com.stepaniuk.zrobleno.payload.service.ServiceResponse;
+import com.stepaniuk.zrobleno.types.exception.service.NoSuchServiceByIdException;
 import com.stepaniuk.zrobleno.testspecific.ServiceLevelUnitTest;
 import com.stepaniuk.zrobleno.types.exception.order.IllegalOrderStatusException;
+import com.stepaniuk.zrobleno.types.exception.order.InvalidOrderCursorException;
 import com.stepaniuk.zrobleno.types.exception.order.NoSuchOrderByIdException;
+import com.stepaniuk.zrobleno.types.exception.order.OrderBatchTooLargeException;
+import com.stepaniuk.zrobleno.types.exception.order.OrderStatusConflictException;
+import com.stepaniuk.zrobleno.types.order.OrderStatusChangeOutcome;
 import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.junit.jupiter.api.Test;
 import org.mockito.stubbing.Answer1;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.AdditionalAnswers.answer;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ServiceLevelUnitTest
-@ContextConfiguration(classes = {OrderService.class, OrderMapperImpl.class})
+@ContextConfiguration(classes = {OrderService.class, OrderStatusUpdater.class,
+    OrderMapperImpl.class, EnrichmentExecutor.class})
+@RecordApplicationEvents
 class OrderServiceTest {
 
   @Autowired
   private OrderService orderService;
 
+  @Autowired
+  private ApplicationEvents applicationEvents;
+
   @MockBean
   private OrderRepository orderRepository;
 
+
   @MockBean
-  private OrderStatusRepository orderStatusRepository;
+  private FeedbackClient feedbackClient;
 
+  @MockBean
+  private ServiceBatchLoader serviceBatchLoader;
 
   @MockBean
-  private FeedbackClient feedbackClient;
+  private ServiceIdIndex serviceIdIndex;
 
   @MockBean
-  private ServiceClient serviceClient;
+  private OrderStatsService orderStatsService;
+
+  @MockBean
+  private OrderIdempotencyStore orderIdempotencyStore;
 
   @Test
   void shouldReturnOrderResponseWhenCreateOrder() {
     // given
     var ownerId = UUID.randomUUID();
     var serviceId = 1L;
-    var orderStatus = new OrderStatus(1L, OrderStatusName.CREATED);
+    var orderStatus = OrderStatusName.CREATED;
     var comment = "Comment";
 
     var orderCreateRequest = new OrderCreateRequest(ownerId, serviceId, comment);
 
-    when(orderStatusRepository.findByName(OrderStatusName.CREATED)).thenReturn(
-        Optional.of(orderStatus));
     when(orderRepository.save(any())).thenAnswer(answer(getFakeSave(1L)));
-    when(serviceClient.getServiceById(serviceId)).thenReturn(new ServiceResponse(1L, 1L,ownerId,"Service", "desc",List.of(""), BigDecimal.valueOf(10), 2, Instant.now(), Instant.now()));
+    when(serviceBatchLoader.load(serviceId)).thenReturn(CompletableFuture.completedFuture(new ServiceResponse(1L, 1L,ownerId,"Service", "desc",List.of(""), BigDecimal.valueOf(10), 2, Instant.now(), Instant.now(), BigDecimal.ZERO, 0)));
 
 
     // when
@@ -79,10 +105,122 @@ class OrderServiceTest {
     assertNotNull(response);
     assertEquals(1L, response.getId());
     assertEquals(ownerId, response.getOwnerId());
-    assertEquals(orderStatus.getName(), response.getStatus());
+    assertEquals(orderStatus, response.getStatus());
     assertEquals(serviceId, response.getServiceId());
     assertEquals(comment, response.getComment());
     assertTrue(response.hasLinks());
+    verify(orderStatsService).recordCreated(ownerId, 1);
+    verifyNoInteractions(orderIdempotencyStore);
+  }
+
+  @Test
+  void shouldRecordIdempotencyKeyWhenCreatingOrderWithKey() {
+    // given
+    var ownerId = UUID.randomUUID();
+    var orderCreateRequest = new OrderCreateRequest(ownerId, 1L, "Comment");
+
+    when(orderRepository.save(any())).thenAnswer(answer(getFakeSave(7L)));
+    when(serviceIdIndex.contains(1L)).thenReturn(true);
+
+    // when
+    var response = orderService.createOrder(orderCreateRequest, "key-1");
+
+    // then
+    assertEquals(7L, response.getId());
+    verify(orderIdempotencyStore).claim(orderCreateRequest, "key-1", response);
+  }
+
+  @Test
+  void shouldNotCallServiceClientWhenServiceIdIsInLocalIndex() {
+    // given
+    var ownerId = UUID.randomUUID();
+    var serviceId = 1L;
+
+    var orderCreateRequest = new OrderCreateRequest(ownerId, serviceId, "Comment");
+
+    when(orderRepository.save(any())).thenAnswer(answer(getFakeSave(1L)));
+    when(serviceIdIndex.contains(serviceId)).thenReturn(true);
+
+    // when
+    var response = orderService.createOrder(orderCreateRequest);
+
+    // then
+    assertEquals(serviceId, response.getServiceId());
+    verifyNoInteractions(serviceBatchLoader);
+  }
+
+  @Test
+  void shouldValidateEachDistinctServiceOnceWhenCreatingOrders() {
+    // given
+    var ownerId = UUID.randomUUID();
+    var requests = List.of(
+        new OrderCreateRequest(ownerId, 1L, "First"),
+        new OrderCreateRequest(ownerId, 1L, "Second"),
+        new OrderCreateRequest(ownerId, 2L, "Third")
+    );
+
+    when(serviceBatchLoader.load(1L)).thenReturn(CompletableFuture.completedFuture(
+        new ServiceResponse(1L, 1L, ownerId, "Service", "desc", List.of(""),
+            BigDecimal.valueOf(10), 2, Instant.now(), Instant.now(), BigDecimal.ZERO, 0)));
+    when(serviceIdIndex.contains(2L)).thenReturn(true);
+    when(orderRepository.saveAll(any())).thenAnswer(invocation -> {
+      List<Order> orders = invocation.getArgument(0);
+      for (int i = 0; i < orders.size(); i++) {
+        orders.get(i).setId(i + 1L);
+      }
+      return orders;
+    });
+
+    // when
+    var responses = orderService.createOrders(requests);
+
+    // then
+    assertEquals(3, responses.size());
+    assertEquals(1L, responses.get(0).getId());
+    assertEquals("Second", responses.get(1).getComment());
+    assertEquals(2L, responses.get(2).getServiceId());
+    assertEquals(OrderStatusName.CREATED, responses.get(2).getStatus());
+    verify(serviceBatchLoader, times(1)).load(1L);
+    verify(serviceBatchLoader, never()).load(2L);
+    verify(orderRepository, times(1)).saveAll(any());
+    verify(orderStatsService).recordCreated(ownerId, 3L);
+  }
+
+  @Test
+  void shouldThrowNoSuchServiceByIdExceptionAndSaveNothingWhenCreatingOrdersForMissingService() {
+    // given
+    var ownerId = UUID.randomUUID();
+    var requests = List.of(
+        new OrderCreateRequest(ownerId, 1L, "First"),
+        new OrderCreateRequest(ownerId, 4L, "Second")
+    );
+
+    when(serviceIdIndex.contains(1L)).thenReturn(true);
+    when(serviceBatchLoader.load(4L)).thenReturn(CompletableFuture.completedFuture(null));
+
+    // when && then
+    assertThrows(NoSuchServiceByIdException.class, () -> orderService.createOrders(requests));
+    verify(orderRepository, never()).saveAll(any());
+  }
+
+  @Test
+  void shouldReturnEmptyListWhenCreatingNoOrders() {
+    assertTrue(orderService.createOrders(List.of()).isEmpty());
+    verifyNoInteractions(orderRepository, serviceBatchLoader);
+  }
+
+  @Test
+  void shouldThrowOrderBatchTooLargeExceptionWhenCreatingMoreThanMaxOrders() {
+    // given
+    var requests = Collections.nCopies(1001,
+        new OrderCreateRequest(UUID.randomUUID(), 1L, "Comment"));
+
+    // when && then
+    var exception = assertThrows(OrderBatchTooLargeException.class,
+        () -> orderService.createOrders(requests));
+    assertEquals(1001, exception.getSize());
+    assertEquals(1000, exception.getMaxSize());
+    verifyNoInteractions(orderRepository, serviceBatchLoader, orderStatsService);
   }
 
   @Test
@@ -105,7 +243,7 @@ class OrderServiceTest {
     assertNotNull(response);
     assertEquals(1L, response.getId());
     assertEquals(order.getOwnerId(), response.getOwnerId());
-    assertEquals(order.getStatus().getName(), response.getStatus());
+    assertEquals(order.getStatus(), response.getStatus());
     assertEquals(order.getServiceId(), response.getServiceId());
     assertEquals(feedback, response.getFeedback());
     assertEquals(order.getComment(), response.getComment());
@@ -114,6 +252,44 @@ class OrderServiceTest {
     assertTrue(response.hasLinks());
   }
 
+  @Test
+  void shouldReturnOrderResponseWithoutFeedbackWhenFeedbackServiceIsUnavailable() {
+    // given
+    var order = getNewOrderWithAllFields(1L, UUID.randomUUID(), "Comment");
+
+    when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+    when(feedbackClient.getAllFeedbacks(any(Pageable.class), any(), any())).thenThrow(
+        CallNotPermittedException.createCallNotPermittedException(
+            CircuitBreaker.ofDefaults("feedback-service")));
+
+    // when
+    var response = orderService.getOrder(1L);
+
+    // then
+    assertEquals(1L, response.getId());
+    assertNull(response.getFeedback());
+  }
+
+  @Test
+  void shouldReturnPageOfOrderResponsesWithoutFeedbackWhenFeedbackServiceFails() {
+    // given
+    var pageable = Pageable.ofSize(1);
+    var order = getNewOrderWithAllFields(1L, UUID.randomUUID(), "Comment");
+
+    when(orderRepository.findSlice(pageable)).thenReturn(
+        new SliceImpl<>(List.of(order), pageable, false));
+    when(orderRepository.count()).thenReturn(1L);
+    when(feedbackClient.getFeedbacksByOrderIds(List.of(1L))).thenThrow(
+        new IllegalStateException("Feedback service failed"));
+
+    // when
+    var pageOfResponses = orderService.getAllOrders(pageable, null);
+
+    // then
+    assertEquals(1, pageOfResponses.getNumberOfElements());
+    assertNull(pageOfResponses.getContent().get(0).getFeedback());
+  }
+
   @Test
   void shouldThrowNoSuchOrderByIdExceptionWhenGetByNonExistingId(){
     // given
@@ -137,15 +313,18 @@ class OrderServiceTest {
 
     //when
     when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-    when(orderStatusRepository.findByName(orderStatusName)).thenReturn(
-        Optional.of(new OrderStatus(2L, orderStatusName)));
     when(feedbackClient.getAllFeedbacks(any(Pageable.class),any(),eq(orderId))).thenReturn(
         new PageImpl<>(List.of(feedback)));
-    when(orderRepository.save(any())).thenAnswer(answer(getFakeSave(orderId)));
+    when(orderRepository.updateStatusByIdAndStatus(eq(orderId), eq(order.getCreatedAt()),
+        eq(OrderStatusName.CREATED), eq(orderStatusName), any(Instant.class))).thenReturn(1);
 
     OrderResponse orderResponse = orderService.updateOrder(orderId, orderUpdateRequest);
 
     //then
+    verify(orderRepository, never()).save(any());
+    verify(orderStatsService).recordStatusChange(ownerId, OrderStatusName.CREATED,
+        orderStatusName, 1);
+    assertEquals(1, applicationEvents.stream(OrderStatusChangedEvent.class).count());
     assertNotNull(orderResponse);
     assertEquals(order.getId(), orderResponse.getId());
     assertEquals(order.getOwnerId(), orderResponse.getOwnerId());
@@ -158,6 +337,27 @@ class OrderServiceTest {
     assertTrue(orderResponse.hasLinks());
   }
 
+  @Test
+  void shouldThrowOrderStatusConflictExceptionWhenStatusWasChangedConcurrentlyWhileUpdatingOrder() {
+    // given
+    var orderId = 2L;
+    var order = getNewOrderWithAllFields(orderId, UUID.randomUUID(), "Comment");
+    var orderUpdateRequest = new OrderUpdateRequest(OrderStatusName.CONFIRMED, null);
+
+    when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+    when(feedbackClient.getAllFeedbacks(any(Pageable.class),any(),eq(orderId))).thenReturn(
+        new PageImpl<>(List.of()));
+    when(orderRepository.updateStatusByIdAndStatus(eq(orderId), any(), any(), any(), any()))
+        .thenReturn(0);
+
+    // when && then
+    assertThrows(OrderStatusConflictException.class,
+        () -> orderService.updateOrder(orderId, orderUpdateRequest));
+    verify(orderRepository, never()).save(any());
+    verifyNoInteractions(orderStatsService);
+    assertEquals(0, applicationEvents.stream(OrderStatusChangedEvent.class).count());
+  }
+
   @Test
   void shouldChangeAndReturnOrderResponseWhenChangingOrderStatusFromCreatedToConfirmed(){
     // given
@@ -171,15 +371,22 @@ class OrderServiceTest {
     );
 
     when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-    when(orderStatusRepository.findByName(orderStatusName)).thenReturn(
-        Optional.of(new OrderStatus(2L, orderStatusName)));
     when(feedbackClient.getAllFeedbacks(any(Pageable.class),any(),eq(orderId))).thenReturn(
         new PageImpl<>(List.of(feedback)));
-    when(orderRepository.save(any())).thenAnswer(answer(getFakeSave(orderId)));
+    when(orderRepository.updateStatusByIdAndStatus(eq(orderId), eq(order.getCreatedAt()),
+        eq(order.getStatus()), eq(orderStatusName), any(Instant.class))).thenReturn(1);
 
     OrderResponse orderResponse = orderService.changeStatus(orderId, orderStatusName);
+    verify(orderRepository, never()).save(any());
+    verify(orderStatsService).recordStatusChange(ownerId, OrderStatusName.CREATED,
+        orderStatusName, 1);
 
     //then
+    var events = applicationEvents.stream(OrderStatusChangedEvent.class).toList();
+    assertEquals(1, events.size());
+    assertEquals(orderId, events.get(0).id());
+    assertEquals(ownerId, events.get(0).ownerId());
+    assertEquals(orderStatusName, events.get(0).status());
     assertNotNull(orderResponse);
     assertEquals(order.getId(), orderResponse.getId());
     assertEquals(order.getOwnerId(), orderResponse.getOwnerId());
@@ -192,6 +399,26 @@ class OrderServiceTest {
     assertTrue(orderResponse.hasLinks());
   }
 
+  @Test
+  void shouldThrowOrderStatusConflictExceptionWhenStatusWasChangedConcurrently() {
+    // given
+    var orderId = 2L;
+    var orderStatusName = OrderStatusName.CONFIRMED;
+    var order = getNewOrderWithAllFields(orderId, UUID.randomUUID(), "Comment");
+
+    when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+    when(feedbackClient.getAllFeedbacks(any(Pageable.class),any(),eq(orderId))).thenReturn(
+        new PageImpl<>(List.of()));
+    when(orderRepository.updateStatusByIdAndStatus(eq(orderId), any(), any(), any(), any()))
+        .thenReturn(0);
+
+    // when && then
+    assertThrows(OrderStatusConflictException.class,
+        () -> orderService.changeStatus(orderId, orderStatusName));
+    verifyNoInteractions(orderStatsService);
+    assertEquals(0, applicationEvents.stream(OrderStatusChangedEvent.class).count());
+  }
+
   @Test
   void shouldThrowNoSuchOrderByIdExceptionWhenChangingStatusOfNonExistingOrder() {
     var orderStatusName = OrderStatusName.IN_PROGRESS;
@@ -215,8 +442,6 @@ class OrderServiceTest {
     );
 
     when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-    when(orderStatusRepository.findByName(orderStatusName)).thenReturn(
-        Optional.of(new OrderStatus(2L, orderStatusName)));
     when(feedbackClient.getAllFeedbacks(any(Pageable.class),any(),eq(orderId))).thenReturn(
         new PageImpl<>(List.of(feedback)));
 
@@ -237,16 +462,19 @@ class OrderServiceTest {
     var feedback = new FeedbackResponse(
         1L, 1L, ownerId, 5, "comment", Instant.now(), Instant.now().plus(Duration.ofHours(15))
     );
-    Specification<Order> specification = Specification.where(null);
 
-    when(feedbackClient.getAllFeedbacks(any(Pageable.class),any(),any())).thenReturn(
-        new PageImpl<>(List.of(feedback)));
-    when(orderRepository.findAll(specification, pageable)).thenReturn(
-        new PageImpl<>(orders, pageable, orders.size()));
+    when(feedbackClient.getFeedbacksByOrderIds(List.of(order.getId()))).thenReturn(
+        List.of(feedback));
+    when(orderRepository.findSlice(pageable)).thenReturn(
+        new SliceImpl<>(orders, pageable, false));
+    when(orderRepository.count()).thenReturn((long) orders.size());
 
     var pageOfResponses = orderService.getAllOrders(pageable, null);
     var response = pageOfResponses.getContent().get(0);
 
+    verify(feedbackClient, times(1)).getFeedbacksByOrderIds(List.of(order.getId()));
+    verify(feedbackClient, never()).getAllFeedbacks(any(Pageable.class), any(), any());
+
     assertNotNull(pageOfResponses);
     assertEquals(1, pageOfResponses.getTotalElements());
     assertEquals(1, pageOfResponses.getTotalPages());
@@ -255,7 +483,7 @@ class OrderServiceTest {
     assertNotNull(response);
     assertEquals(order.getId(), response.getId());
     assertEquals(order.getOwnerId(), response.getOwnerId());
-    assertEquals(order.getStatus().getName(), response.getStatus());
+    assertEquals(order.getStatus(), response.getStatus());
     assertEquals(order.getServiceId(), response.getServiceId());
     assertEquals(feedback, response.getFeedback());
     assertEquals(order.getComment(), response.getComment());
@@ -277,12 +505,13 @@ class OrderServiceTest {
         1L, 1L, ownerId, 5, "comment", Instant.now(), Instant.now().plus(Duration.ofHours(15))
     );
 
-    when(feedbackClient.getAllFeedbacks(any(Pageable.class),any(),any())).thenReturn(
-        new PageImpl<>(List.of(feedback)));
-    when(orderRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(
-        new PageImpl<>(orders, pageable, orders.size()));
+    when(feedbackClient.getFeedbacksByOrderIds(List.of(order.getId()))).thenReturn(
+        List.of(feedback));
+    when(orderRepository.findSliceByOwnerId(ownerId, pageable)).thenReturn(
+        new SliceImpl<>(orders, pageable, false));
+    when(orderRepository.countByOwnerId(ownerId)).thenReturn((long) orders.size());
 
-    var pageOfResponses = orderService.getAllOrders(pageable, null);
+    var pageOfResponses = orderService.getAllOrders(pageable, ownerId);
     var response = pageOfResponses.getContent().get(0);
 
     assertNotNull(pageOfResponses);
@@ -293,7 +522,7 @@ class OrderServiceTest {
     assertNotNull(response);
     assertEquals(order.getId(), response.getId());
     assertEquals(order.getOwnerId(), response.getOwnerId());
-    assertEquals(order.getStatus().getName(), response.getStatus());
+    assertEquals(order.getStatus(), response.getStatus());
     assertEquals(order.getServiceId(), response.getServiceId());
     assertEquals(feedback, response.getFeedback());
     assertEquals(order.getComment(), response.getComment());
@@ -302,13 +531,173 @@ class OrderServiceTest {
     assertTrue(response.hasLinks());
   }
 
+  @Test
+  void shouldNotCallFeedbackClientWhenGettingAllOrdersAndPageIsEmpty() {
+    // given
+    var pageable = Pageable.ofSize(1);
+
+    when(orderRepository.findSlice(pageable)).thenReturn(
+        new SliceImpl<>(List.of(), pageable, false));
+
+    // when
+    var pageOfResponses = orderService.getAllOrders(pageable, null);
+
+    // then
+    assertNotNull(pageOfResponses);
+    assertTrue(pageOfResponses.isEmpty());
+    verifyNoInteractions(feedbackClient);
+  }
+
+  @Test
+  void shouldReturnSliceWithContinuationTokenWhenGettingAllOrdersByOwnerId() {
+    // given
+    var ownerId = UUID.randomUUID();
+    var firstOrder = getNewOrderWithAllFields(2L, ownerId, "Comment");
+    var secondOrder = getNewOrderWithAllFields(1L, ownerId, "Comment");
+    var pageable = PageRequest.ofSize(2);
+
+    when(orderRepository.findFirstSliceByOwnerId(ownerId, pageable)).thenReturn(
+        new SliceImpl<>(List.of(firstOrder, secondOrder), pageable, true));
+    when(feedbackClient.getFeedbacksByOrderIds(List.of(2L, 1L))).thenReturn(List.of());
+
+    // when
+    var sliceResponse = orderService.getAllOrders(ownerId, null, 2);
+
+    // then
+    assertNotNull(sliceResponse);
+    assertEquals(2, sliceResponse.getContent().size());
+    assertEquals(firstOrder.getId(), sliceResponse.getContent().get(0).getId());
+    assertEquals(secondOrder.getId(), sliceResponse.getContent().get(1).getId());
+    assertTrue(sliceResponse.getHasNext());
+    assertNotNull(sliceResponse.getNext());
+    verify(orderRepository, never()).countByOwnerId(any());
+  }
+
+  @Test
+  void shouldSeekAfterCursorWhenGettingAllOrdersByOwnerIdAndAfterIsNotNull() {
+    // given
+    var ownerId = UUID.randomUUID();
+    var lastOrder = getNewOrderWithAllFields(2L, ownerId, "Comment");
+    var nextOrder = getNewOrderWithAllFields(1L, ownerId, "Comment");
+    var pageable = PageRequest.ofSize(2);
+    var after = OrderCursor.of(lastOrder).encode();
+
+    when(orderRepository.findSliceByOwnerIdAfter(ownerId, lastOrder.getCreatedAt(),
+        lastOrder.getId(), pageable)).thenReturn(
+        new SliceImpl<>(List.of(nextOrder), pageable, false));
+    when(feedbackClient.getFeedbacksByOrderIds(List.of(1L))).thenReturn(List.of());
+
+    // when
+    var sliceResponse = orderService.getAllOrders(ownerId, after, 2);
+
+    // then
+    assertEquals(1, sliceResponse.getContent().size());
+    assertEquals(nextOrder.getId(), sliceResponse.getContent().get(0).getId());
+    assertFalse(sliceResponse.getHasNext());
+    assertNull(sliceResponse.getNext());
+  }
+
+  @Test
+  void shouldThrowInvalidOrderCursorExceptionWhenAfterCannotBeDecoded() {
+    // when && then
+    assertThrows(InvalidOrderCursorException.class,
+        () -> orderService.getAllOrders(UUID.randomUUID(), "not-a-cursor", 2));
+  }
+
+  @Test
+  void shouldReturnOutcomePerIdWhenChangingStatusesInBatch() {
+    // given
+    var ownerId = UUID.randomUUID();
+
+    when(orderRepository.updateStatusByIdInAndStatusIn(Set.of(1L, 2L, 3L), (short) 3,
+        List.of((short) 1))).thenReturn(List.of(
+        getStatusUpdate(1L, ownerId, OrderStatusName.CREATED, true),
+        getStatusUpdate(2L, ownerId, OrderStatusName.CANCELED, false)));
+
+    // when
+    var responses = orderService.changeStatuses(List.of(1L, 2L, 3L, 1L),
+        OrderStatusName.CONFIRMED);
+
+    // then
+    assertEquals(3, responses.size());
+    assertEquals(1L, responses.get(0).getId());
+    assertEquals(OrderStatusChangeOutcome.CHANGED, responses.get(0).getOutcome());
+    assertEquals(OrderStatusName.CONFIRMED, responses.get(0).getStatus());
+    assertEquals(2L, responses.get(1).getId());
+    assertEquals(OrderStatusChangeOutcome.ILLEGAL_STATUS, responses.get(1).getOutcome());
+    assertEquals(OrderStatusName.CANCELED, responses.get(1).getStatus());
+    assertEquals(3L, responses.get(2).getId());
+    assertEquals(OrderStatusChangeOutcome.NOT_FOUND, responses.get(2).getOutcome());
+    assertNull(responses.get(2).getStatus());
+    verify(orderRepository, never()).save(any());
+    verify(orderRepository, never()).findAllById(any());
+    verify(orderStatsService).recordStatusChange(ownerId, OrderStatusName.CREATED,
+        OrderStatusName.CONFIRMED, 1L);
+    assertEquals(List.of(1L), applicationEvents.stream(OrderStatusChangedEvent.class)
+        .map(OrderStatusChangedEvent::id).toList());
+  }
+
+  @Test
+  void shouldNotUpdateWhenChangingStatusesInBatchToStatusWithoutPredecessors() {
+    // given
+    var order = getNewOrderWithAllFields(1L, UUID.randomUUID(), "Comment");
+
+    when(orderRepository.findAllById(Set.of(1L))).thenReturn(List.of(order));
+
+    // when
+    var responses = orderService.changeStatuses(List.of(1L), OrderStatusName.CREATED);
+
+    // then
+    assertEquals(1, responses.size());
+    assertEquals(OrderStatusChangeOutcome.ILLEGAL_STATUS, responses.get(0).getOutcome());
+    verify(orderRepository, never()).updateStatusByIdInAndStatusIn(any(), any(), any());
+    verifyNoInteractions(orderStatsService);
+  }
+
+  @Test
+  void shouldThrowOrderBatchTooLargeExceptionWhenChangingStatusesOfMoreThanMaxOrders() {
+    // given
+    var ids = Collections.nCopies(1001, 1L);
+
+    // when && then
+    assertThrows(OrderBatchTooLargeException.class,
+        () -> orderService.changeStatuses(ids, OrderStatusName.CONFIRMED));
+    verifyNoInteractions(orderRepository, orderStatsService);
+  }
+
+  private static OrderStatusUpdate getStatusUpdate(Long id, UUID ownerId,
+      OrderStatusName previousStatus, boolean changed) {
+    return new OrderStatusUpdate() {
+      @Override
+      public Long getId() {
+        return id;
+      }
+
+      @Override
+      public UUID getOwnerId() {
+        return ownerId;
+      }
+
+      @Override
+      public Short getPreviousStatus() {
+        return OrderStatusNameConverter.toCode(previousStatus);
+      }
+
+      @Override
+      public Boolean getChanged() {
+        return changed;
+      }
+    };
+  }
+
   private static Order getNewOrderWithAllFields(Long id, UUID ownerId, String comment) {
     Instant timeOfCreation = Instant.now().plus(Duration.ofHours(10));
     Instant timeOfModification = Instant.now().plus(Duration.ofHours(20));
 
-    var orderStatus = new OrderStatus(1L, OrderStatusName.CREATED);
+    var orderStatus = OrderStatusName.CREATED;
 
-    return new Order(id, ownerId, orderStatus, 1L, comment, timeOfCreation, timeOfModification);
+    return new Order(id, ownerId, orderStatus, 1L, comment, timeOfCreation, timeOfModification,
+        false);
   }
 
   private Answer1<Order, Order> getFakeSave(long id) {
@@ -0,0 +1,78 @@
+package com.stepaniuk.order;
+
+
+import com.stepaniuk.order.stats.OrderStatsService;
+import com.stepaniuk.order.stats.OrderStatusCount;
+import com.stepaniuk.order.stats.OrderStatusCountId;
+import com.stepaniuk.order.stats.OrderStatusCountRepository;
+import com.stepaniuk.zrobleno.testspecific.ServiceLevelUnitTest;
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ServiceLevelUnitTest
+@ContextConfiguration(classes = {OrderStatsService.class})
+class OrderStatsServiceTest {
+
+  @Autowired
+  private OrderStatsService orderStatsService;
+
+  @MockBean
+  private OrderStatusCountRepository orderStatusCountRepository;
+
+  @Test
+  void shouldReturnCountForEveryStatusWhenGettingStats() {
+    // given
+    var ownerId = UUID.randomUUID();
+
+    when(orderStatusCountRepository.findAllByIdOwnerId(ownerId)).thenReturn(List.of(
+        new OrderStatusCount(new OrderStatusCountId(ownerId, OrderStatusName.CREATED), 4L),
+        new OrderStatusCount(new OrderStatusCountId(ownerId, OrderStatusName.COMPLETED), 2L)
+    ));
+
+    // when
+    var stats = orderStatsService.getStats(ownerId);
+
+    // then
+    assertEquals(ownerId, stats.getOwnerId());
+    assertEquals(OrderStatusName.values().length, stats.getCounts().size());
+    assertEquals(4L, stats.getCounts().get(OrderStatusName.CREATED));
+    assertEquals(2L, stats.getCounts().get(OrderStatusName.COMPLETED));
+    assertEquals(0L, stats.getCounts().get(OrderStatusName.CANCELED));
+    assertEquals(6L, stats.getTotal());
+  }
+
+  @Test
+  void shouldMoveCountFromPreviousToNewStatusWhenRecordingStatusChange() {
+    // given
+    var ownerId = UUID.randomUUID();
+
+    // when
+    orderStatsService.recordStatusChange(ownerId, OrderStatusName.CREATED,
+        OrderStatusName.CONFIRMED, 2);
+
+    // then
+    verify(orderStatusCountRepository).addToCount(ownerId, (short) 1, -2);
+    verify(orderStatusCountRepository).addToCount(ownerId, (short) 3, 2);
+  }
+
+  @Test
+  void shouldIncrementCreatedCountWhenRecordingCreated() {
+    // given
+    var ownerId = UUID.randomUUID();
+
+    // when
+    orderStatsService.recordCreated(ownerId, 3);
+
+    // then
+    verify(orderStatusCountRepository).addToCount(ownerId, (short) 1, 3);
+  }
+}
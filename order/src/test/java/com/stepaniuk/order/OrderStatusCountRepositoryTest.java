@@ -0,0 +1,52 @@
+package com.stepaniuk.order;
+
+
+import com.stepaniuk.order.stats.OrderStatusCount;
+import com.stepaniuk.order.stats.OrderStatusCountRepository;
+import com.stepaniuk.order.status.OrderStatusNameConverter;
+import com.stepaniuk.order.testspecific.JpaLevelTest;
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@JpaLevelTest
+class OrderStatusCountRepositoryTest {
+
+  @Autowired
+  private OrderStatusCountRepository orderStatusCountRepository;
+
+  @Test
+  void shouldInsertThenAccumulateCountWhenAddingToCount() {
+    // given
+    var ownerId = UUID.randomUUID();
+    var created = OrderStatusNameConverter.toCode(OrderStatusName.CREATED);
+    var confirmed = OrderStatusNameConverter.toCode(OrderStatusName.CONFIRMED);
+
+    // when
+    orderStatusCountRepository.addToCount(ownerId, created, 3);
+    orderStatusCountRepository.addToCount(ownerId, created, -1);
+    orderStatusCountRepository.addToCount(ownerId, confirmed, 1);
+    orderStatusCountRepository.addToCount(UUID.randomUUID(), created, 5);
+
+    // then
+    var counts = orderStatusCountRepository.findAllByIdOwnerId(ownerId).stream()
+        .sorted(Comparator.comparing(count -> count.getId().getStatus()))
+        .toList();
+
+    assertEquals(2, counts.size());
+    assertEquals(OrderStatusName.CREATED, counts.get(0).getId().getStatus());
+    assertEquals(2L, counts.get(0).getCount());
+    assertEquals(OrderStatusName.CONFIRMED, counts.get(1).getId().getStatus());
+    assertEquals(1L, counts.get(1).getCount());
+  }
+
+  @Test
+  void shouldReturnEmptyListWhenOwnerHasNoOrders() {
+    assertTrue(orderStatusCountRepository.findAllByIdOwnerId(UUID.randomUUID()).isEmpty());
+  }
+}
@@ -0,0 +1,103 @@
+package com.stepaniuk.order;
+
+
+import com.stepaniuk.order.stream.OrderStatusChangedEvent;
+import com.stepaniuk.order.stream.OrderStatusEventBuffer;
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStatusEventBufferTest {
+
+  private static final UUID OWNER_ID = UUID.randomUUID();
+
+  private final OrderStatusEventBuffer buffer = new OrderStatusEventBuffer(2);
+
+  @Test
+  void shouldAskToDrainOnlyForFirstEventOfDrain() {
+    assertTrue(buffer.offer(getEvent(1L, OrderStatusName.CONFIRMED)));
+    assertFalse(buffer.offer(getEvent(2L, OrderStatusName.CONFIRMED)));
+  }
+
+  @Test
+  void shouldNotStartDrainForHeartbeatWhileDrainIsInProgress() {
+    // given
+    buffer.offer(getEvent(1L, OrderStatusName.CONFIRMED));
+
+    // when && then
+    assertFalse(buffer.tryStartDrain());
+  }
+
+  @Test
+  void shouldDeliverEventOfferedDuringHeartbeatDrain() {
+    // given
+    assertTrue(buffer.tryStartDrain());
+
+    // when
+    var startsDrain = buffer.offer(getEvent(1L, OrderStatusName.CONFIRMED));
+    var batch = buffer.poll();
+
+    // then
+    assertFalse(startsDrain);
+    assertNotNull(batch);
+    assertEquals(1, batch.events().size());
+    assertNull(buffer.poll());
+    assertTrue(buffer.tryStartDrain());
+  }
+
+  @Test
+  void shouldKeepOnlyLatestStatusOfEachOrder() {
+    // given
+    buffer.offer(getEvent(1L, OrderStatusName.CONFIRMED));
+    buffer.offer(getEvent(2L, OrderStatusName.CANCELED));
+    buffer.offer(getEvent(1L, OrderStatusName.IN_PROGRESS));
+
+    // when
+    var batch = buffer.poll();
+
+    // then
+    assertNotNull(batch);
+    assertFalse(batch.overflowed());
+    assertEquals(List.of(2L, 1L), batch.events().stream().map(OrderStatusChangedEvent::id).toList());
+    assertEquals(OrderStatusName.IN_PROGRESS, batch.events().get(1).status());
+  }
+
+  @Test
+  void shouldDropEldestOrderAndReportOverflowWhenFull() {
+    // given
+    buffer.offer(getEvent(1L, OrderStatusName.CONFIRMED));
+    buffer.offer(getEvent(2L, OrderStatusName.CONFIRMED));
+    buffer.offer(getEvent(3L, OrderStatusName.CONFIRMED));
+
+    // when
+    var batch = buffer.poll();
+
+    // then
+    assertNotNull(batch);
+    assertTrue(batch.overflowed());
+    assertEquals(List.of(2L, 3L), batch.events().stream().map(OrderStatusChangedEvent::id).toList());
+  }
+
+  @Test
+  void shouldEndDrainWhenNothingIsPending() {
+    // given
+    buffer.offer(getEvent(1L, OrderStatusName.CONFIRMED));
+    buffer.poll();
+
+    // when
+    var batch = buffer.poll();
+
+    // then
+    assertNull(batch);
+    assertTrue(buffer.offer(getEvent(2L, OrderStatusName.CONFIRMED)));
+  }
+
+  private static OrderStatusChangedEvent getEvent(Long id, OrderStatusName status) {
+    return new OrderStatusChangedEvent(id, OWNER_ID, status, Instant.now());
+  }
+}
@@ -0,0 +1,36 @@
+package com.stepaniuk.order;
+
+
+import com.stepaniuk.order.status.OrderStatusNameConverter;
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStatusNameConverterTest {
+
+  private final OrderStatusNameConverter converter = new OrderStatusNameConverter();
+
+  @Test
+  void shouldKeepCodesOfSeededOrderStatuses() {
+    assertEquals((short) 1, converter.convertToDatabaseColumn(OrderStatusName.CREATED));
+    assertEquals((short) 2, converter.convertToDatabaseColumn(OrderStatusName.CANCELED));
+    assertEquals((short) 3, converter.convertToDatabaseColumn(OrderStatusName.CONFIRMED));
+    assertEquals((short) 4, converter.convertToDatabaseColumn(OrderStatusName.IN_PROGRESS));
+    assertEquals((short) 5, converter.convertToDatabaseColumn(OrderStatusName.COMPLETED));
+  }
+
+  @Test
+  void shouldConvertEveryStatusBackFromItsCode() {
+    for (var status : OrderStatusName.values()) {
+      assertEquals(status,
+          converter.convertToEntityAttribute(converter.convertToDatabaseColumn(status)));
+    }
+  }
+
+  @Test
+  void shouldThrowIllegalArgumentExceptionWhenCodeIsUnknown() {
+    assertThrows(IllegalArgumentException.class,
+        () -> converter.convertToEntityAttribute((short) 0));
+  }
+}
@@ -0,0 +1,112 @@
+package com.stepaniuk.order;
+
+
+import com.stepaniuk.order.stream.OrderStatusChangedEvent;
+import com.stepaniuk.order.stream.OrderStatusStreamHub;
+import com.stepaniuk.zrobleno.types.order.OrderStatusName;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStatusStreamHubTest {
+
+  private final OrderStatusStreamHub orderStatusStreamHub = new OrderStatusStreamHub(60000, 4, 1, 4,
+      10000);
+
+  @AfterEach
+  void tearDown() {
+    orderStatusStreamHub.destroy();
+  }
+
+  @Test
+  void shouldCountSubscribersPerOwner() {
+    // given
+    var ownerId = UUID.randomUUID();
+
+    // when
+    orderStatusStreamHub.subscribe(ownerId);
+    orderStatusStreamHub.subscribe(ownerId);
+    orderStatusStreamHub.subscribe(UUID.randomUUID());
+
+    // then
+    assertEquals(2, orderStatusStreamHub.getSubscriberCount(ownerId));
+  }
+
+  @Test
+  void shouldIgnoreEventOfOwnerWithoutSubscribers() {
+    assertDoesNotThrow(() -> orderStatusStreamHub.onStatusChanged(
+        new OrderStatusChangedEvent(1L, UUID.randomUUID(), OrderStatusName.CONFIRMED,
+            Instant.now())));
+  }
+
+  @Test
+  void shouldDropSubscriberWhoseStreamIsClosed() throws InterruptedException {
+    // given
+    var ownerId = UUID.randomUUID();
+    var emitter = orderStatusStreamHub.subscribe(ownerId);
+    emitter.complete();
+
+    // when
+    orderStatusStreamHub.onStatusChanged(
+        new OrderStatusChangedEvent(1L, ownerId, OrderStatusName.CONFIRMED, Instant.now()));
+
+    // then
+    for (int i = 0; i < 100 && orderStatusStreamHub.getSubscriberCount(ownerId) > 0; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, orderStatusStreamHub.getSubscriberCount(ownerId));
+  }
+
+  @Test
+  void shouldKeepSubscribersWhenSendingHeartbeats() throws InterruptedException {
+    // given
+    var ownerId = UUID.randomUUID();
+    orderStatusStreamHub.subscribe(ownerId);
+    orderStatusStreamHub.subscribe(ownerId);
+
+    // when
+    orderStatusStreamHub.sendHeartbeats();
+    orderStatusStreamHub.sendHeartbeats();
+    Thread.sleep(100);
+    orderStatusStreamHub.dropStalledSubscribers();
+
+    // then
+    assertEquals(2, orderStatusStreamHub.getSubscriberCount(ownerId));
+  }
+
+  @Test
+  void shouldDropSubscriberWhoseStreamIsClosedWhenSendingHeartbeats()
+      throws InterruptedException {
+    // given
+    var ownerId = UUID.randomUUID();
+    orderStatusStreamHub.subscribe(ownerId).complete();
+
+    // when
+    orderStatusStreamHub.sendHeartbeats();
+
+    // then
+    for (int i = 0; i < 100 && orderStatusStreamHub.getSubscriberCount(ownerId) > 0; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, orderStatusStreamHub.getSubscriberCount(ownerId));
+  }
+
+  @Test
+  void shouldDropSubscriberWhenSenderRejectsDrain() {
+    // given
+    var ownerId = UUID.randomUUID();
+    orderStatusStreamHub.destroy();
+    orderStatusStreamHub.subscribe(ownerId);
+
+    // when
+    orderStatusStreamHub.onStatusChanged(
+        new OrderStatusChangedEvent(1L, ownerId, OrderStatusName.CONFIRMED, Instant.now()));
+
+    // then
+    assertEquals(0, orderStatusStreamHub.getSubscriberCount(ownerId));
+  }
+}
@@ -0,0 +1,138 @@
+package com.stepaniuk.order;
+
+
+import com.stepaniuk.order.client.ServiceBatchLoader;
+import com.stepaniuk.order.client.ServiceClient;
+import com.stepaniuk.zrobleno.payload.service.ServiceResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ServiceBatchLoaderTest {
+
+  private final ServiceClient serviceClient = mock(ServiceClient.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private ServiceBatchLoader serviceBatchLoader;
+
+  @AfterEach
+  void tearDown() {
+    serviceBatchLoader.destroy();
+  }
+
+  @Test
+  void shouldLoadIdsRequestedWithinWindowInOneCall() {
+    // given
+    serviceBatchLoader = new ServiceBatchLoader(serviceClient, meterRegistry, 100, 50, 2);
+    when(serviceClient.getAllServices(PageRequest.of(0, 2), List.of(1L, 2L)))
+        .thenReturn(new PageImpl<>(List.of(getService(1L), getService(2L))));
+
+    // when
+    var first = serviceBatchLoader.load(1L);
+    var second = serviceBatchLoader.load(2L);
+
+    // then
+    assertEquals(1L, first.join().getId());
+    assertEquals(2L, second.join().getId());
+    verify(serviceClient, times(1)).getAllServices(any(), any());
+    assertEquals(1, meterRegistry.get("service.lookup.batch.size").summary().count());
+    assertEquals(2, meterRegistry.get("service.lookup.batch.wait").timer().count());
+  }
+
+  @Test
+  void shouldShareInFlightLookupOfSameId() {
+    // given
+    serviceBatchLoader = new ServiceBatchLoader(serviceClient, meterRegistry, 100, 50, 2);
+    when(serviceClient.getAllServices(PageRequest.of(0, 1), List.of(1L)))
+        .thenReturn(new PageImpl<>(List.of(getService(1L))));
+
+    // when
+    var first = serviceBatchLoader.load(1L);
+    var second = serviceBatchLoader.load(1L);
+
+    // then
+    assertSame(first, second);
+    assertEquals(1L, second.join().getId());
+    verify(serviceClient, times(1)).getAllServices(PageRequest.of(0, 1), List.of(1L));
+    assertEquals(1.0, meterRegistry.get("service.lookup.coalesced").counter().count());
+  }
+
+  @Test
+  void shouldSendBatchWithoutWaitingWhenMaxBatchSizeIsReached() {
+    // given
+    serviceBatchLoader = new ServiceBatchLoader(serviceClient, meterRegistry, 2, 60_000, 2);
+    when(serviceClient.getAllServices(PageRequest.of(0, 2), List.of(1L, 2L)))
+        .thenReturn(new PageImpl<>(List.of(getService(1L), getService(2L))));
+
+    // when
+    serviceBatchLoader.load(1L);
+    var second = serviceBatchLoader.load(2L);
+
+    // then
+    assertEquals(2L, second.orTimeout(5, TimeUnit.SECONDS).join().getId());
+  }
+
+  @Test
+  void shouldCompleteWithNullWhenServiceDoesNotExist() {
+    // given
+    serviceBatchLoader = new ServiceBatchLoader(serviceClient, meterRegistry, 100, 1, 2);
+    when(serviceClient.getAllServices(any(), any())).thenReturn(new PageImpl<>(List.of()));
+
+    // when
+    var service = serviceBatchLoader.load(4L);
+
+    // then
+    assertNull(service.join());
+  }
+
+  @Test
+  void shouldFailEveryLookupOfBatchWhenCallFails() {
+    // given
+    serviceBatchLoader = new ServiceBatchLoader(serviceClient, meterRegistry, 100, 50, 2);
+    when(serviceClient.getAllServices(any(), any()))
+        .thenThrow(new IllegalStateException("unavailable"));
+
+    // when
+    var first = serviceBatchLoader.load(1L);
+    var second = serviceBatchLoader.load(2L);
+
+    // then
+    var exception = assertThrows(CompletionException.class, first::join);
+    assertInstanceOf(IllegalStateException.class, exception.getCause());
+    assertThrows(CompletionException.class, second::join);
+  }
+
+  @Test
+  void shouldLoadIdAgainAfterPreviousLookupCompleted() {
+    // given
+    serviceBatchLoader = new ServiceBatchLoader(serviceClient, meterRegistry, 100, 1, 2);
+    when(serviceClient.getAllServices(PageRequest.of(0, 1), List.of(1L)))
+        .thenReturn(new PageImpl<>(List.of(getService(1L))));
+    serviceBatchLoader.load(1L).join();
+
+    // when
+    var service = serviceBatchLoader.load(1L).join();
+
+    // then
+    assertEquals(1L, service.getId());
+    verify(serviceClient, times(2)).getAllServices(PageRequest.of(0, 1), List.of(1L));
+  }
+
+  private static ServiceResponse getService(Long id) {
+    return new ServiceResponse(id, 1L, UUID.randomUUID(), "Service", "desc", List.of(""),
+        BigDecimal.valueOf(10), 2, Instant.now(), Instant.now(), BigDecimal.ZERO, 0);
+  }
+}
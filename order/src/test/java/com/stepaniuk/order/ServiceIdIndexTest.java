@@ -0,0 +1,99 @@
+package com.stepaniuk.order;
+
+
+import com.stepaniuk.order.client.ServiceClient;
+import com.stepaniuk.order.client.ServiceIdIndex;
+import com.stepaniuk.zrobleno.payload.service.ServiceChangeResponse;
+import com.stepaniuk.zrobleno.payload.service.ServiceChangesResponse;
+import com.stepaniuk.zrobleno.payload.service.ServiceIdsResponse;
+import com.stepaniuk.zrobleno.types.service.ServiceChangeType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ServiceIdIndexTest {
+
+  private final ServiceClient serviceClient = mock(ServiceClient.class);
+  private final ServiceIdIndex serviceIdIndex = new ServiceIdIndex(serviceClient, 2);
+
+  @Test
+  void shouldReportEveryIdAsUnknownBeforeSnapshotIsLoaded() {
+    assertFalse(serviceIdIndex.isReady());
+    assertFalse(serviceIdIndex.contains(1L));
+  }
+
+  @Test
+  void shouldContainIdsOfLoadedSnapshot() {
+    // given
+    when(serviceClient.getServiceIds()).thenReturn(new ServiceIdsResponse(List.of(1L, 3L), 0L,
+        100L));
+
+    // when
+    serviceIdIndex.resync();
+
+    // then
+    assertTrue(serviceIdIndex.isReady());
+    assertTrue(serviceIdIndex.contains(1L));
+    assertFalse(serviceIdIndex.contains(2L));
+    assertTrue(serviceIdIndex.contains(3L));
+  }
+
+  @Test
+  void shouldApplyChangesAfterPositionOfSnapshot() {
+    // given
+    var now = Instant.now();
+    when(serviceClient.getServiceIds()).thenReturn(new ServiceIdsResponse(List.of(1L, 3L), 0L,
+        100L));
+    when(serviceClient.getServiceChanges(100L, 0L, 2)).thenReturn(new ServiceChangesResponse(
+        List.of(
+            new ServiceChangeResponse(6L, 4L, ServiceChangeType.CREATED, now),
+            new ServiceChangeResponse(7L, 1L, ServiceChangeType.DELETED, now)
+        ), 7L, 101L));
+    when(serviceClient.getServiceChanges(101L, 7L, 2)).thenReturn(new ServiceChangesResponse(
+        List.of(
+            new ServiceChangeResponse(8L, 3L, ServiceChangeType.UPDATED, now)
+        ), 8L, 102L));
+    serviceIdIndex.resync();
+
+    // when
+    serviceIdIndex.poll();
+
+    // then
+    assertFalse(serviceIdIndex.contains(1L));
+    assertTrue(serviceIdIndex.contains(3L));
+    assertTrue(serviceIdIndex.contains(4L));
+    verify(serviceClient).getServiceChanges(101L, 7L, 2);
+  }
+
+  @Test
+  void shouldKeepPreviousIdsWhenPollingFails() {
+    // given
+    when(serviceClient.getServiceIds()).thenReturn(new ServiceIdsResponse(List.of(1L), 0L, 100L));
+    when(serviceClient.getServiceChanges(100L, 0L, 2)).thenThrow(new IllegalStateException());
+    serviceIdIndex.resync();
+
+    // when
+    serviceIdIndex.poll();
+
+    // then
+    assertTrue(serviceIdIndex.isReady());
+    assertTrue(serviceIdIndex.contains(1L));
+  }
+
+  @Test
+  void shouldStayNotReadyWhenSnapshotCannotBeLoaded() {
+    // given
+    when(serviceClient.getServiceIds()).thenThrow(new IllegalStateException());
+
+    // when
+    serviceIdIndex.poll();
+
+    // then
+    assertFalse(serviceIdIndex.isReady());
+    assertFalse(serviceIdIndex.contains(1L));
+  }
+}
@@ -1,4 +1,4 @@
-INSERT INTO orders(id, owner_id, status_id, service_id, comment, created_at, last_modified_at)
+INSERT INTO orders(id, owner_id, status, service_id, comment, created_at, last_modified_at)
 VALUES (1, 'b869fce1-f221-45bc-9363-f3bec945ac12', 1, 1,
         'comment','2021-01-01 00:00:00', '2021-01-01 00:00:00'),
        (2, 'b869fce1-f221-45bc-9363-f3bec945ac12', 2, 3,
@@ -0,0 +1,40 @@
+package com.stepaniuk.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+  public static final String SERVICES_CACHE = "services";
+
+  /**
+   * Caches are declared up front so that their statistics are bound to Micrometer at startup, and
+   * evictions are deferred until the surrounding transaction commits, so a concurrent read cannot
+   * put the pre-commit row back into the cache.
+   */
+  @Bean
+  public CacheManager cacheManager(
+      @Value("${application.config.service-cache.max-size:10000}") long maxSize,
+      @Value("${application.config.service-cache.ttl-seconds:300}") long ttlSeconds) {
+    var cacheManager = new CaffeineCacheManager();
+    cacheManager.setCaffeine(Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .recordStats());
+    cacheManager.setCacheNames(List.of(SERVICES_CACHE));
+    cacheManager.setAllowNullValues(false);
+
+    return new TransactionAwareCacheManagerProxy(cacheManager);
+  }
+}
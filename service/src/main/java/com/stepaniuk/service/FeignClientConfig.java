@@ -0,0 +1,11 @@
+package com.stepaniuk.service;
+
+
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Configuration;
+
+@EnableFeignClients
+@Configuration
+public class FeignClientConfig {
+
+}
@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.Type;
 import org.hibernate.proxy.HibernateProxy;
 import org.springframework.data.annotation.CreatedDate;
@@ -24,7 +25,15 @@ import java.util.UUID;
 @RequiredArgsConstructor
 @Entity
 @EntityListeners(AuditingEntityListener.class)
-@Table(name = "services")
+@Table(name = "services", indexes = {
+    @Index(name = "services_category_id_priority_id_idx", columnList = "category_id, priority, id"),
+    @Index(name = "services_category_id_price_id_idx", columnList = "category_id, price, id"),
+    @Index(name = "services_priority_id_idx", columnList = "priority, id"),
+    @Index(name = "services_price_id_idx", columnList = "price, id"),
+    @Index(name = "services_category_id_avg_rating_id_idx",
+        columnList = "category_id, avg_rating, id"),
+    @Index(name = "services_avg_rating_id_idx", columnList = "avg_rating, id")
+})
 public class Service {
 
   @Id
@@ -63,6 +72,23 @@ public class Service {
   @LastModifiedDate
   private Instant lastModifiedAt;
 
+  /**
+   * Rating aggregates are only changed by {@link ServiceRepository#addRatings}, from feedback
+   * rating changes, never by updates of the service itself.
+   */
+  @ColumnDefault("0")
+  @Column(name = "rating_sum", nullable = false, insertable = false, updatable = false)
+  private Long ratingSum = 0L;
+
+  @ColumnDefault("0")
+  @Column(name = "rating_count", nullable = false, insertable = false, updatable = false)
+  private Integer ratingCount = 0;
+
+  @ColumnDefault("0")
+  @Column(name = "avg_rating", nullable = false, precision = 3, scale = 2, insertable = false,
+      updatable = false)
+  private BigDecimal avgRating = BigDecimal.ZERO;
+
   @Override
   public final boolean equals(Object o) {
     if (this == o) {
@@ -102,6 +128,9 @@ public class Service {
         "price = " + price + ", " +
         "priority = " + priority + ", " +
         "createdAt = " + createdAt + ", " +
-        "lastModifiedAt = " + lastModifiedAt + ")";
+        "lastModifiedAt = " + lastModifiedAt + ", " +
+        "ratingSum = " + ratingSum + ", " +
+        "ratingCount = " + ratingCount + ", " +
+        "avgRating = " + avgRating + ")";
   }
 }
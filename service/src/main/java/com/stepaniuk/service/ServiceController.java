@@ -2,8 +2,13 @@ package com.stepaniuk.service;
 
 
 
+import com.stepaniuk.zrobleno.payload.service.ServiceChangesResponse;
 import com.stepaniuk.zrobleno.payload.service.ServiceCreateRequest;
+import com.stepaniuk.zrobleno.payload.service.ServiceIdsResponse;
 import com.stepaniuk.zrobleno.payload.service.ServiceResponse;
+import com.stepaniuk.zrobleno.payload.service.ServiceSearchResponse;
+import com.stepaniuk.zrobleno.payload.service.ServiceSuggestionResponse;
+import com.stepaniuk.zrobleno.payload.service.ServiceSummaryResponse;
 import com.stepaniuk.zrobleno.payload.service.ServiceUpdateRequest;
 import com.stepaniuk.zrobleno.payload.service.category.ServiceCategoryResponse;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -49,16 +55,53 @@ public class ServiceController {
   @GetMapping("/v1")
   public ResponseEntity<Page<ServiceResponse>> getAllServices(Pageable pageable,
       @Nullable @RequestParam(required = false) Long categoryId) {
-    return ResponseEntity.ok(service.getAllServices(pageable, categoryId, null));
+    return ResponseEntity.ok(service.getAllServices(pageable, categoryId, null, null, null));
   }
 
   @GetMapping("/v2")
   public ResponseEntity<Page<ServiceResponse>> getAllServices(Pageable pageable,
       @Nullable @RequestParam(required = false) Long categoryId,
-      @Nullable @RequestParam(required = false) List<Long> serviceIds) {
-    return ResponseEntity.ok(service.getAllServices(pageable, categoryId, serviceIds));
+      @Nullable @RequestParam(required = false) List<Long> serviceIds,
+      @Nullable @RequestParam(required = false) BigDecimal minPrice,
+      @Nullable @RequestParam(required = false) BigDecimal maxPrice) {
+    return ResponseEntity.ok(
+        service.getAllServices(pageable, categoryId, serviceIds, minPrice, maxPrice));
   }
 
+  @GetMapping(value = "/v2", params = "view=summary")
+  public ResponseEntity<Page<ServiceSummaryResponse>> getAllServiceSummaries(Pageable pageable,
+      @Nullable @RequestParam(required = false) Long categoryId,
+      @Nullable @RequestParam(required = false) List<Long> serviceIds,
+      @Nullable @RequestParam(required = false) BigDecimal minPrice,
+      @Nullable @RequestParam(required = false) BigDecimal maxPrice) {
+    return ResponseEntity.ok(
+        service.getAllServiceSummaries(pageable, categoryId, serviceIds, minPrice, maxPrice));
+  }
+
+  @GetMapping("/search")
+  public ResponseEntity<Page<ServiceSearchResponse>> searchServices(@RequestParam String q,
+      Pageable pageable) {
+    return ResponseEntity.ok(service.searchServices(q, pageable));
+  }
+
+  @GetMapping("/suggest")
+  public ResponseEntity<List<ServiceSuggestionResponse>> suggestServiceTitles(
+      @RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+    return ResponseEntity.ok(service.suggestServiceTitles(prefix, limit));
+  }
+
+  @GetMapping("/ids")
+  public ResponseEntity<ServiceIdsResponse> getServiceIds() {
+    return ResponseEntity.ok(service.getServiceIds());
+  }
+
+  @GetMapping("/changes")
+  public ResponseEntity<ServiceChangesResponse> getServiceChanges(
+      @RequestParam(defaultValue = "0") Long afterTransactionId,
+      @RequestParam(defaultValue = "0") Long after,
+      @RequestParam(defaultValue = "1000") int limit) {
+    return ResponseEntity.ok(service.getServiceChanges(afterTransactionId, after, limit));
+  }
 
   @GetMapping("/categories/{id}")
   public ResponseEntity<ServiceCategoryResponse> getCategoryById(@PathVariable Long id) {
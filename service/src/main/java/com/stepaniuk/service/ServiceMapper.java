@@ -3,6 +3,7 @@ package com.stepaniuk.service;
 
 
 import com.stepaniuk.zrobleno.payload.service.ServiceResponse;
+import com.stepaniuk.zrobleno.payload.service.ServiceSummaryResponse;
 import org.mapstruct.*;
 import org.springframework.hateoas.Link;
 
@@ -17,4 +18,15 @@ public interface ServiceMapper {
     response.add(Link.of("/services/" + service.getId()).withSelfRel());
     return response;
   }
+
+  @BeanMapping(qualifiedByName = "addSummaryLinks")
+  ServiceSummaryResponse toSummaryResponse(ServiceSummary summary);
+
+  @AfterMapping
+  @Named("addSummaryLinks")
+  default ServiceSummaryResponse addLinks(ServiceSummary summary,
+      @MappingTarget ServiceSummaryResponse response) {
+    response.add(Link.of("/services/" + summary.id()).withSelfRel());
+    return response;
+  }
 }
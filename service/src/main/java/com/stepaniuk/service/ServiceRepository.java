@@ -1,11 +1,77 @@
 package com.stepaniuk.service;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ServiceRepository extends JpaRepository<Service, Long>,
-    JpaSpecificationExecutor<Service> {
+    JpaSpecificationExecutor<Service>, ServiceSummaryRepository {
+
+  @Query("select s.id from Service s order by s.id")
+  List<Long> findAllIds();
+
+  @Query("select s.id as id, s.title as title, s.priority as priority from Service s")
+  List<ServiceTitle> findAllTitles();
+
+  @Query("""
+      select s.id as id, s.title as title, s.priority as priority
+      from Service s
+      where s.id in :ids""")
+  List<ServiceTitle> findAllTitlesByIdIn(@Param("ids") Collection<Long> ids);
+
+  /**
+   * Titles containing a word similar to {@code text}, most similar first. Served by the
+   * {@code pg_trgm} GIN index on {@code title}.
+   */
+  @Query(value = """
+      select s.id as id, s.title as title, s.priority as priority
+      from services s
+      where :text <% s.title
+      order by word_similarity(:text, s.title) desc, s.priority desc, s.id
+      limit :limit""", nativeQuery = true)
+  List<ServiceTitle> findSimilarTitles(@Param("text") String text, @Param("limit") int limit);
+
+  /**
+   * Matches {@code query}, in web search syntax, against the generated {@code search_vector}
+   * column, which is covered by a GIN index, and returns ids ordered by rank. The pageable must
+   * not be sorted.
+   */
+  @Query(value = """
+      select s.id as id, ts_rank_cd(s.search_vector, q) as rank
+      from services s, websearch_to_tsquery('simple', :query) q
+      where s.search_vector @@ q
+      order by rank desc, s.id""",
+      countQuery = """
+          select count(*)
+          from services s
+          where s.search_vector @@ websearch_to_tsquery('simple', :query)""",
+      nativeQuery = true)
+  Page<ServiceSearchHit> search(@Param("query") String query, Pageable pageable);
 
-}
\ No newline at end of file
+  /**
+   * Adds rating deltas to the aggregates of a service and recomputes its average from them, in
+   * one statement, so concurrent updates cannot lose a delta. Returns 0 when the service is gone.
+   */
+  @Modifying
+  @Query(value = """
+      update services
+      set rating_sum = rating_sum + :ratingDelta,
+          rating_count = rating_count + :countDelta,
+          avg_rating = case
+              when rating_count + :countDelta > 0
+                  then round(cast(rating_sum + :ratingDelta as numeric)
+                      / (rating_count + :countDelta), 2)
+              else 0 end
+      where id = :id""", nativeQuery = true)
+  int addRatings(@Param("id") Long id, @Param("ratingDelta") long ratingDelta,
+      @Param("countDelta") int countDelta);
+}
@@ -0,0 +1,11 @@
+package com.stepaniuk.service;
+
+/**
+ * Id and full-text rank of a service matching a search query.
+ */
+public interface ServiceSearchHit {
+
+  Long getId();
+
+  Float getRank();
+}
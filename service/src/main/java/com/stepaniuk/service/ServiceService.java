@@ -1,37 +1,63 @@
 package com.stepaniuk.service;
 
 
-import com.stepaniuk.service.category.ServiceCategory;
+import com.stepaniuk.service.category.ServiceCategoryCatalog;
 import com.stepaniuk.service.category.ServiceCategoryMapper;
-import com.stepaniuk.service.category.ServiceCategoryRepository;
+import com.stepaniuk.service.change.ServiceChange;
+import com.stepaniuk.service.change.ServiceChangeMapper;
+import com.stepaniuk.service.change.ServiceChangeRepository;
+import com.stepaniuk.service.suggest.ServiceTitleIndex;
+import com.stepaniuk.zrobleno.payload.service.ServiceChangesResponse;
 import com.stepaniuk.zrobleno.payload.service.ServiceCreateRequest;
+import com.stepaniuk.zrobleno.payload.service.ServiceIdsResponse;
 import com.stepaniuk.zrobleno.payload.service.ServiceResponse;
+import com.stepaniuk.zrobleno.payload.service.ServiceSearchResponse;
+import com.stepaniuk.zrobleno.payload.service.ServiceSuggestionResponse;
+import com.stepaniuk.zrobleno.payload.service.ServiceSummaryResponse;
 import com.stepaniuk.zrobleno.payload.service.ServiceUpdateRequest;
 import com.stepaniuk.zrobleno.payload.service.category.ServiceCategoryResponse;
 import com.stepaniuk.zrobleno.types.exception.service.NoSuchServiceByIdException;
 import com.stepaniuk.zrobleno.types.exception.service.NoSuchServiceCategoryByIdException;
+import com.stepaniuk.zrobleno.types.service.ServiceChangeType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.Nullable;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @org.springframework.stereotype.Service
 @RequiredArgsConstructor
 public class ServiceService {
 
+  private static final int MAX_CHANGES_SIZE = 1000;
+
   private final ServiceRepository serviceRepository;
-  private final ServiceCategoryRepository serviceCategoryRepository;
+  private final ServiceCategoryCatalog serviceCategoryCatalog;
+  private final ServiceChangeRepository serviceChangeRepository;
   private final ServiceMapper serviceMapper;
   private final ServiceCategoryMapper serviceCategoryMapper;
+  private final ServiceChangeMapper serviceChangeMapper;
+  private final ServiceTitleIndex serviceTitleIndex;
 
+  @Transactional
   public ServiceResponse createService(ServiceCreateRequest request) {
     Service service = new Service();
 
     service.setCategoryId(
-        serviceCategoryRepository.findById(request.getCategoryId()).orElseThrow(
+        serviceCategoryCatalog.findById(request.getCategoryId()).orElseThrow(
             () -> new NoSuchServiceCategoryByIdException(request.getCategoryId())
         ).getId());
     service.setOwnerId(request.getOwnerId());
@@ -42,43 +68,89 @@ public class ServiceService {
     service.setPrice(request.getPrice());
 
     var savedService = serviceRepository.save(service);
+    recordChange(savedService.getId(), ServiceChangeType.CREATED);
 
     return serviceMapper.toResponse(savedService);
   }
 
+  /**
+   * Reads through {@link CacheConfig#SERVICES_CACHE}. Concurrent misses for the same id wait for a
+   * single load, which is also what makes Caffeine record load times.
+   */
+  @Cacheable(cacheNames = CacheConfig.SERVICES_CACHE, key = "#id", sync = true)
   public ServiceResponse getService(Long id) {
     return serviceMapper.toResponse(serviceRepository.findById(id).orElseThrow(
         () -> new NoSuchServiceByIdException(id)
     ));
   }
 
+  /**
+   * Filters are plain comparisons on indexed columns. Sorting by {@code priority}, {@code price}
+   * or {@code avgRating}, then {@code id}, within a category or a price range is read in index
+   * order.
+   */
   public Page<ServiceResponse> getAllServices(Pageable pageable, @Nullable Long categoryId,
-      @Nullable List<Long> serviceIds) {
-    Specification<Service> specification = Specification.where(null);
+      @Nullable List<Long> serviceIds, @Nullable BigDecimal minPrice,
+      @Nullable BigDecimal maxPrice) {
+    return serviceRepository.findAll(
+        toSpecification(categoryId, serviceIds, minPrice, maxPrice), withIdTieBreaker(pageable)
+    ).map(serviceMapper::toResponse);
+  }
 
-    if (categoryId != null) {
-      specification.and((root, query, criteriaBuilder) -> criteriaBuilder
-          .equal(root.get("categoryId"), categoryId)
-      );
-    }
+  /**
+   * Same listing as {@link #getAllServices}, without descriptions and image urls, which are
+   * neither read from the database nor serialized.
+   */
+  public Page<ServiceSummaryResponse> getAllServiceSummaries(Pageable pageable,
+      @Nullable Long categoryId, @Nullable List<Long> serviceIds, @Nullable BigDecimal minPrice,
+      @Nullable BigDecimal maxPrice) {
+    return serviceRepository.findAllSummaries(
+        toSpecification(categoryId, serviceIds, minPrice, maxPrice), withIdTieBreaker(pageable)
+    ).map(serviceMapper::toSummaryResponse);
+  }
 
-    if (serviceIds != null && !serviceIds.isEmpty()) {
-      specification = specification.and((root, query, criteriaBuilder) -> criteriaBuilder
-          .in(root.get("id")).value(serviceIds)
-      );
+  /**
+   * Ranks services by how well their title and description match {@code query}. Matches in the
+   * title weigh more than matches in the description.
+   */
+  @Transactional(readOnly = true)
+  public Page<ServiceSearchResponse> searchServices(String query, Pageable pageable) {
+    var hits = serviceRepository.search(query, pageable.isPaged()
+        ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()) : pageable);
+    var services = serviceRepository.findAllById(hits.map(ServiceSearchHit::getId).getContent())
+        .stream()
+        .collect(Collectors.toMap(Service::getId, Function.identity()));
+
+    var content = new ArrayList<ServiceSearchResponse>(hits.getNumberOfElements());
+    for (var hit : hits) {
+      var service = services.get(hit.getId());
+
+      // deleted between the two queries
+      if (service != null) {
+        content.add(new ServiceSearchResponse(serviceMapper.toResponse(service), hit.getRank()));
+      }
     }
 
-    return serviceRepository.findAll(specification, pageable).map(serviceMapper::toResponse);
+    return new PageImpl<>(content, hits.getPageable(), hits.getTotalElements());
   }
 
+  public List<ServiceSuggestionResponse> suggestServiceTitles(String prefix, int limit) {
+    return serviceTitleIndex.suggest(prefix, limit);
+  }
+
+  @Transactional
+  @CacheEvict(cacheNames = CacheConfig.SERVICES_CACHE, key = "#id")
   public void deleteService(Long id) {
     var service = serviceRepository.findById(id).orElseThrow(
         () -> new NoSuchServiceByIdException(id)
     );
 
     serviceRepository.delete(service);
+    recordChange(id, ServiceChangeType.DELETED);
   }
 
+  @Transactional
+  @CacheEvict(cacheNames = CacheConfig.SERVICES_CACHE, key = "#id")
   public ServiceResponse updateService(Long id, ServiceUpdateRequest request) {
     Service service = serviceRepository.findById(id).orElseThrow(
         () -> new NoSuchServiceByIdException(id)
@@ -86,7 +158,7 @@ public class ServiceService {
 
     if (request.getCategoryId() != null) {
       service.setCategoryId(
-          serviceCategoryRepository.findById(request.getCategoryId()).orElseThrow(
+          serviceCategoryCatalog.findById(request.getCategoryId()).orElseThrow(
               () -> new NoSuchServiceCategoryByIdException(request.getCategoryId())
           ).getId());
     }
@@ -110,27 +182,114 @@ public class ServiceService {
     }
 
     var updatedService = serviceRepository.save(service);
+    recordChange(id, ServiceChangeType.UPDATED);
 
     return serviceMapper.toResponse(updatedService);
   }
 
+  /**
+   * Returns the ids of all services together with the position in the change feed they were read
+   * at, so that a replica can replay {@link #getServiceChanges} from that point on. Both are read
+   * from the same snapshot. Replaying may repeat changes the snapshot already contains.
+   */
+  @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+  public ServiceIdsResponse getServiceIds() {
+    var lastTransactionId = serviceChangeRepository.findSnapshotTransactionId();
+
+    return new ServiceIdsResponse(serviceRepository.findAllIds(), 0L, lastTransactionId);
+  }
+
+  /**
+   * Returns the changes after the given position in the change feed, see
+   * {@link ServiceChangeRepository#findAllCompletedAfter}, together with the position to continue
+   * from.
+   */
+  @Transactional(readOnly = true)
+  public ServiceChangesResponse getServiceChanges(Long afterTransactionId, Long after,
+      int limit) {
+    var changes = serviceChangeRepository.findAllCompletedAfter(afterTransactionId, after,
+        Math.max(1, Math.min(limit, MAX_CHANGES_SIZE)));
+
+    if (changes.isEmpty()) {
+      return new ServiceChangesResponse(List.of(), after, afterTransactionId);
+    }
+
+    var lastChange = changes.get(changes.size() - 1);
+
+    return new ServiceChangesResponse(
+        changes.stream().map(serviceChangeMapper::toResponse).toList(), lastChange.getId(),
+        lastChange.getTransactionId());
+  }
+
   public ServiceCategoryResponse getServiceCategory(Long id) {
-    return serviceCategoryMapper.toResponse(serviceCategoryRepository.findById(id).orElseThrow(
+    return serviceCategoryMapper.toResponse(serviceCategoryCatalog.findById(id).orElseThrow(
         () -> new NoSuchServiceCategoryByIdException(id)
     ));
   }
 
   public Page<ServiceCategoryResponse> getAllServiceCategories(Pageable pageable,
       @Nullable List<Long> serviceCategoryIds) {
-    Specification<ServiceCategory> specification = Specification.where(null);
+    return serviceCategoryCatalog.findAll(pageable, serviceCategoryIds)
+        .map(serviceCategoryMapper::toResponse);
+  }
 
-    if (serviceCategoryIds != null && !serviceCategoryIds.isEmpty()) {
+  /**
+   * Appends to {@code service_changes} in the transaction of the write it records. Readers only
+   * advance past finished transactions, see {@link ServiceChangeRepository#findAllCompletedAfter},
+   * so concurrent writers need no lock.
+   */
+  private void recordChange(Long serviceId, ServiceChangeType type) {
+    serviceChangeRepository.save(new ServiceChange(serviceId, type));
+  }
+
+  /**
+   * Appends {@code id} to a sort that lacks it, in the direction of the last sort key. Without
+   * it, rows with the same priority or price can move between pages. In the same direction, the
+   * order by matches the {@code (..., id)} indexes read forwards or backwards.
+   */
+  static Pageable withIdTieBreaker(Pageable pageable) {
+    var sort = pageable.getSort();
+
+    if (pageable.isUnpaged() || sort.isUnsorted() || sort.getOrderFor("id") != null) {
+      return pageable;
+    }
+
+    var orders = sort.toList();
+    var direction = orders.get(orders.size() - 1).getDirection();
+
+    return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+        sort.and(Sort.by(direction, "id")));
+  }
+
+  private static Specification<Service> toSpecification(@Nullable Long categoryId,
+      @Nullable List<Long> serviceIds, @Nullable BigDecimal minPrice,
+      @Nullable BigDecimal maxPrice) {
+    Specification<Service> specification = Specification.where(null);
+
+    if (categoryId != null) {
       specification = specification.and((root, query, criteriaBuilder) -> criteriaBuilder
-          .in(root.get("id")).value(serviceCategoryIds)
+          .equal(root.get("categoryId"), categoryId)
       );
     }
 
-    return serviceCategoryRepository.findAll(specification, pageable)
-        .map(serviceCategoryMapper::toResponse);
+    if (serviceIds != null && !serviceIds.isEmpty()) {
+      specification = specification.and((root, query, criteriaBuilder) -> criteriaBuilder
+          .in(root.get("id")).value(serviceIds)
+      );
+    }
+
+    if (minPrice != null) {
+      specification = specification.and((root, query, criteriaBuilder) -> criteriaBuilder
+          .greaterThanOrEqualTo(root.get("price"), minPrice)
+      );
+    }
+
+    if (maxPrice != null) {
+      specification = specification.and((root, query, criteriaBuilder) -> criteriaBuilder
+          .lessThanOrEqualTo(root.get("price"), maxPrice)
+      );
+    }
+
+    return specification;
   }
 }
@@ -0,0 +1,12 @@
+package com.stepaniuk.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Columns of a service shown in listings. Selected with a constructor expression, so neither the
+ * description nor the image urls are read and no entity is hydrated.
+ */
+public record ServiceSummary(Long id, Long categoryId, String title, BigDecimal price,
+                             Integer priority) {
+
+}
@@ -0,0 +1,11 @@
+package com.stepaniuk.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ServiceSummaryRepository {
+
+  Page<ServiceSummary> findAllSummaries(Specification<Service> specification,
+      Pageable pageable);
+}
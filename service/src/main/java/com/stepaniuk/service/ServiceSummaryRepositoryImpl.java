@@ -0,0 +1,67 @@
+package com.stepaniuk.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+/**
+ * Runs the same specifications as {@link ServiceRepository#findAll(Specification, Pageable)},
+ * but selects only the columns of {@link ServiceSummary}. Spring Data's fluent projections would
+ * still load whole entities here.
+ */
+class ServiceSummaryRepositoryImpl implements ServiceSummaryRepository {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public Page<ServiceSummary> findAllSummaries(Specification<Service> specification,
+      Pageable pageable) {
+    var criteriaBuilder = entityManager.getCriteriaBuilder();
+    var query = criteriaBuilder.createQuery(ServiceSummary.class);
+    var root = query.from(Service.class);
+
+    query.select(criteriaBuilder.construct(ServiceSummary.class,
+        root.get("id"), root.get("categoryId"), root.get("title"), root.get("price"),
+        root.get("priority")));
+    applySpecification(specification, root, query, criteriaBuilder);
+    query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+    var typedQuery = entityManager.createQuery(query);
+
+    if (pageable.isPaged()) {
+      typedQuery.setFirstResult((int) pageable.getOffset());
+      typedQuery.setMaxResults(pageable.getPageSize());
+    }
+
+    return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable,
+        () -> count(specification));
+  }
+
+  private long count(Specification<Service> specification) {
+    var criteriaBuilder = entityManager.getCriteriaBuilder();
+    var query = criteriaBuilder.createQuery(Long.class);
+    var root = query.from(Service.class);
+
+    query.select(criteriaBuilder.count(root));
+    applySpecification(specification, root, query, criteriaBuilder);
+
+    return entityManager.createQuery(query).getSingleResult();
+  }
+
+  private static void applySpecification(Specification<Service> specification,
+      Root<Service> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+    var predicate = specification.toPredicate(root, query, criteriaBuilder);
+
+    if (predicate != null) {
+      query.where(predicate);
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package com.stepaniuk.service;
+
+/**
+ * Id, title and priority of a service, without the rest of its columns.
+ */
+public interface ServiceTitle {
+
+  Long getId();
+
+  String getTitle();
+
+  Integer getPriority();
+}
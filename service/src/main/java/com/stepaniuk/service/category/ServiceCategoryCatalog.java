@@ -0,0 +1,133 @@
+package com.stepaniuk.service.category;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Immutable in-memory copy of all service categories. The table is small and changes rarely, so
+ * lookups and listings are served from a snapshot that is swapped as a whole when it is reloaded,
+ * either on a timer or through {@link #reload()} after a category change.
+ */
+@Component
+public class ServiceCategoryCatalog {
+
+  private static final Comparator<ServiceCategory> BY_ID =
+      Comparator.comparing(ServiceCategory::getId);
+
+  private static final Map<String, Comparator<ServiceCategory>> COMPARATORS = Map.of(
+      "id", BY_ID,
+      "title", Comparator.comparing(ServiceCategory::getTitle),
+      "description", Comparator.comparing(ServiceCategory::getDescription),
+      "createdAt", Comparator.comparing(ServiceCategory::getCreatedAt),
+      "lastModifiedAt", Comparator.comparing(ServiceCategory::getLastModifiedAt)
+  );
+
+  private final ServiceCategoryRepository serviceCategoryRepository;
+
+  @Nullable
+  private volatile Snapshot snapshot;
+
+  public ServiceCategoryCatalog(ServiceCategoryRepository serviceCategoryRepository) {
+    this.serviceCategoryRepository = serviceCategoryRepository;
+  }
+
+  public Optional<ServiceCategory> findById(Long id) {
+    return Optional.ofNullable(getSnapshot().byId().get(id));
+  }
+
+  /**
+   * Returns a page of all categories, or of those with the given ids, ordered by id unless the
+   * pageable is sorted.
+   */
+  public Page<ServiceCategory> findAll(Pageable pageable, @Nullable Collection<Long> ids) {
+    var current = getSnapshot();
+    List<ServiceCategory> categories;
+
+    if (ids == null || ids.isEmpty()) {
+      categories = Arrays.asList(current.categories());
+    } else {
+      categories = ids.stream()
+          .distinct()
+          .map(current.byId()::get)
+          .filter(Objects::nonNull)
+          .sorted(BY_ID)
+          .toList();
+    }
+
+    if (pageable.getSort().isSorted()) {
+      categories = categories.stream().sorted(toComparator(pageable.getSort())).toList();
+    }
+
+    if (pageable.isUnpaged()) {
+      return new PageImpl<>(categories, pageable, categories.size());
+    }
+
+    var fromIndex = (int) Math.min(pageable.getOffset(), categories.size());
+    var toIndex = Math.min(fromIndex + pageable.getPageSize(), categories.size());
+
+    return new PageImpl<>(categories.subList(fromIndex, toIndex), pageable, categories.size());
+  }
+
+  @Scheduled(fixedDelayString = "${application.config.category-catalog.refresh-interval-millis:60000}")
+  public void reload() {
+    var categories = serviceCategoryRepository.findAll().toArray(ServiceCategory[]::new);
+    Arrays.sort(categories, BY_ID);
+
+    var byId = new HashMap<Long, ServiceCategory>(categories.length * 2);
+    for (var category : categories) {
+      byId.put(category.getId(), category);
+    }
+
+    snapshot = new Snapshot(categories, Collections.unmodifiableMap(byId));
+  }
+
+  private Snapshot getSnapshot() {
+    var current = snapshot;
+
+    if (current == null) {
+      synchronized (this) {
+        if (snapshot == null) {
+          reload();
+        }
+        current = snapshot;
+      }
+    }
+
+    return current;
+  }
+
+  private static Comparator<ServiceCategory> toComparator(Sort sort) {
+    Comparator<ServiceCategory> comparator = null;
+
+    for (var order : sort) {
+      var propertyComparator = COMPARATORS.get(order.getProperty());
+
+      if (propertyComparator == null) {
+        throw new PropertyReferenceException(order.getProperty(),
+            TypeInformation.of(ServiceCategory.class), List.of());
+      }
+      if (order.isDescending()) {
+        propertyComparator = propertyComparator.reversed();
+      }
+
+      comparator = comparator == null ? propertyComparator
+          : comparator.thenComparing(propertyComparator);
+    }
+
+    return comparator == null ? BY_ID : comparator.thenComparing(BY_ID);
+  }
+
+  private record Snapshot(ServiceCategory[] categories, Map<Long, ServiceCategory> byId) {
+
+  }
+}
@@ -0,0 +1,90 @@
+package com.stepaniuk.service.change;
+
+import com.stepaniuk.zrobleno.types.service.ServiceChangeType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
+import java.util.Objects;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@RequiredArgsConstructor
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@Table(name = "service_changes")
+public class ServiceChange {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "service_changes_id_gen")
+  @SequenceGenerator(name = "service_changes_id_gen", sequenceName = "service_changes_id_seq", allocationSize = 1)
+  @Column(name = "id", nullable = false)
+  private Long id;
+
+  @Column(name = "service_id", nullable = false)
+  private Long serviceId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "type", nullable = false)
+  private ServiceChangeType type;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  @CreatedDate
+  private Instant createdAt;
+
+  /**
+   * Id of the transaction that recorded the change, assigned by the database on insert.
+   */
+  @Column(name = "transaction_id", nullable = false, insertable = false, updatable = false,
+      columnDefinition = "bigint default pg_current_xact_id()::text::bigint")
+  private Long transactionId;
+
+  public ServiceChange(Long serviceId, ServiceChangeType type) {
+    this.serviceId = serviceId;
+    this.type = type;
+  }
+
+  @Override
+  public final boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null) {
+      return false;
+    }
+    Class<?> oEffectiveClass = o instanceof HibernateProxy
+        ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass()
+        : o.getClass();
+    Class<?> thisEffectiveClass = this instanceof HibernateProxy
+        ? ((HibernateProxy) this).getHibernateLazyInitializer()
+        .getPersistentClass() : this.getClass();
+    if (thisEffectiveClass != oEffectiveClass) {
+      return false;
+    }
+    ServiceChange that = (ServiceChange) o;
+    return getId() != null && Objects.equals(getId(), that.getId());
+  }
+
+  @Override
+  public final int hashCode() {
+    return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer()
+        .getPersistentClass().hashCode() : getClass().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(" +
+        "id = " + id + ", " +
+        "serviceId = " + serviceId + ", " +
+        "type = " + type + ", " +
+        "createdAt = " + createdAt + ", " +
+        "transactionId = " + transactionId + ")";
+  }
+}
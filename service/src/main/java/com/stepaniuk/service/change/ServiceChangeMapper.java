@@ -0,0 +1,11 @@
+package com.stepaniuk.service.change;
+
+import com.stepaniuk.zrobleno.payload.service.ServiceChangeResponse;
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring", injectionStrategy = InjectionStrategy.CONSTRUCTOR)
+public interface ServiceChangeMapper {
+
+  ServiceChangeResponse toResponse(ServiceChange serviceChange);
+}
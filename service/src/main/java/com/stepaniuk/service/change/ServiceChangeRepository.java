@@ -0,0 +1,39 @@
+package com.stepaniuk.service.change;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ServiceChangeRepository extends JpaRepository<ServiceChange, Long> {
+
+  /**
+   * Returns up to {@code limit} changes after {@code (afterTransactionId, afterId)} in
+   * {@code (transaction_id, id)} order. Only changes of transactions older than the oldest one
+   * still running are returned. Those transactions have all ended, so no change can show up
+   * before the last returned one later, and readers may advance past it even though writers take
+   * ids and commit in any order. Changes of a long running transaction hold back the ones after
+   * it until it ends.
+   */
+  @Query(value = """
+      select * from service_changes
+      where (transaction_id, id) > (:afterTransactionId, :afterId)
+        and transaction_id < pg_snapshot_xmin(pg_current_snapshot())::text::bigint
+      order by transaction_id, id
+      limit :limit""", nativeQuery = true)
+  List<ServiceChange> findAllCompletedAfter(@Param("afterTransactionId") Long afterTransactionId,
+      @Param("afterId") Long afterId, @Param("limit") int limit);
+
+  /**
+   * Returns the oldest transaction still running when the current snapshot was taken. Changes of
+   * older transactions are all visible in the snapshot, so readers that loaded the snapshot follow
+   * {@link #findAllCompletedAfter} from this transaction and id 0. Changes from there on that are
+   * visible in the snapshot already are read again.
+   */
+  @Query(value = "select pg_snapshot_xmin(pg_current_snapshot())::text::bigint",
+      nativeQuery = true)
+  Long findSnapshotTransactionId();
+}
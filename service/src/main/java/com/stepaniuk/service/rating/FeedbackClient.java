@@ -0,0 +1,16 @@
+package com.stepaniuk.service.rating;
+
+import com.stepaniuk.zrobleno.payload.feedback.FeedbackRatingChangesResponse;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@FeignClient(name = "feedbacks", contextId = "feedback-service", path = "/api/feedbacks",
+    url = "${application.config.feedback.url}", primary = false)
+public interface FeedbackClient {
+
+    @GetMapping("/rating-changes")
+    FeedbackRatingChangesResponse getRatingChanges(@RequestParam Long afterTransactionId,
+                                                   @RequestParam Long after,
+                                                   @RequestParam int limit);
+}
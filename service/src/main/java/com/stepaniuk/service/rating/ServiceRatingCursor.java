@@ -0,0 +1,69 @@
+package com.stepaniuk.service.rating;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.util.Objects;
+
+/**
+ * Position of the last feedback rating change added to the service rating aggregates, made of
+ * the change's transaction id and id. There is a single row, advanced in the same transaction as
+ * the aggregates, so every change is applied exactly once.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@RequiredArgsConstructor
+@Entity
+@Table(name = "service_rating_cursor")
+public class ServiceRatingCursor {
+
+  @Id
+  @Column(name = "id", nullable = false)
+  private Short id;
+
+  @Column(name = "last_change_id", nullable = false)
+  private Long lastChangeId;
+
+  @Column(name = "last_transaction_id", nullable = false)
+  private Long lastTransactionId;
+
+  @Override
+  public final boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null) {
+      return false;
+    }
+    Class<?> oEffectiveClass = o instanceof HibernateProxy
+        ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass()
+        : o.getClass();
+    Class<?> thisEffectiveClass = this instanceof HibernateProxy
+        ? ((HibernateProxy) this).getHibernateLazyInitializer()
+        .getPersistentClass() : this.getClass();
+    if (thisEffectiveClass != oEffectiveClass) {
+      return false;
+    }
+    ServiceRatingCursor that = (ServiceRatingCursor) o;
+    return getId() != null && Objects.equals(getId(), that.getId());
+  }
+
+  @Override
+  public final int hashCode() {
+    return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer()
+        .getPersistentClass().hashCode() : getClass().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(" +
+        "id = " + id + ", " +
+        "lastChangeId = " + lastChangeId + ", " +
+        "lastTransactionId = " + lastTransactionId + ")";
+  }
+}
@@ -0,0 +1,40 @@
+package com.stepaniuk.service.rating;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ServiceRatingCursorRepository extends JpaRepository<ServiceRatingCursor, Short> {
+
+  @Query("select c from ServiceRatingCursor c where c.id = 1")
+  Optional<ServiceRatingCursor> findCursor();
+
+  @Modifying
+  @Query(value = """
+      insert into service_rating_cursor (id, last_change_id, last_transaction_id)
+      values (1, 0, 0)
+      on conflict do nothing""", nativeQuery = true)
+  void createIfAbsent();
+
+  /**
+   * Moves the cursor from the previous position to the next one. Returns 0 when another instance
+   * moved it first, in which case the changes read after the previous position must not be
+   * applied.
+   */
+  @Modifying
+  @Query("""
+      update ServiceRatingCursor c
+      set c.lastTransactionId = :nextTransactionId, c.lastChangeId = :nextChangeId
+      where c.id = 1
+        and c.lastTransactionId = :previousTransactionId
+        and c.lastChangeId = :previousChangeId""")
+  int advance(@Param("previousTransactionId") Long previousTransactionId,
+      @Param("previousChangeId") Long previousChangeId,
+      @Param("nextTransactionId") Long nextTransactionId,
+      @Param("nextChangeId") Long nextChangeId);
+}
@@ -0,0 +1,113 @@
+package com.stepaniuk.service.rating;
+
+import com.stepaniuk.service.CacheConfig;
+import com.stepaniuk.service.ServiceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Keeps {@code avgRating} and {@code ratingCount} of services current by following the rating
+ * changes the feedback service records for every create, update and delete of a feedback. Deltas
+ * of a batch are summed per service and added together with moving {@link ServiceRatingCursor},
+ * so listings sort by rating without aggregating feedbacks at read time.
+ */
+@Slf4j
+@Component
+public class ServiceRatingUpdater {
+
+  private final FeedbackClient feedbackClient;
+  private final ServiceRepository serviceRepository;
+  private final ServiceRatingCursorRepository serviceRatingCursorRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final CacheManager cacheManager;
+  private final int batchSize;
+
+  public ServiceRatingUpdater(FeedbackClient feedbackClient, ServiceRepository serviceRepository,
+      ServiceRatingCursorRepository serviceRatingCursorRepository,
+      PlatformTransactionManager transactionManager, CacheManager cacheManager,
+      @Value("${application.config.rating.batch-size:1000}") int batchSize) {
+    this.feedbackClient = feedbackClient;
+    this.serviceRepository = serviceRepository;
+    this.serviceRatingCursorRepository = serviceRatingCursorRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.cacheManager = cacheManager;
+    this.batchSize = batchSize;
+  }
+
+  @Scheduled(fixedDelayString = "${application.config.rating.poll-interval-millis:5000}",
+      initialDelayString = "${application.config.rating.poll-interval-millis:5000}")
+  public void poll() {
+    try {
+      while (applyNextChanges() == batchSize) {
+        // a full batch means more changes are probably waiting
+      }
+    } catch (RuntimeException e) {
+      log.warn("Failed to apply feedback rating changes", e);
+    }
+  }
+
+  /**
+   * Applies the next batch of rating changes and returns how many were applied. Nothing is
+   * applied when another instance moved the cursor in the meantime.
+   */
+  public int applyNextChanges() {
+    var cursor = serviceRatingCursorRepository.findCursor().orElseGet(() -> {
+      transactionTemplate.executeWithoutResult(
+          status -> serviceRatingCursorRepository.createIfAbsent());
+      return new ServiceRatingCursor((short) 1, 0L, 0L);
+    });
+    var afterTransactionId = cursor.getLastTransactionId();
+    var after = cursor.getLastChangeId();
+    var response = feedbackClient.getRatingChanges(afterTransactionId, after, batchSize);
+
+    if (response.getChanges().isEmpty()) {
+      return 0;
+    }
+
+    var deltas = new LinkedHashMap<Long, RatingDelta>();
+    for (var change : response.getChanges()) {
+      deltas.merge(change.getServiceId(),
+          new RatingDelta(change.getRatingDelta(), change.getCountDelta()), RatingDelta::plus);
+    }
+
+    var applied = transactionTemplate.execute(status -> {
+      if (serviceRatingCursorRepository.advance(afterTransactionId, after,
+          response.getLastTransactionId(), response.getLastChangeId()) == 0) {
+        return false;
+      }
+
+      var cache = cacheManager.getCache(CacheConfig.SERVICES_CACHE);
+      deltas.forEach((serviceId, delta) -> {
+        serviceRepository.addRatings(serviceId, delta.ratingDelta(), delta.countDelta());
+
+        // deferred until commit by the transaction-aware cache manager
+        if (cache != null) {
+          cache.evict(serviceId);
+        }
+      });
+      return true;
+    });
+
+    if (!Boolean.TRUE.equals(applied)) {
+      log.debug("Rating changes after {} of transaction {} were applied by another instance",
+          after, afterTransactionId);
+      return 0;
+    }
+
+    return response.getChanges().size();
+  }
+
+  private record RatingDelta(long ratingDelta, int countDelta) {
+
+    RatingDelta plus(RatingDelta other) {
+      return new RatingDelta(ratingDelta + other.ratingDelta, countDelta + other.countDelta);
+    }
+  }
+}
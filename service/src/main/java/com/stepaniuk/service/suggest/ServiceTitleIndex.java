@@ -0,0 +1,175 @@
+package com.stepaniuk.service.suggest;
+
+import com.stepaniuk.service.ServiceRepository;
+import com.stepaniuk.service.change.ServiceChange;
+import com.stepaniuk.service.change.ServiceChangeRepository;
+import com.stepaniuk.zrobleno.payload.service.ServiceSuggestionResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Title suggestions for the search box. Prefix matches are served from an in-memory
+ * {@link ServiceTitleTrie} that is loaded once and then kept current by following
+ * {@code service_changes}, which every create, update and delete of a service appends to, so all
+ * instances converge. Changes are read with {@link ServiceChangeRepository#findAllCompletedAfter},
+ * which never skips a change that commits late. When the trie has fewer matches than requested,
+ * or is not loaded yet, the rest is filled with fuzzy matches from the trigram index on
+ * {@code services.title}.
+ */
+@Slf4j
+@Component
+public class ServiceTitleIndex {
+
+  private final ServiceRepository serviceRepository;
+  private final ServiceChangeRepository serviceChangeRepository;
+  private final int depth;
+  private final int maxSize;
+  private final int batchSize;
+  private final TransactionTemplate transactionTemplate;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private volatile ServiceTitleTrie trie;
+  private volatile boolean ready;
+  private long lastTransactionId;
+  private long lastChangeId;
+
+  public ServiceTitleIndex(ServiceRepository serviceRepository,
+      ServiceChangeRepository serviceChangeRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${application.config.suggest.depth:8}") int depth,
+      @Value("${application.config.suggest.max-size:10}") int maxSize,
+      @Value("${application.config.suggest.batch-size:1000}") int batchSize) {
+    this.serviceRepository = serviceRepository;
+    this.serviceChangeRepository = serviceChangeRepository;
+    this.depth = depth;
+    this.maxSize = maxSize;
+    this.batchSize = batchSize;
+    // the snapshot transaction id and the titles have to come from the same snapshot
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    this.trie = new ServiceTitleTrie(depth, maxSize);
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  public List<ServiceSuggestionResponse> suggest(String prefix, int limit) {
+    var size = Math.max(1, Math.min(limit, maxSize));
+    var suggestions = new ArrayList<ServiceSuggestionResponse>(size);
+
+    if (ready) {
+      lock.readLock().lock();
+      try {
+        trie.find(prefix, size).forEach(entry ->
+            suggestions.add(new ServiceSuggestionResponse(entry.id(), entry.title())));
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    if (suggestions.size() < size && !prefix.isBlank()) {
+      var ids = new HashSet<Long>();
+      suggestions.forEach(suggestion -> ids.add(suggestion.getId()));
+
+      for (var title : serviceRepository.findSimilarTitles(prefix.strip(), size)) {
+        if (suggestions.size() < size && ids.add(title.getId())) {
+          suggestions.add(new ServiceSuggestionResponse(title.getId(), title.getTitle()));
+        }
+      }
+    }
+
+    return suggestions;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(fixedDelayString = "${application.config.suggest.resync-interval-millis:3600000}",
+      initialDelayString = "${application.config.suggest.resync-interval-millis:3600000}")
+  public void resync() {
+    try {
+      loadSnapshot();
+    } catch (RuntimeException e) {
+      log.warn("Failed to load service titles snapshot", e);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${application.config.suggest.poll-interval-millis:1000}",
+      initialDelayString = "${application.config.suggest.poll-interval-millis:1000}")
+  public void poll() {
+    try {
+      if (ready) {
+        applyChanges();
+      } else {
+        loadSnapshot();
+      }
+    } catch (RuntimeException e) {
+      log.warn("Failed to apply service title changes after change {} of transaction {}",
+          lastChangeId, lastTransactionId, e);
+    }
+  }
+
+  private synchronized void loadSnapshot() {
+    var loadedTrie = new ServiceTitleTrie(depth, maxSize);
+    var snapshotTransactionId = transactionTemplate.execute(transaction -> {
+      var transactionId = serviceChangeRepository.findSnapshotTransactionId();
+
+      for (var title : serviceRepository.findAllTitles()) {
+        loadedTrie.put(title.getId(), title.getTitle(), title.getPriority());
+      }
+
+      return transactionId;
+    });
+
+    lock.writeLock().lock();
+    try {
+      trie = loadedTrie;
+      lastTransactionId = snapshotTransactionId;
+      lastChangeId = 0;
+      ready = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private synchronized void applyChanges() {
+    List<ServiceChange> changes;
+
+    do {
+      changes = serviceChangeRepository.findAllCompletedAfter(lastTransactionId, lastChangeId,
+          batchSize);
+
+      if (changes.isEmpty()) {
+        return;
+      }
+
+      var serviceIds = changes.stream().map(ServiceChange::getServiceId).distinct().toList();
+      // the current title of each changed service; deleted services are missing
+      var titles = serviceRepository.findAllTitlesByIdIn(serviceIds);
+
+      lock.writeLock().lock();
+      try {
+        serviceIds.forEach(trie::remove);
+        titles.forEach(title -> trie.put(title.getId(), title.getTitle(), title.getPriority()));
+        var lastChange = changes.get(changes.size() - 1);
+        lastTransactionId = lastChange.getTransactionId();
+        lastChangeId = lastChange.getId();
+      } finally {
+        lock.writeLock().unlock();
+      }
+    } while (changes.size() >= batchSize);
+  }
+}
@@ -0,0 +1,154 @@
+package com.stepaniuk.service.suggest;
+
+import java.util.*;
+
+/**
+ * Prefix tree over normalized service titles. Every node keeps the best {@code topSize} titles
+ * below it, ordered by priority, so suggestions for a prefix are read from a single node. To
+ * bound memory the tree is only {@code depth} characters deep; titles longer than that share a
+ * bucket at the deepest node, which is filtered when the prefix is longer than the tree.
+ * <p>
+ * Not thread-safe.
+ */
+public class ServiceTitleTrie {
+
+  private static final Comparator<Entry> BY_RANK = Comparator
+      .comparing(Entry::priority, Comparator.reverseOrder())
+      .thenComparing(Entry::key)
+      .thenComparing(Entry::id);
+
+  private final int depth;
+  private final int topSize;
+  private final Node root = new Node();
+  private final Map<Long, Entry> entries = new HashMap<>();
+
+  public ServiceTitleTrie(int depth, int topSize) {
+    this.depth = depth;
+    this.topSize = topSize;
+  }
+
+  public static String normalize(String title) {
+    return title.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Adds the title of a service, replacing its previous title if there was one.
+   */
+  public void put(Long id, String title, int priority) {
+    remove(id);
+
+    var entry = new Entry(id, normalize(title), title, priority);
+    var path = path(entry.key(), true);
+
+    path.get(path.size() - 1).entries.add(entry);
+    entries.put(id, entry);
+
+    for (var node : path) {
+      node.offer(entry, topSize);
+    }
+  }
+
+  public void remove(Long id) {
+    var entry = entries.remove(id);
+
+    if (entry == null) {
+      return;
+    }
+
+    var path = path(entry.key(), false);
+    path.get(path.size() - 1).entries.remove(entry);
+
+    for (int i = path.size() - 1; i >= 0; i--) {
+      var node = path.get(i);
+
+      if (!node.top.contains(entry)) {
+        break;
+      }
+      node.recomputeTop(topSize);
+
+      if (i > 0 && node.entries.isEmpty() && node.children.isEmpty()) {
+        path.get(i - 1).children.remove(entry.key().charAt(i - 1));
+      }
+    }
+  }
+
+  /**
+   * Returns up to {@code limit} titles, at most {@code topSize}, starting with the prefix, best
+   * first.
+   */
+  public List<Entry> find(String prefix, int limit) {
+    var key = normalize(prefix);
+    var node = root;
+
+    for (int i = 0; i < Math.min(key.length(), depth); i++) {
+      node = node.children.get(key.charAt(i));
+
+      if (node == null) {
+        return List.of();
+      }
+    }
+
+    var max = Math.min(limit, topSize);
+
+    if (key.length() <= depth) {
+      return node.top.subList(0, Math.min(max, node.top.size()));
+    }
+
+    return node.entries.stream()
+        .filter(entry -> entry.key().startsWith(key))
+        .sorted(BY_RANK)
+        .limit(max)
+        .toList();
+  }
+
+  private List<Node> path(String key, boolean create) {
+    var path = new ArrayList<Node>(depth + 1);
+    var node = root;
+    path.add(node);
+
+    for (int i = 0; i < Math.min(key.length(), depth); i++) {
+      node = create ? node.children.computeIfAbsent(key.charAt(i), c -> new Node())
+          : node.children.get(key.charAt(i));
+      path.add(node);
+    }
+
+    return path;
+  }
+
+  public record Entry(Long id, String key, String title, int priority) {
+
+  }
+
+  private static final class Node {
+
+    private final Map<Character, Node> children = new HashMap<>(4);
+    private final List<Entry> entries = new ArrayList<>(1);
+    private List<Entry> top = List.of();
+
+    private void offer(Entry entry, int topSize) {
+      var index = Collections.binarySearch(top, entry, BY_RANK);
+      var position = index < 0 ? -index - 1 : index;
+
+      if (position >= topSize) {
+        return;
+      }
+
+      var updated = new ArrayList<Entry>(Math.min(top.size() + 1, topSize));
+      updated.addAll(top.subList(0, position));
+      updated.add(entry);
+      updated.addAll(top.subList(position, Math.min(top.size(), topSize - 1)));
+      top = updated;
+    }
+
+    private void recomputeTop(int topSize) {
+      var candidates = new ArrayList<>(entries);
+      children.values().forEach(child -> candidates.addAll(child.top));
+      candidates.sort(BY_RANK);
+      top = List.copyOf(candidates.subList(0, Math.min(topSize, candidates.size())));
+    }
+  }
+}
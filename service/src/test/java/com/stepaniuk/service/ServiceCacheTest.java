@@ -0,0 +1,120 @@
+package com.stepaniuk.service;
+
+
+import com.stepaniuk.service.category.ServiceCategoryMapperImpl;
+import com.stepaniuk.service.category.ServiceCategoryCatalog;
+import com.stepaniuk.service.change.ServiceChangeMapperImpl;
+import com.stepaniuk.service.change.ServiceChangeRepository;
+import com.stepaniuk.service.suggest.ServiceTitleIndex;
+import com.stepaniuk.zrobleno.payload.service.ServiceUpdateRequest;
+import com.stepaniuk.zrobleno.testspecific.ServiceLevelUnitTest;
+import com.stepaniuk.zrobleno.types.exception.service.NoSuchServiceByIdException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ServiceLevelUnitTest
+@ContextConfiguration(classes = {ServiceService.class, ServiceMapperImpl.class,
+    ServiceCategoryMapperImpl.class, ServiceChangeMapperImpl.class, CacheConfig.class})
+class ServiceCacheTest {
+
+  @Autowired
+  private ServiceService serviceService;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  @MockBean
+  private ServiceRepository serviceRepository;
+  @MockBean
+  private ServiceCategoryCatalog serviceCategoryCatalog;
+  @MockBean
+  private ServiceChangeRepository serviceChangeRepository;
+  @MockBean
+  private ServiceTitleIndex serviceTitleIndex;
+
+  @BeforeEach
+  void setUp() {
+    cacheManager.getCache(CacheConfig.SERVICES_CACHE).clear();
+  }
+
+  @Test
+  void shouldReadServiceFromRepositoryOnceWhenGettingServiceRepeatedly() {
+    // given
+    when(serviceRepository.findById(1L)).thenReturn(Optional.of(getService("title")));
+
+    // when
+    var first = serviceService.getService(1L);
+    var second = serviceService.getService(1L);
+
+    // then
+    assertEquals("title", first.getTitle());
+    assertEquals(first, second);
+    verify(serviceRepository, times(1)).findById(1L);
+  }
+
+  @Test
+  void shouldReadServiceFromRepositoryAgainWhenServiceWasUpdated() {
+    // given
+    var service = getService("title");
+    when(serviceRepository.findById(1L)).thenReturn(Optional.of(service));
+    when(serviceRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+    serviceService.getService(1L);
+
+    // when
+    serviceService.updateService(1L,
+        new ServiceUpdateRequest(null, "new title", null, null, null, null));
+    var response = serviceService.getService(1L);
+
+    // then
+    assertEquals("new title", response.getTitle());
+  }
+
+  @Test
+  void shouldNotReturnCachedServiceWhenServiceWasDeleted() {
+    // given
+    when(serviceRepository.findById(1L)).thenReturn(Optional.of(getService("title")));
+
+    serviceService.getService(1L);
+
+    // when
+    serviceService.deleteService(1L);
+    when(serviceRepository.findById(1L)).thenReturn(Optional.empty());
+
+    // then
+    assertThrows(NoSuchServiceByIdException.class, () -> serviceService.getService(1L));
+  }
+
+  @Test
+  void shouldNotCacheMissingService() {
+    // given
+    when(serviceRepository.findById(2L)).thenReturn(Optional.empty());
+
+    // when
+    assertThrows(NoSuchServiceByIdException.class, () -> serviceService.getService(2L));
+    assertThrows(NoSuchServiceByIdException.class, () -> serviceService.getService(2L));
+
+    // then
+    verify(serviceRepository, times(2)).findById(2L);
+  }
+
+  private Service getService(String title) {
+    return new Service(1L, 1L, UUID.randomUUID(), title, "description",
+        List.of("https://image.com/1"), BigDecimal.valueOf(100), 1, Instant.now(), Instant.now(),
+        0L, 0, BigDecimal.ZERO);
+  }
+}
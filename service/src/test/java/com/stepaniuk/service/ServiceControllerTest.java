@@ -3,17 +3,25 @@ package com.stepaniuk.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.stepaniuk.service.testspecific.ControllerLevelUnitTest;
+import com.stepaniuk.zrobleno.payload.service.ServiceChangeResponse;
+import com.stepaniuk.zrobleno.payload.service.ServiceChangesResponse;
 import com.stepaniuk.zrobleno.payload.service.ServiceCreateRequest;
+import com.stepaniuk.zrobleno.payload.service.ServiceIdsResponse;
 import com.stepaniuk.zrobleno.payload.service.ServiceResponse;
+import com.stepaniuk.zrobleno.payload.service.ServiceSearchResponse;
+import com.stepaniuk.zrobleno.payload.service.ServiceSuggestionResponse;
+import com.stepaniuk.zrobleno.payload.service.ServiceSummaryResponse;
 import com.stepaniuk.zrobleno.payload.service.ServiceUpdateRequest;
 import com.stepaniuk.zrobleno.payload.service.category.ServiceCategoryResponse;
 import com.stepaniuk.zrobleno.types.exception.service.NoSuchServiceByIdException;
 import com.stepaniuk.zrobleno.types.exception.service.NoSuchServiceCategoryByIdException;
+import com.stepaniuk.zrobleno.types.service.ServiceChangeType;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.hateoas.Link;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -71,7 +79,9 @@ class ServiceControllerTest {
         BigDecimal.valueOf(100),
         1,
         timeOfCreation,
-        timeOfModification
+        timeOfModification,
+        BigDecimal.ZERO,
+        0
     );
 
     response.add(Link.of("http://localhost/services/1", "self"));
@@ -115,7 +125,9 @@ class ServiceControllerTest {
         BigDecimal.valueOf(100),
         1,
         timeOfCreation,
-        timeOfModification
+        timeOfModification,
+        BigDecimal.ZERO,
+        0
     );
 
     response.add(Link.of("http://localhost/services/1", "self"));
@@ -185,7 +197,9 @@ class ServiceControllerTest {
         BigDecimal.valueOf(100),
         1,
         timeOfCreation,
-        timeOfModification
+        timeOfModification,
+        BigDecimal.ZERO,
+        0
     );
 
     response.add(Link.of("http://localhost/services/1", "self"));
@@ -248,13 +262,15 @@ class ServiceControllerTest {
         BigDecimal.valueOf(100),
         1,
         timeOfCreation,
-        timeOfModification
+        timeOfModification,
+        BigDecimal.ZERO,
+        0
     );
 
     response.add(Link.of("http://localhost/services/1","self"));
 
     var pageable = PageRequest.of(0, 2);
-    when(serviceService.getAllServices(pageable, null, null)).thenReturn(
+    when(serviceService.getAllServices(pageable, null, null, null, null)).thenReturn(
         new PageImpl<>(List.of(response), pageable, 1));
     // when && then
     // @formatter:off
@@ -280,6 +296,76 @@ class ServiceControllerTest {
     // @formatter:on
   }
 
+  @Test
+  void shouldReturnPageOfRankedServicesWhenSearchingServices() throws Exception {
+    var response = new ServiceResponse(
+        1L,
+        1L,
+        UUID.randomUUID(),
+        "Phone repair",
+        "description",
+        List.of("https://example.com/image.jpg"),
+        BigDecimal.valueOf(100),
+        1,
+        Instant.now(),
+        Instant.now(),
+        BigDecimal.ZERO,
+        0
+    );
+
+    response.add(Link.of("http://localhost/services/1"));
+
+    var pageable = PageRequest.of(0, 2);
+    when(serviceService.searchServices("phone repair", pageable)).thenReturn(
+        new PageImpl<>(List.of(new ServiceSearchResponse(response, 0.5f)), pageable, 1));
+    // when && then
+    // @formatter:off
+    mockMvc.perform(get("/services/search")
+            .contentType("application/json")
+            .param("q", "phone repair")
+            .param("page", "0")
+            .param("size", "2")
+        )
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalElements", is(1)))
+        .andExpect(jsonPath("$.content[0].service.id", is(response.getId()), Long.class))
+        .andExpect(jsonPath("$.content[0].service.title", is(response.getTitle())))
+        .andExpect(jsonPath("$.content[0].rank", is(0.5)))
+        .andExpect(jsonPath("$.content[0].service.links[0].href", is("http://localhost/services/1")));
+    // @formatter:on
+  }
+
+  @Test
+  void shouldReturnBadRequestWhenSearchingServicesWithoutQuery() throws Exception {
+    // @formatter:off
+    mockMvc.perform(get("/services/search")
+            .contentType("application/json")
+        )
+        .andExpect(status().isBadRequest());
+    // @formatter:on
+  }
+
+  @Test
+  void shouldReturnSuggestionsWhenSuggestingServiceTitles() throws Exception {
+    when(serviceService.suggestServiceTitles("pho", 5)).thenReturn(List.of(
+        new ServiceSuggestionResponse(2L, "Phone cleaning"),
+        new ServiceSuggestionResponse(1L, "Phone repair")));
+    // when && then
+    // @formatter:off
+    mockMvc.perform(get("/services/suggest")
+            .contentType("application/json")
+            .param("prefix", "pho")
+            .param("limit", "5")
+        )
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()", is(2)))
+        .andExpect(jsonPath("$[0].id", is(2L), Long.class))
+        .andExpect(jsonPath("$[0].title", is("Phone cleaning")))
+        .andExpect(jsonPath("$[1].id", is(1L), Long.class))
+        .andExpect(jsonPath("$[1].title", is("Phone repair")));
+    // @formatter:on
+  }
+
   @Test
   void shouldReturnPageOfServicesWhenGettingAllServicesAndCategoryIdIsNotNull() throws Exception {
     var ownerId = UUID.randomUUID();
@@ -297,13 +383,15 @@ class ServiceControllerTest {
         BigDecimal.valueOf(100),
         1,
         timeOfCreation,
-        timeOfModification
+        timeOfModification,
+        BigDecimal.ZERO,
+        0
     );
 
     response.add(Link.of("http://localhost/services/1"));
 
     var pageable = PageRequest.of(0, 2);
-    when(serviceService.getAllServices(pageable, categoryId, null)).thenReturn(
+    when(serviceService.getAllServices(pageable, categoryId, null, null, null)).thenReturn(
         new PageImpl<>(List.of(response), pageable, 1));
     // when && then
     // @formatter:off
@@ -348,13 +436,15 @@ class ServiceControllerTest {
         BigDecimal.valueOf(100),
         1,
         timeOfCreation,
-        timeOfModification
+        timeOfModification,
+        BigDecimal.ZERO,
+        0
     );
 
     response.add(Link.of("http://localhost/services/1"));
 
     var pageable = PageRequest.of(0, 2);
-    when(serviceService.getAllServices(pageable, null, listOfIds)).thenReturn(
+    when(serviceService.getAllServices(pageable, null, listOfIds, null, null)).thenReturn(
         new PageImpl<>(List.of(response), pageable, 1));
     // when && then
     // @formatter:off
@@ -381,6 +471,78 @@ class ServiceControllerTest {
     // @formatter:on
   }
 
+  @Test
+  void shouldReturnPageOfServicesWhenGettingAllServicesInPriceRangeSortedByPrice()
+      throws Exception {
+    var response = new ServiceResponse(
+        1L,
+        1L,
+        UUID.randomUUID(),
+        "title",
+        "description",
+        List.of("https://example.com/image.jpg"),
+        BigDecimal.valueOf(150),
+        1,
+        Instant.now(),
+        Instant.now(),
+        BigDecimal.ZERO,
+        0
+    );
+
+    response.add(Link.of("http://localhost/services/1"));
+
+    var pageable = PageRequest.of(0, 2, Sort.by("price"));
+    when(serviceService.getAllServices(pageable, null, null, new BigDecimal("100"),
+        new BigDecimal("200"))).thenReturn(new PageImpl<>(List.of(response), pageable, 1));
+    // when && then
+    // @formatter:off
+    mockMvc.perform(get("/services/v2")
+            .contentType("application/json")
+            .param("page", "0")
+            .param("size", "2")
+            .param("sort", "price,asc")
+            .param("minPrice", "100")
+            .param("maxPrice", "200")
+        )
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalElements", is(1)))
+        .andExpect(jsonPath("$.content[0].id", is(response.getId()), Long.class))
+        .andExpect(jsonPath("$.content[0].price", is(response.getPrice()), BigDecimal.class));
+    // @formatter:on
+  }
+
+  @Test
+  void shouldReturnPageOfServiceSummariesWhenGettingAllServicesWithSummaryView()
+      throws Exception {
+    var response = new ServiceSummaryResponse(1L, 2L, "title", BigDecimal.valueOf(150), 1);
+
+    response.add(Link.of("http://localhost/services/1"));
+
+    var pageable = PageRequest.of(0, 2);
+    when(serviceService.getAllServiceSummaries(pageable, 2L, null, null, null))
+        .thenReturn(new PageImpl<>(List.of(response), pageable, 1));
+    // when && then
+    // @formatter:off
+    mockMvc.perform(get("/services/v2")
+            .contentType("application/json")
+            .param("page", "0")
+            .param("size", "2")
+            .param("categoryId", "2")
+            .param("view", "summary")
+        )
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalElements", is(1)))
+        .andExpect(jsonPath("$.content[0].id", is(response.getId()), Long.class))
+        .andExpect(jsonPath("$.content[0].categoryId", is(response.getCategoryId()), Long.class))
+        .andExpect(jsonPath("$.content[0].title", is(response.getTitle())))
+        .andExpect(jsonPath("$.content[0].price", is(response.getPrice()), BigDecimal.class))
+        .andExpect(jsonPath("$.content[0].priority", is(response.getPriority())))
+        .andExpect(jsonPath("$.content[0].description").doesNotExist())
+        .andExpect(jsonPath("$.content[0].imageUrls").doesNotExist())
+        .andExpect(jsonPath("$.content[0].links[0].href", is("http://localhost/services/1")));
+    // @formatter:on
+  }
+
   @Test
   void shouldReturnServiceCategoryResponseWhenGettingServiceCategoryById() throws Exception {
     var response = new ServiceCategoryResponse(1L, "NameOfCategory", "description",
@@ -480,4 +642,39 @@ class ServiceControllerTest {
         .andExpect(jsonPath("$.content[0].lastModifiedAt", instantComparesEqualTo(categoryResponse.getLastModifiedAt())))
         .andExpect(jsonPath("$.content[0].links[0].href", is("http://localhost/services/categories/1")));
   }
+
+  @Test
+  void shouldReturnServiceIdsResponseWhenGettingServiceIds() throws Exception {
+    when(serviceService.getServiceIds()).thenReturn(
+        new ServiceIdsResponse(List.of(1L, 2L, 3L), 0L, 100L));
+
+    mockMvc.perform(get("/services/ids")
+            .contentType("application/json"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.ids", is(List.of(1, 2, 3))))
+        .andExpect(jsonPath("$.lastChangeId", is(0L), Long.class))
+        .andExpect(jsonPath("$.lastTransactionId", is(100L), Long.class));
+  }
+
+  @Test
+  void shouldReturnServiceChangesResponseWhenGettingServiceChanges() throws Exception {
+    var timeOfCreation = Instant.now();
+    var change = new ServiceChangeResponse(6L, 4L, ServiceChangeType.CREATED, timeOfCreation);
+
+    when(serviceService.getServiceChanges(99L, 5L, 100)).thenReturn(
+        new ServiceChangesResponse(List.of(change), 6L, 100L));
+
+    mockMvc.perform(get("/services/changes")
+            .contentType("application/json")
+            .param("afterTransactionId", "99")
+            .param("after", "5")
+            .param("limit", "100"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.changes[0].id", is(6L), Long.class))
+        .andExpect(jsonPath("$.changes[0].serviceId", is(4L), Long.class))
+        .andExpect(jsonPath("$.changes[0].type", is("CREATED")))
+        .andExpect(jsonPath("$.changes[0].createdAt", instantComparesEqualTo(timeOfCreation)))
+        .andExpect(jsonPath("$.lastChangeId", is(6L), Long.class))
+        .andExpect(jsonPath("$.lastTransactionId", is(100L), Long.class));
+  }
 }
@@ -2,6 +2,7 @@ package com.stepaniuk.service;
 
 
 import com.stepaniuk.zrobleno.payload.service.ServiceResponse;
+import com.stepaniuk.zrobleno.payload.service.ServiceSummaryResponse;
 import com.stepaniuk.zrobleno.testspecific.MapperLevelUnitTest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,7 +31,7 @@ class ServiceMapperTest {
 
     Service serviceToMap = new Service(
         1L, 1L, UUID.randomUUID(), "title", "description", List.of("https://image.com/1"), BigDecimal.valueOf(100),
-        1, timeOfCreation, timeOfModification
+        1, timeOfCreation, timeOfModification, 0L, 0, BigDecimal.ZERO
     );
 
     // when
@@ -48,4 +49,22 @@ class ServiceMapperTest {
         serviceResponse.getLastModifiedAt());
     assertTrue(serviceResponse.hasLinks());
   }
+
+  @Test
+  void shouldMapServiceSummaryToServiceSummaryResponse() {
+    // given
+    var summaryToMap = new ServiceSummary(1L, 2L, "title", BigDecimal.valueOf(100), 3);
+
+    // when
+    ServiceSummaryResponse summaryResponse = serviceMapper.toSummaryResponse(summaryToMap);
+
+    // then
+    assertNotNull(summaryResponse);
+    assertEquals(summaryToMap.id(), summaryResponse.getId());
+    assertEquals(summaryToMap.categoryId(), summaryResponse.getCategoryId());
+    assertEquals(summaryToMap.title(), summaryResponse.getTitle());
+    assertEquals(summaryToMap.price(), summaryResponse.getPrice());
+    assertEquals(summaryToMap.priority(), summaryResponse.getPriority());
+    assertTrue(summaryResponse.hasLinks());
+  }
 }
@@ -0,0 +1,192 @@
+package com.stepaniuk.service;
+
+
+import com.stepaniuk.service.category.ServiceCategoryCatalog;
+import com.stepaniuk.service.category.ServiceCategoryMapper;
+import com.stepaniuk.service.change.ServiceChangeMapper;
+import com.stepaniuk.service.suggest.ServiceTitleIndex;
+import com.stepaniuk.service.testspecific.JpaLevelTest;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the indexes behind service listings: on a table large enough for the planner to care,
+ * the filters and orders used by {@code /services/v2} must be answered from an index instead of
+ * a sequential scan and sort, in either sort direction. The plans are taken for the SQL
+ * Hibernate generates for the listing, with the bound values inlined in the order they are
+ * bound.
+ */
+@JpaLevelTest
+@Import(ServiceService.class)
+@TestPropertySource(properties =
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.stepaniuk.service.ServiceQueryPlanTest$CapturingStatementInspector")
+@Sql(scripts = "classpath:sql/services_large.sql")
+class ServiceQueryPlanTest {
+
+  @Autowired
+  private ServiceService serviceService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @MockBean
+  private ServiceCategoryCatalog serviceCategoryCatalog;
+  @MockBean
+  private ServiceMapper serviceMapper;
+  @MockBean
+  private ServiceCategoryMapper serviceCategoryMapper;
+  @MockBean
+  private ServiceChangeMapper serviceChangeMapper;
+  @MockBean
+  private ServiceTitleIndex serviceTitleIndex;
+
+  @BeforeEach
+  void setUp() {
+    CapturingStatementInspector.STATEMENTS.clear();
+  }
+
+  @Test
+  void shouldUseCategoryPriceIndexWhenFilteringCategoryByPriceRangeOrderedByPrice() {
+    serviceService.getAllServices(PageRequest.of(0, 20, Sort.by("price")), 3L, null,
+        BigDecimal.valueOf(100), BigDecimal.valueOf(200));
+
+    var plan = explainListing(3, 100, 200, 20);
+
+    assertTrue(plan.contains("services_category_id_price_id_idx"), plan);
+    assertFalse(plan.contains("Seq Scan"), plan);
+    assertFalse(plan.contains("\"Node Type\": \"Sort\""), plan);
+  }
+
+  @Test
+  void shouldUseCategoryPriorityIndexWhenFilteringCategoryOrderedByPriority() {
+    serviceService.getAllServices(PageRequest.of(0, 20, Sort.by(Sort.Order.desc("priority"))),
+        3L, null, null, null);
+
+    var plan = explainListing(3, 20);
+
+    assertTrue(plan.contains("services_category_id_priority_id_idx"), plan);
+    assertFalse(plan.contains("Seq Scan"), plan);
+    assertFalse(plan.contains("\"Node Type\": \"Sort\""), plan);
+  }
+
+  @Test
+  void shouldUseCategoryPriceIndexWhenFilteringCategoryByPriceRangeOrderedByPriceDescending() {
+    serviceService.getAllServices(PageRequest.of(0, 20, Sort.by(Sort.Order.desc("price"))), 3L,
+        null, BigDecimal.valueOf(100), BigDecimal.valueOf(200));
+
+    var plan = explainListing(3, 100, 200, 20);
+
+    assertTrue(plan.contains("services_category_id_price_id_idx"), plan);
+    assertFalse(plan.contains("Seq Scan"), plan);
+    assertFalse(plan.contains("\"Node Type\": \"Sort\""), plan);
+  }
+
+  @Test
+  void shouldUseCategoryPriorityIndexWhenFilteringCategoryOrderedByPriorityAscending() {
+    serviceService.getAllServices(PageRequest.of(0, 20, Sort.by(Sort.Order.asc("priority"))),
+        3L, null, null, null);
+
+    var plan = explainListing(3, 20);
+
+    assertTrue(plan.contains("services_category_id_priority_id_idx"), plan);
+    assertFalse(plan.contains("Seq Scan"), plan);
+    assertFalse(plan.contains("\"Node Type\": \"Sort\""), plan);
+  }
+
+  @Test
+  void shouldUsePriceIndexWhenFilteringByPriceRangeOrderedByPrice() {
+    serviceService.getAllServices(PageRequest.of(0, 20, Sort.by("price")), null, null,
+        BigDecimal.valueOf(900), null);
+
+    var plan = explainListing(900, 20);
+
+    assertTrue(plan.contains("services_price_id_idx"), plan);
+    assertFalse(plan.contains("Seq Scan"), plan);
+  }
+
+  @Test
+  void shouldUsePriorityIndexWhenOrderingAllServicesByPriority() {
+    serviceService.getAllServices(PageRequest.of(0, 20, Sort.by(Sort.Order.desc("priority"))),
+        null, null, null, null);
+
+    var plan = explainListing(20);
+
+    assertTrue(plan.contains("services_priority_id_idx"), plan);
+    assertFalse(plan.contains("Seq Scan"), plan);
+    assertFalse(plan.contains("\"Node Type\": \"Sort\""), plan);
+  }
+
+  @Test
+  void shouldUsePriorityIndexWhenOrderingAllServicesByPriorityAscending() {
+    serviceService.getAllServices(PageRequest.of(0, 20, Sort.by(Sort.Order.asc("priority"))),
+        null, null, null, null);
+
+    var plan = explainListing(20);
+
+    assertTrue(plan.contains("services_priority_id_idx"), plan);
+    assertFalse(plan.contains("Seq Scan"), plan);
+    assertFalse(plan.contains("\"Node Type\": \"Sort\""), plan);
+  }
+
+  @Test
+  void shouldUseCategoryPriorityIndexWhenListingSummariesOfCategoryOrderedByPriority() {
+    serviceService.getAllServiceSummaries(
+        PageRequest.of(0, 20, Sort.by(Sort.Order.desc("priority"))), 3L, null, null, null);
+
+    var plan = explainListing(3, 20);
+
+    assertTrue(plan.contains("services_category_id_priority_id_idx"), plan);
+    assertFalse(plan.contains("\"Node Type\": \"Sort\""), plan);
+  }
+
+  /**
+   * Explains the ordered select captured from Hibernate, with {@code values} in place of its
+   * parameters.
+   */
+  private String explainListing(Object... values) {
+    var sql = CapturingStatementInspector.STATEMENTS.stream()
+        .filter(statement -> statement.contains(" order by "))
+        .reduce((first, second) -> second)
+        .orElseThrow(() -> new AssertionError(
+            "No ordered select captured: " + CapturingStatementInspector.STATEMENTS));
+
+    var parts = sql.split("\\?", -1);
+    assertEquals(values.length, parts.length - 1, sql);
+
+    var inlined = new StringBuilder(parts[0]);
+    for (int i = 0; i < values.length; i++) {
+      inlined.append(values[i]).append(parts[i + 1]);
+    }
+
+    List<String> plan = jdbcTemplate.queryForList("explain (format json) " + inlined,
+        String.class);
+    return String.join("\n", plan);
+  }
+
+  public static class CapturingStatementInspector implements StatementInspector {
+
+    static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+      STATEMENTS.add(sql);
+      return sql;
+    }
+  }
+}
@@ -3,6 +3,11 @@ package com.stepaniuk.service;
 import com.stepaniuk.service.testspecific.JpaLevelTest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.math.BigDecimal;
@@ -25,7 +30,7 @@ class ServiceRepositoryTest {
   void shouldSaveService(){
     Service serviceToSave = new Service(
         1L, 1L, UUID.randomUUID(), "title", "description", List.of("https://image.com/1"), BigDecimal.valueOf(100),
-        1, Instant.now(), Instant.now()
+        1, Instant.now(), Instant.now(), 0L, 0, BigDecimal.ZERO
     );
 
     Service savedService = serviceRepository.save(serviceToSave);
@@ -47,7 +52,7 @@ class ServiceRepositoryTest {
   void shouldThrowExceptionWhenSavingServiceWithoutTitle(){
     Service serviceToSave = new Service(
         null, 1L, UUID.randomUUID(), null, "Description", List.of("https://image.com/1"), BigDecimal.valueOf(100),
-        1, Instant.now(), Instant.now()
+        1, Instant.now(), Instant.now(), 0L, 0, BigDecimal.ZERO
     );
 
     assertThrows(Exception.class, () -> serviceRepository.save(serviceToSave));
@@ -118,4 +123,126 @@ class ServiceRepositoryTest {
     assertNotNull(services);
     assertFalse(services.isEmpty());
   }
+
+  @Test
+  void shouldReturnAllIdsInAscendingOrderWhenFindAllIds() {
+    List<Long> ids = serviceRepository.findAllIds();
+
+    assertEquals(List.of(1L, 2L, 3L), ids);
+  }
+
+  @Test
+  @Sql(scripts = {"classpath:sql/services_search_vector.sql", "classpath:sql/services.sql"})
+  void shouldReturnOnlyMatchingServicesWhenSearching() {
+    Page<ServiceSearchHit> hits = serviceRepository.search("second", PageRequest.of(0, 10));
+
+    assertEquals(1, hits.getTotalElements());
+    assertEquals(2L, hits.getContent().get(0).getId());
+    assertTrue(hits.getContent().get(0).getRank() > 0);
+  }
+
+  @Test
+  @Sql(scripts = {"classpath:sql/services_search_vector.sql", "classpath:sql/services.sql"})
+  void shouldReturnPageOfServicesRankedByTitleMatchesFirstWhenSearching() {
+    Page<ServiceSearchHit> hits = serviceRepository.search("third", PageRequest.of(0, 2));
+    Page<ServiceSearchHit> titleHits = serviceRepository.search("title", PageRequest.of(0, 2));
+    Page<ServiceSearchHit> descriptionHits = serviceRepository.search("description",
+        PageRequest.of(0, 2));
+
+    assertEquals(List.of(3L), hits.map(ServiceSearchHit::getId).getContent());
+    assertEquals(3, titleHits.getTotalElements());
+    assertEquals(List.of(1L, 2L), titleHits.map(ServiceSearchHit::getId).getContent());
+    assertTrue(titleHits.getContent().get(0).getRank()
+        > descriptionHits.getContent().get(0).getRank());
+  }
+
+  @Test
+  @Sql(scripts = {"classpath:sql/services_search_vector.sql", "classpath:sql/services.sql"})
+  void shouldReturnEmptyPageWhenNothingMatchesSearch() {
+    Page<ServiceSearchHit> hits = serviceRepository.search("missing", PageRequest.of(0, 10));
+
+    assertTrue(hits.isEmpty());
+    assertEquals(0, hits.getTotalElements());
+  }
+
+  @Test
+  void shouldReturnIdTitleAndPriorityOfEveryServiceWhenFindAllTitles() {
+    List<ServiceTitle> titles = serviceRepository.findAllTitles();
+
+    assertEquals(3, titles.size());
+    assertTrue(titles.stream().anyMatch(title -> title.getId() == 2L
+        && title.getTitle().equals("Second title") && title.getPriority() == 2));
+  }
+
+  @Test
+  void shouldReturnOnlyTitlesOfGivenIdsWhenFindAllTitlesByIdIn() {
+    List<ServiceTitle> titles = serviceRepository.findAllTitlesByIdIn(List.of(1L, 3L, 4L));
+
+    assertEquals(List.of(1L, 3L), titles.stream().map(ServiceTitle::getId).sorted().toList());
+  }
+
+  @Test
+  @Sql(scripts = {"classpath:sql/services_title_trgm.sql", "classpath:sql/services.sql"})
+  void shouldReturnTitlesWithSimilarWordsWhenFindSimilarTitles() {
+    List<ServiceTitle> titles = serviceRepository.findSimilarTitles("secon", 10);
+
+    assertEquals(List.of(2L), titles.stream().map(ServiceTitle::getId).toList());
+  }
+
+  @Test
+  void shouldReturnPageOfSummariesMatchingSpecificationWhenFindAllSummaries() {
+    Specification<Service> specification = (root, query, criteriaBuilder) -> criteriaBuilder
+        .greaterThanOrEqualTo(root.get("price"), BigDecimal.valueOf(200));
+
+    Page<ServiceSummary> summaries = serviceRepository.findAllSummaries(specification,
+        PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "priority")));
+
+    assertEquals(2, summaries.getTotalElements());
+    assertEquals(2, summaries.getTotalPages());
+    assertEquals(1, summaries.getNumberOfElements());
+
+    ServiceSummary summary = summaries.getContent().get(0);
+    assertEquals(3L, summary.id());
+    assertEquals(3L, summary.categoryId());
+    assertEquals("Third title", summary.title());
+    assertThat(summary.price()).isEqualByComparingTo(BigDecimal.valueOf(300));
+    assertEquals(3, summary.priority());
+  }
+
+  @Test
+  void shouldReturnEverySummaryWhenFindAllSummariesUnpaged() {
+    Page<ServiceSummary> summaries = serviceRepository.findAllSummaries(
+        Specification.where(null), Pageable.unpaged(Sort.by("id")));
+
+    assertEquals(List.of(1L, 2L, 3L), summaries.map(ServiceSummary::id).getContent());
+  }
+
+  @Test
+  void shouldAddRatingsAndRecomputeAverageWhenAddingRatings() {
+    int updated = serviceRepository.addRatings(1L, 9, 2);
+
+    Service service = serviceRepository.findById(1L).orElseThrow();
+
+    assertEquals(1, updated);
+    assertEquals(9L, service.getRatingSum());
+    assertEquals(2, service.getRatingCount());
+    assertThat(service.getAvgRating()).isEqualByComparingTo(new BigDecimal("4.50"));
+  }
+
+  @Test
+  void shouldResetAverageWhenLastRatingIsRemoved() {
+    serviceRepository.addRatings(2L, 4, 1);
+    serviceRepository.addRatings(2L, -4, -1);
+
+    Service service = serviceRepository.findById(2L).orElseThrow();
+
+    assertEquals(0L, service.getRatingSum());
+    assertEquals(0, service.getRatingCount());
+    assertThat(service.getAvgRating()).isEqualByComparingTo(BigDecimal.ZERO);
+  }
+
+  @Test
+  void shouldUpdateNothingWhenAddingRatingsOfMissingService() {
+    assertEquals(0, serviceRepository.addRatings(4L, 5, 1));
+  }
 }
@@ -3,7 +3,11 @@ package com.stepaniuk.service;
 
 import com.stepaniuk.service.category.ServiceCategory;
 import com.stepaniuk.service.category.ServiceCategoryMapperImpl;
-import com.stepaniuk.service.category.ServiceCategoryRepository;
+import com.stepaniuk.service.category.ServiceCategoryCatalog;
+import com.stepaniuk.service.change.ServiceChange;
+import com.stepaniuk.service.change.ServiceChangeMapperImpl;
+import com.stepaniuk.service.change.ServiceChangeRepository;
+import com.stepaniuk.service.suggest.ServiceTitleIndex;
 import com.stepaniuk.zrobleno.payload.service.ServiceCreateRequest;
 import com.stepaniuk.zrobleno.payload.service.ServiceResponse;
 import com.stepaniuk.zrobleno.payload.service.ServiceUpdateRequest;
@@ -11,13 +15,21 @@ import com.stepaniuk.zrobleno.payload.service.category.ServiceCategoryResponse;
 import com.stepaniuk.zrobleno.testspecific.ServiceLevelUnitTest;
 import com.stepaniuk.zrobleno.types.exception.service.NoSuchServiceByIdException;
 import com.stepaniuk.zrobleno.types.exception.service.NoSuchServiceCategoryByIdException;
+import com.stepaniuk.zrobleno.types.service.ServiceChangeType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.stubbing.Answer1;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ContextConfiguration;
 
@@ -37,7 +49,7 @@ import static org.mockito.Mockito.*;
 
 @ServiceLevelUnitTest
 @ContextConfiguration(classes = {ServiceService.class, ServiceMapperImpl.class,
-    ServiceCategoryMapperImpl.class})
+    ServiceCategoryMapperImpl.class, ServiceChangeMapperImpl.class})
 class ServiceServiceTest {
 
   @Autowired
@@ -45,7 +57,11 @@ class ServiceServiceTest {
   @MockBean
   private ServiceRepository serviceRepository;
   @MockBean
-  private ServiceCategoryRepository serviceCategoryRepository;
+  private ServiceCategoryCatalog serviceCategoryCatalog;
+  @MockBean
+  private ServiceChangeRepository serviceChangeRepository;
+  @MockBean
+  private ServiceTitleIndex serviceTitleIndex;
 
   @Test
   void shouldReturnServiceResponseWhenCreatingService(){
@@ -57,7 +73,7 @@ class ServiceServiceTest {
         Instant.now(), Instant.now()
     );
 
-    when(serviceCategoryRepository.findById(1L)).thenReturn(Optional.of(serviceCategory));
+    when(serviceCategoryCatalog.findById(1L)).thenReturn(Optional.of(serviceCategory));
     when(serviceRepository.save(any())).thenAnswer(answer(getFakeSave(1L)));
 
     ServiceResponse serviceResponse = serviceService.createService(serviceCreateRequest);
@@ -72,6 +88,11 @@ class ServiceServiceTest {
     assertEquals(serviceCreateRequest.getPriority(), serviceResponse.getPriority());
     assertThat(serviceCreateRequest.getPrice()).isEqualByComparingTo(serviceResponse.getPrice());
     assertTrue(serviceResponse.hasLinks());
+
+    var changeCaptor = ArgumentCaptor.forClass(ServiceChange.class);
+    verify(serviceChangeRepository).save(changeCaptor.capture());
+    assertEquals(1L, changeCaptor.getValue().getServiceId());
+    assertEquals(ServiceChangeType.CREATED, changeCaptor.getValue().getType());
   }
 
   @Test
@@ -83,7 +104,7 @@ class ServiceServiceTest {
 
     Service serviceToFind = new Service(
         1L, 1L, UUID.randomUUID(), "title", "description", List.of("https://image.com/1"), BigDecimal.valueOf(100),
-        1, timeOfCreation, timeOfModification
+        1, timeOfCreation, timeOfModification, 0L, 0, BigDecimal.ZERO
     );
 
     when(serviceRepository.findById(1L)).thenReturn(Optional.of(serviceToFind));
@@ -126,7 +147,7 @@ class ServiceServiceTest {
 
     Service serviceToFind = new Service(
         1L, 1L, UUID.randomUUID(), "title", "description", List.of("https://image.com/1"), BigDecimal.valueOf(100),
-        1, timeOfCreation, timeOfModification
+        1, timeOfCreation, timeOfModification, 0L, 0, BigDecimal.ZERO
     );
     Pageable pageable = PageRequest.of(0, 2);
     Specification<Service> specification = Specification.where(null);
@@ -135,7 +156,7 @@ class ServiceServiceTest {
         new PageImpl<>(List.of(serviceToFind), pageable, 1));
 
     // when
-    var responsePage = serviceService.getAllServices(pageable, null, null);
+    var responsePage = serviceService.getAllServices(pageable, null, null, null, null);
     var serviceResponse = responsePage.getContent().iterator().next();
 
     // then
@@ -167,7 +188,7 @@ class ServiceServiceTest {
 
     Service serviceToFind = new Service(
         1L, 1L, UUID.randomUUID(), "title", "description", List.of("https://image.com/1"), BigDecimal.valueOf(100),
-        1, timeOfCreation, timeOfModification
+        1, timeOfCreation, timeOfModification, 0L, 0, BigDecimal.ZERO
     );
     Pageable pageable = PageRequest.of(0, 2);
 
@@ -175,7 +196,7 @@ class ServiceServiceTest {
         new PageImpl<>(List.of(serviceToFind), pageable, 1));
 
     // when
-    var responsePage = serviceService.getAllServices(pageable, 1L, null);
+    var responsePage = serviceService.getAllServices(pageable, 1L, null, null, null);
     var serviceResponse = responsePage.getContent().iterator().next();
 
     // then
@@ -199,6 +220,177 @@ class ServiceServiceTest {
     assertTrue(serviceResponse.hasLinks());
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldFilterByCategoryIdWhenGettingAllServicesWhenCategoryIdNotNull() {
+    // given
+    Pageable pageable = PageRequest.of(0, 2);
+    ArgumentCaptor<Specification<Service>> specificationCaptor = ArgumentCaptor.forClass(
+        Specification.class);
+    Root<Service> root = mock(Root.class);
+    Path<Object> categoryIdPath = mock(Path.class);
+    CriteriaQuery<?> query = mock(CriteriaQuery.class);
+    CriteriaBuilder criteriaBuilder = mock(CriteriaBuilder.class);
+    Predicate categoryIdPredicate = mock(Predicate.class);
+
+    when(serviceRepository.findAll(specificationCaptor.capture(), eq(pageable))).thenReturn(
+        new PageImpl<>(List.of(), pageable, 0));
+    when(root.get("categoryId")).thenReturn(categoryIdPath);
+    when(criteriaBuilder.equal(categoryIdPath, 1L)).thenReturn(categoryIdPredicate);
+
+    // when
+    serviceService.getAllServices(pageable, 1L, null, null, null);
+
+    // then
+    var predicate = specificationCaptor.getValue().toPredicate(root, query, criteriaBuilder);
+    assertEquals(categoryIdPredicate, predicate);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldFilterByPriceRangeWhenGettingAllServicesWhenPricesNotNull() {
+    // given
+    Pageable pageable = PageRequest.of(0, 2, Sort.by("price"));
+    ArgumentCaptor<Specification<Service>> specificationCaptor = ArgumentCaptor.forClass(
+        Specification.class);
+    Root<Service> root = mock(Root.class);
+    Path<BigDecimal> pricePath = mock(Path.class);
+    CriteriaQuery<?> query = mock(CriteriaQuery.class);
+    CriteriaBuilder criteriaBuilder = mock(CriteriaBuilder.class);
+    Predicate minPricePredicate = mock(Predicate.class);
+    Predicate maxPricePredicate = mock(Predicate.class);
+    Predicate priceRangePredicate = mock(Predicate.class);
+    var minPrice = BigDecimal.valueOf(100);
+    var maxPrice = BigDecimal.valueOf(200);
+
+    when(serviceRepository.findAll(specificationCaptor.capture(),
+        eq(PageRequest.of(0, 2, Sort.by("price", "id"))))).thenReturn(
+        new PageImpl<>(List.of(), pageable, 0));
+    when(root.<BigDecimal>get("price")).thenReturn(pricePath);
+    when(criteriaBuilder.greaterThanOrEqualTo(pricePath, minPrice)).thenReturn(minPricePredicate);
+    when(criteriaBuilder.lessThanOrEqualTo(pricePath, maxPrice)).thenReturn(maxPricePredicate);
+    when(criteriaBuilder.and(minPricePredicate, maxPricePredicate)).thenReturn(
+        priceRangePredicate);
+
+    // when
+    serviceService.getAllServices(pageable, null, null, minPrice, maxPrice);
+
+    // then
+    var predicate = specificationCaptor.getValue().toPredicate(root, query, criteriaBuilder);
+    assertEquals(priceRangePredicate, predicate);
+  }
+
+  @Test
+  void shouldAppendIdToSortWhenGettingAllServices() {
+    // given
+    Pageable pageable = PageRequest.of(1, 20, Sort.by(Sort.Order.desc("priority")));
+    Pageable expectedPageable = PageRequest.of(1, 20,
+        Sort.by(Sort.Order.desc("priority"), Sort.Order.desc("id")));
+
+    when(serviceRepository.findAll(any(Specification.class), eq(expectedPageable))).thenReturn(
+        new PageImpl<>(List.of(), expectedPageable, 0));
+
+    // when
+    serviceService.getAllServices(pageable, 1L, null, null, null);
+
+    // then
+    verify(serviceRepository).findAll(any(Specification.class), eq(expectedPageable));
+  }
+
+  @Test
+  void shouldAppendIdInDirectionOfLastSortKeyWhenAppendingIdTieBreaker() {
+    Pageable ascending = PageRequest.of(0, 20, Sort.by(Sort.Order.asc("price")));
+    Pageable mixed = PageRequest.of(0, 20,
+        Sort.by(Sort.Order.asc("price"), Sort.Order.desc("priority")));
+
+    assertEquals(Sort.by(Sort.Order.asc("price"), Sort.Order.asc("id")),
+        ServiceService.withIdTieBreaker(ascending).getSort());
+    assertEquals(Sort.by(Sort.Order.asc("price"), Sort.Order.desc("priority"),
+            Sort.Order.desc("id")),
+        ServiceService.withIdTieBreaker(mixed).getSort());
+  }
+
+  @Test
+  void shouldKeepSortThatAlreadyHasIdWhenAppendingIdTieBreaker() {
+    Pageable pageable = PageRequest.of(0, 20,
+        Sort.by(Sort.Order.desc("id"), Sort.Order.asc("price")));
+    Pageable unpaged = Pageable.unpaged();
+
+    assertSame(pageable, ServiceService.withIdTieBreaker(pageable));
+    assertSame(unpaged, ServiceService.withIdTieBreaker(unpaged));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldReturnPageOfSummariesFilteredByCategoryIdWhenGettingAllServiceSummaries() {
+    // given
+    Pageable pageable = PageRequest.of(0, 2);
+    ArgumentCaptor<Specification<Service>> specificationCaptor = ArgumentCaptor.forClass(
+        Specification.class);
+    Root<Service> root = mock(Root.class);
+    Path<Object> categoryIdPath = mock(Path.class);
+    CriteriaQuery<?> query = mock(CriteriaQuery.class);
+    CriteriaBuilder criteriaBuilder = mock(CriteriaBuilder.class);
+    Predicate categoryIdPredicate = mock(Predicate.class);
+    var summary = new ServiceSummary(1L, 1L, "title", BigDecimal.valueOf(100), 2);
+
+    when(serviceRepository.findAllSummaries(specificationCaptor.capture(), eq(pageable)))
+        .thenReturn(new PageImpl<>(List.of(summary), pageable, 1));
+    when(root.get("categoryId")).thenReturn(categoryIdPath);
+    when(criteriaBuilder.equal(categoryIdPath, 1L)).thenReturn(categoryIdPredicate);
+
+    // when
+    var responsePage = serviceService.getAllServiceSummaries(pageable, 1L, null, null, null);
+
+    // then
+    var predicate = specificationCaptor.getValue().toPredicate(root, query, criteriaBuilder);
+    assertEquals(categoryIdPredicate, predicate);
+    assertEquals(1, responsePage.getTotalElements());
+
+    var summaryResponse = responsePage.getContent().get(0);
+    assertEquals(summary.id(), summaryResponse.getId());
+    assertEquals(summary.title(), summaryResponse.getTitle());
+    assertEquals(summary.price(), summaryResponse.getPrice());
+    assertTrue(summaryResponse.hasLinks());
+    verify(serviceRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+  }
+
+  @Test
+  void shouldReturnRankedPageOfServicesWhenSearchingServices() {
+    // given
+    var first = new Service(
+        1L, 1L, UUID.randomUUID(), "Phone repair", "description", List.of("https://image.com/1"),
+        BigDecimal.valueOf(100), 1, Instant.now(), Instant.now(), 0L, 0, BigDecimal.ZERO
+    );
+    var second = new Service(
+        2L, 1L, UUID.randomUUID(), "Cleaning", "Phone cleaning", List.of("https://image.com/2"),
+        BigDecimal.valueOf(100), 1, Instant.now(), Instant.now(), 0L, 0, BigDecimal.ZERO
+    );
+    var pageable = PageRequest.of(0, 2);
+    var firstHit = mock(ServiceSearchHit.class);
+    var secondHit = mock(ServiceSearchHit.class);
+
+    when(firstHit.getId()).thenReturn(2L);
+    when(firstHit.getRank()).thenReturn(0.5f);
+    when(secondHit.getId()).thenReturn(1L);
+    when(secondHit.getRank()).thenReturn(0.2f);
+    when(serviceRepository.search("phone", pageable)).thenReturn(
+        new PageImpl<>(List.of(firstHit, secondHit), pageable, 3));
+    when(serviceRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(first, second));
+
+    // when
+    var responsePage = serviceService.searchServices("phone", pageable);
+
+    // then
+    assertEquals(3, responsePage.getTotalElements());
+    assertEquals(2, responsePage.getContent().size());
+    assertEquals(2L, responsePage.getContent().get(0).getService().getId());
+    assertEquals(0.5f, responsePage.getContent().get(0).getRank());
+    assertEquals(1L, responsePage.getContent().get(1).getService().getId());
+    assertEquals(0.2f, responsePage.getContent().get(1).getRank());
+    assertTrue(responsePage.getContent().get(0).getService().hasLinks());
+  }
+
   @Test
   void shouldReturnPageOfServicesWhenGettingAllServicesWhenServiceIdsNotNull() {
     // given
@@ -207,7 +399,7 @@ class ServiceServiceTest {
 
     Service serviceToFind = new Service(
         1L, 1L, UUID.randomUUID(), "title", "description", List.of("https://image.com/1"), BigDecimal.valueOf(100),
-        1, timeOfCreation, timeOfModification
+        1, timeOfCreation, timeOfModification, 0L, 0, BigDecimal.ZERO
     );
     Pageable pageable = PageRequest.of(0, 2);
 
@@ -215,7 +407,7 @@ class ServiceServiceTest {
         new PageImpl<>(List.of(serviceToFind), pageable, 1));
 
     // when
-    var responsePage = serviceService.getAllServices(pageable, null, List.of(1L));
+    var responsePage = serviceService.getAllServices(pageable, null, List.of(1L), null, null);
     var serviceResponse = responsePage.getContent().iterator().next();
 
     // then
@@ -247,7 +439,7 @@ class ServiceServiceTest {
 
     Service serviceToFind = new Service(
         1L, 1L, UUID.randomUUID(), "title", "description", List.of("https://image.com/1"), BigDecimal.valueOf(100),
-        1, timeOfCreation, timeOfModification
+        1, timeOfCreation, timeOfModification, 0L, 0, BigDecimal.ZERO
     );
 
     when(serviceRepository.findById(1L)).thenReturn(Optional.of(serviceToFind));
@@ -255,6 +447,57 @@ class ServiceServiceTest {
     serviceService.deleteService(1L);
 
     verify(serviceRepository, times(1)).delete(serviceToFind);
+
+    var changeCaptor = ArgumentCaptor.forClass(ServiceChange.class);
+    verify(serviceChangeRepository).save(changeCaptor.capture());
+    assertEquals(1L, changeCaptor.getValue().getServiceId());
+    assertEquals(ServiceChangeType.DELETED, changeCaptor.getValue().getType());
+  }
+
+  @Test
+  void shouldReturnServiceIdsWithSnapshotPositionWhenGettingServiceIds() {
+    when(serviceChangeRepository.findSnapshotTransactionId()).thenReturn(100L);
+    when(serviceRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+
+    var response = serviceService.getServiceIds();
+
+    assertEquals(List.of(1L, 2L, 3L), response.getIds());
+    assertEquals(100L, response.getLastTransactionId());
+    assertEquals(0L, response.getLastChangeId());
+  }
+
+  @Test
+  void shouldReturnChangesAfterGivenPositionWhenGettingServiceChanges() {
+    var timeOfCreation = Instant.now();
+    var changes = List.of(
+        new ServiceChange(7L, 4L, ServiceChangeType.CREATED, timeOfCreation, 100L),
+        new ServiceChange(6L, 2L, ServiceChangeType.DELETED, timeOfCreation, 101L)
+    );
+
+    when(serviceChangeRepository.findAllCompletedAfter(99L, 5L, 10)).thenReturn(changes);
+
+    var response = serviceService.getServiceChanges(99L, 5L, 10);
+
+    assertEquals(2, response.getChanges().size());
+    assertEquals(7L, response.getChanges().get(0).getId());
+    assertEquals(4L, response.getChanges().get(0).getServiceId());
+    assertEquals(ServiceChangeType.CREATED, response.getChanges().get(0).getType());
+    assertEquals(timeOfCreation, response.getChanges().get(0).getCreatedAt());
+    assertEquals(ServiceChangeType.DELETED, response.getChanges().get(1).getType());
+    assertEquals(6L, response.getLastChangeId());
+    assertEquals(101L, response.getLastTransactionId());
+  }
+
+  @Test
+  void shouldKeepGivenPositionWhenThereAreNoNewChanges() {
+    when(serviceChangeRepository.findAllCompletedAfter(eq(99L), eq(5L), anyInt()))
+        .thenReturn(List.of());
+
+    var response = serviceService.getServiceChanges(99L, 5L, 10);
+
+    assertTrue(response.getChanges().isEmpty());
+    assertEquals(5L, response.getLastChangeId());
+    assertEquals(99L, response.getLastTransactionId());
   }
 
   @Test
@@ -274,7 +517,7 @@ class ServiceServiceTest {
 
     Service serviceToFind = new Service(
         1L, 1L, UUID.randomUUID(), "title", "description", List.of("https://image.com/1"), BigDecimal.valueOf(100),
-        1, timeOfCreation, timeOfModification
+        1, timeOfCreation, timeOfModification, 0L, 0, BigDecimal.ZERO
     );
 
     var updateRequest = new ServiceUpdateRequest(null, null, "new description", null, null, null);
@@ -312,7 +555,7 @@ class ServiceServiceTest {
       1L, "title", "description", List.of("https://image.com/1"), timeOfCreation, timeOfModification
     );
 
-    when(serviceCategoryRepository.findById(1L)).thenReturn(Optional.of(serviceCategoryToFind));
+    when(serviceCategoryCatalog.findById(1L)).thenReturn(Optional.of(serviceCategoryToFind));
 
     // when
     ServiceCategoryResponse serviceCategoryResponse = serviceService.getServiceCategory(1L);
@@ -334,7 +577,7 @@ class ServiceServiceTest {
   @Test
   void shouldThrowNoSuchServiceCategoryByIdExceptionWhenGetByNonExistingId() {
     // given
-    when(serviceCategoryRepository.findById(1L)).thenReturn(Optional.empty());
+    when(serviceCategoryCatalog.findById(1L)).thenReturn(Optional.empty());
 
     // when && then
     assertThrows(NoSuchServiceCategoryByIdException.class, () -> serviceService.getServiceCategory(1L));
@@ -350,9 +593,8 @@ class ServiceServiceTest {
         1L, "title", "description", List.of("https://image.com/1"), timeOfCreation, timeOfModification
     );
     Pageable pageable = PageRequest.of(0, 2);
-    Specification<ServiceCategory> specification = Specification.where(null);
 
-    when(serviceCategoryRepository.findAll(specification, pageable)).thenReturn(
+    when(serviceCategoryCatalog.findAll(pageable, null)).thenReturn(
         new PageImpl<>(List.of(serviceCategoryToFind), pageable, 1));
 
     // when
@@ -387,7 +629,7 @@ class ServiceServiceTest {
     );
     Pageable pageable = PageRequest.of(0, 2);
 
-    when(serviceCategoryRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(
+    when(serviceCategoryCatalog.findAll(pageable, List.of(1L))).thenReturn(
         new PageImpl<>(List.of(serviceCategoryToFind), pageable, 1));
 
     // when
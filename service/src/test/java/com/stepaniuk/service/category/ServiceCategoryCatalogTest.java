@@ -0,0 +1,124 @@
+package com.stepaniuk.service.category;
+
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ServiceCategoryCatalogTest {
+
+  private final ServiceCategoryRepository serviceCategoryRepository = mock(
+      ServiceCategoryRepository.class);
+
+  private ServiceCategoryCatalog serviceCategoryCatalog;
+
+  @BeforeEach
+  void setUp() {
+    when(serviceCategoryRepository.findAll()).thenReturn(List.of(
+        getCategory(3L, "Cleaning"), getCategory(1L, "Repair"), getCategory(2L, "Delivery")));
+
+    serviceCategoryCatalog = new ServiceCategoryCatalog(serviceCategoryRepository);
+  }
+
+  @Test
+  void shouldLoadCategoriesOnceWhenReadingRepeatedly() {
+    // when
+    var first = serviceCategoryCatalog.findById(1L);
+    var second = serviceCategoryCatalog.findById(2L);
+    var missing = serviceCategoryCatalog.findById(4L);
+
+    // then
+    assertEquals("Repair", first.orElseThrow().getTitle());
+    assertEquals("Delivery", second.orElseThrow().getTitle());
+    assertTrue(missing.isEmpty());
+    verify(serviceCategoryRepository, times(1)).findAll();
+  }
+
+  @Test
+  void shouldReturnPageOfCategoriesOrderedByIdWhenPageableIsUnsorted() {
+    // when
+    var page = serviceCategoryCatalog.findAll(PageRequest.of(0, 2), null);
+
+    // then
+    assertEquals(3, page.getTotalElements());
+    assertEquals(2, page.getTotalPages());
+    assertEquals(List.of(1L, 2L), page.map(ServiceCategory::getId).getContent());
+  }
+
+  @Test
+  void shouldReturnLastPageOfCategories() {
+    // when
+    var page = serviceCategoryCatalog.findAll(PageRequest.of(1, 2), null);
+
+    // then
+    assertEquals(List.of(3L), page.map(ServiceCategory::getId).getContent());
+  }
+
+  @Test
+  void shouldReturnAllCategoriesWhenPageableIsUnpaged() {
+    // when
+    var page = serviceCategoryCatalog.findAll(Pageable.unpaged(), null);
+
+    // then
+    assertEquals(List.of(1L, 2L, 3L), page.map(ServiceCategory::getId).getContent());
+  }
+
+  @Test
+  void shouldReturnOnlyExistingCategoriesWithGivenIds() {
+    // when
+    var page = serviceCategoryCatalog.findAll(PageRequest.of(0, 10), List.of(3L, 1L, 3L, 5L));
+
+    // then
+    assertEquals(2, page.getTotalElements());
+    assertEquals(List.of(1L, 3L), page.map(ServiceCategory::getId).getContent());
+  }
+
+  @Test
+  void shouldSortCategoriesByPageableSort() {
+    // when
+    var page = serviceCategoryCatalog.findAll(
+        PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "title")), null);
+
+    // then
+    assertEquals(List.of("Repair", "Delivery", "Cleaning"),
+        page.map(ServiceCategory::getTitle).getContent());
+  }
+
+  @Test
+  void shouldThrowPropertyReferenceExceptionWhenSortingByUnknownProperty() {
+    // given
+    var pageable = PageRequest.of(0, 10, Sort.by("unknown"));
+
+    // when && then
+    assertThrows(PropertyReferenceException.class,
+        () -> serviceCategoryCatalog.findAll(pageable, null));
+  }
+
+  @Test
+  void shouldSeeNewCategoriesAfterReload() {
+    // given
+    serviceCategoryCatalog.findById(1L);
+    when(serviceCategoryRepository.findAll()).thenReturn(List.of(getCategory(4L, "Moving")));
+
+    // when
+    serviceCategoryCatalog.reload();
+
+    // then
+    assertEquals("Moving", serviceCategoryCatalog.findById(4L).orElseThrow().getTitle());
+    assertTrue(serviceCategoryCatalog.findById(1L).isEmpty());
+  }
+
+  private ServiceCategory getCategory(Long id, String title) {
+    return new ServiceCategory(id, title, "description", List.of("https://image.com/1"),
+        Instant.now(), Instant.now());
+  }
+}
@@ -0,0 +1,119 @@
+package com.stepaniuk.service.change;
+
+
+import com.stepaniuk.service.testspecific.JpaLevelTest;
+import com.stepaniuk.zrobleno.types.service.ServiceChangeType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a surrounding test transaction, so that each change commits on its own and a
+ * change can be kept uncommitted while others commit.
+ */
+@JpaLevelTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(statements = "delete from service_changes",
+    executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ServiceChangeRepositoryTest {
+
+  @Autowired
+  private ServiceChangeRepository serviceChangeRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Test
+  void shouldSaveChangeWithTransactionId() {
+    // when
+    var savedChange = serviceChangeRepository.save(
+        new ServiceChange(1L, ServiceChangeType.CREATED));
+
+    // then
+    assertNotNull(savedChange.getId());
+    assertNotNull(savedChange.getCreatedAt());
+    var foundChange = serviceChangeRepository.findById(savedChange.getId()).orElseThrow();
+    assertNotNull(foundChange.getTransactionId());
+  }
+
+  @Test
+  void shouldReturnCompletedChangesAfterGivenPositionInOrder() {
+    // given
+    var first = serviceChangeRepository.save(new ServiceChange(1L, ServiceChangeType.CREATED));
+    var second = serviceChangeRepository.save(new ServiceChange(1L, ServiceChangeType.UPDATED));
+    var third = serviceChangeRepository.save(new ServiceChange(1L, ServiceChangeType.DELETED));
+    var firstTransactionId = serviceChangeRepository.findById(first.getId()).orElseThrow()
+        .getTransactionId();
+
+    // when
+    var changes = serviceChangeRepository.findAllCompletedAfter(firstTransactionId,
+        first.getId(), 1);
+
+    // then
+    assertEquals(1, changes.size());
+    assertEquals(second.getId(), changes.get(0).getId());
+    assertTrue(changes.get(0).getId() < third.getId());
+  }
+
+  @Test
+  void shouldNotReturnChangesAfterChangeOfRunningTransaction() throws Exception {
+    // given
+    var inserted = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var running = CompletableFuture.supplyAsync(() ->
+        new TransactionTemplate(transactionManager).execute(transaction -> {
+          var change = serviceChangeRepository.saveAndFlush(
+              new ServiceChange(1L, ServiceChangeType.CREATED));
+          inserted.countDown();
+          await(release);
+          return change;
+        }));
+    assertTrue(inserted.await(10, TimeUnit.SECONDS));
+    var committed = serviceChangeRepository.save(new ServiceChange(2L, ServiceChangeType.CREATED));
+
+    // when
+    var changesWhileRunning = serviceChangeRepository.findAllCompletedAfter(0L, 0L, 10);
+    release.countDown();
+    var late = running.get(10, TimeUnit.SECONDS);
+    var changesAfterCommit = serviceChangeRepository.findAllCompletedAfter(0L, 0L, 10);
+
+    // then
+    assertTrue(changesWhileRunning.isEmpty());
+    assertEquals(2, changesAfterCommit.size());
+    assertEquals(late.getId(), changesAfterCommit.get(0).getId());
+    assertEquals(committed.getId(), changesAfterCommit.get(1).getId());
+  }
+
+  @Test
+  void shouldReturnSnapshotTransactionIdNotAfterCompletedChanges() {
+    // given
+    var change = serviceChangeRepository.save(new ServiceChange(1L, ServiceChangeType.CREATED));
+    var transactionId = serviceChangeRepository.findById(change.getId()).orElseThrow()
+        .getTransactionId();
+
+    // when
+    var snapshotTransactionId = serviceChangeRepository.findSnapshotTransactionId();
+
+    // then
+    assertTrue(snapshotTransactionId > transactionId);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package com.stepaniuk.service.rating;
+
+
+import com.stepaniuk.service.testspecific.JpaLevelTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@JpaLevelTest
+class ServiceRatingCursorRepositoryTest {
+
+  @Autowired
+  private ServiceRatingCursorRepository serviceRatingCursorRepository;
+
+  @Test
+  void shouldReturnEmptyWhenCursorDoesNotExist() {
+    assertEquals(Optional.empty(), serviceRatingCursorRepository.findCursor());
+  }
+
+  @Test
+  void shouldCreateCursorAtZeroOnlyOnce() {
+    // when
+    serviceRatingCursorRepository.createIfAbsent();
+    serviceRatingCursorRepository.advance(0L, 0L, 100L, 5L);
+    serviceRatingCursorRepository.createIfAbsent();
+
+    // then
+    var cursor = serviceRatingCursorRepository.findCursor().orElseThrow();
+    assertEquals(100L, cursor.getLastTransactionId());
+    assertEquals(5L, cursor.getLastChangeId());
+  }
+
+  @Test
+  void shouldAdvanceCursorOnlyFromExpectedPosition() {
+    // given
+    serviceRatingCursorRepository.createIfAbsent();
+
+    // when
+    int first = serviceRatingCursorRepository.advance(0L, 0L, 100L, 5L);
+    int second = serviceRatingCursorRepository.advance(0L, 0L, 101L, 7L);
+    int third = serviceRatingCursorRepository.advance(99L, 5L, 101L, 7L);
+
+    // then
+    assertEquals(1, first);
+    assertEquals(0, second);
+    assertEquals(0, third);
+    var cursor = serviceRatingCursorRepository.findCursor().orElseThrow();
+    assertEquals(100L, cursor.getLastTransactionId());
+    assertEquals(5L, cursor.getLastChangeId());
+  }
+}
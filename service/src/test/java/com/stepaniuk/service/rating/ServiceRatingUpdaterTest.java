@@ -0,0 +1,133 @@
+package com.stepaniuk.service.rating;
+
+
+import com.stepaniuk.service.CacheConfig;
+import com.stepaniuk.service.ServiceRepository;
+import com.stepaniuk.zrobleno.payload.feedback.FeedbackRatingChangeResponse;
+import com.stepaniuk.zrobleno.payload.feedback.FeedbackRatingChangesResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ServiceRatingUpdaterTest {
+
+  private final FeedbackClient feedbackClient = mock(FeedbackClient.class);
+  private final ServiceRepository serviceRepository = mock(ServiceRepository.class);
+  private final ServiceRatingCursorRepository serviceRatingCursorRepository = mock(
+      ServiceRatingCursorRepository.class);
+  private final PlatformTransactionManager transactionManager = mock(
+      PlatformTransactionManager.class);
+  private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
+      CacheConfig.SERVICES_CACHE);
+
+  private ServiceRatingUpdater serviceRatingUpdater;
+
+  @BeforeEach
+  void setUp() {
+    when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    serviceRatingUpdater = new ServiceRatingUpdater(feedbackClient, serviceRepository,
+        serviceRatingCursorRepository, transactionManager, cacheManager, 3);
+  }
+
+  @Test
+  void shouldAddSummedDeltasPerServiceAndAdvanceCursor() {
+    // given
+    var now = Instant.now();
+    when(serviceRatingCursorRepository.findCursor()).thenReturn(cursorAt(100L, 10L));
+    when(feedbackClient.getRatingChanges(100L, 10L, 3)).thenReturn(
+        new FeedbackRatingChangesResponse(List.of(
+            new FeedbackRatingChangeResponse(11L, 1L, 1L, 5, 1, now),
+            new FeedbackRatingChangeResponse(12L, 2L, 2L, 3, 1, now),
+            new FeedbackRatingChangeResponse(13L, 1L, 1L, -2, 0, now)
+        ), 13L, 102L));
+    when(serviceRatingCursorRepository.advance(100L, 10L, 102L, 13L)).thenReturn(1);
+    cacheManager.getCache(CacheConfig.SERVICES_CACHE).put(1L, "cached");
+
+    // when
+    var applied = serviceRatingUpdater.applyNextChanges();
+
+    // then
+    assertEquals(3, applied);
+    verify(serviceRepository).addRatings(1L, 3L, 1);
+    verify(serviceRepository).addRatings(2L, 3L, 1);
+    verifyNoMoreInteractions(serviceRepository);
+    assertNull(cacheManager.getCache(CacheConfig.SERVICES_CACHE).get(1L));
+  }
+
+  @Test
+  void shouldApplyNothingWhenAnotherInstanceMovedCursor() {
+    // given
+    when(serviceRatingCursorRepository.findCursor()).thenReturn(cursorAt(100L, 10L));
+    when(feedbackClient.getRatingChanges(100L, 10L, 3)).thenReturn(
+        new FeedbackRatingChangesResponse(
+            List.of(new FeedbackRatingChangeResponse(11L, 1L, 1L, 5, 1, Instant.now())), 11L,
+            101L));
+    when(serviceRatingCursorRepository.advance(100L, 10L, 101L, 11L)).thenReturn(0);
+
+    // when
+    var applied = serviceRatingUpdater.applyNextChanges();
+
+    // then
+    assertEquals(0, applied);
+    verifyNoInteractions(serviceRepository);
+  }
+
+  @Test
+  void shouldCreateCursorAndReadFromStartWhenCursorDoesNotExist() {
+    // given
+    when(serviceRatingCursorRepository.findCursor()).thenReturn(Optional.empty());
+    when(feedbackClient.getRatingChanges(0L, 0L, 3)).thenReturn(
+        new FeedbackRatingChangesResponse(List.of(), 0L, 0L));
+
+    // when
+    var applied = serviceRatingUpdater.applyNextChanges();
+
+    // then
+    assertEquals(0, applied);
+    verify(serviceRatingCursorRepository).createIfAbsent();
+    verify(serviceRatingCursorRepository, never()).advance(anyLong(), anyLong(), anyLong(),
+        anyLong());
+  }
+
+  @Test
+  void shouldPollUntilBatchIsNotFull() {
+    // given
+    var now = Instant.now();
+    when(serviceRatingCursorRepository.findCursor()).thenReturn(cursorAt(0L, 0L),
+        cursorAt(100L, 3L));
+    when(feedbackClient.getRatingChanges(0L, 0L, 3)).thenReturn(
+        new FeedbackRatingChangesResponse(List.of(
+            new FeedbackRatingChangeResponse(1L, 1L, 1L, 5, 1, now),
+            new FeedbackRatingChangeResponse(2L, 2L, 1L, 4, 1, now),
+            new FeedbackRatingChangeResponse(3L, 3L, 1L, 3, 1, now)
+        ), 3L, 100L));
+    when(feedbackClient.getRatingChanges(100L, 3L, 3)).thenReturn(
+        new FeedbackRatingChangesResponse(
+            List.of(new FeedbackRatingChangeResponse(4L, 4L, 2L, 1, 1, now)), 4L, 101L));
+    when(serviceRatingCursorRepository.advance(anyLong(), anyLong(), anyLong(), anyLong()))
+        .thenReturn(1);
+
+    // when
+    serviceRatingUpdater.poll();
+
+    // then
+    verify(serviceRepository).addRatings(1L, 12L, 3);
+    verify(serviceRepository).addRatings(2L, 1L, 1);
+    verify(feedbackClient, times(2)).getRatingChanges(anyLong(), anyLong(), eq(3));
+  }
+
+  private static Optional<ServiceRatingCursor> cursorAt(Long lastTransactionId,
+      Long lastChangeId) {
+    return Optional.of(new ServiceRatingCursor((short) 1, lastChangeId, lastTransactionId));
+  }
+}
@@ -0,0 +1,146 @@
+package com.stepaniuk.service.suggest;
+
+
+import com.stepaniuk.service.ServiceRepository;
+import com.stepaniuk.service.ServiceTitle;
+import com.stepaniuk.service.change.ServiceChange;
+import com.stepaniuk.service.change.ServiceChangeRepository;
+import com.stepaniuk.zrobleno.payload.service.ServiceSuggestionResponse;
+import com.stepaniuk.zrobleno.types.service.ServiceChangeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ServiceTitleIndexTest {
+
+  private final ServiceRepository serviceRepository = mock(ServiceRepository.class);
+  private final ServiceChangeRepository serviceChangeRepository = mock(
+      ServiceChangeRepository.class);
+
+  private ServiceTitleIndex serviceTitleIndex;
+
+  @BeforeEach
+  void setUp() {
+    serviceTitleIndex = new ServiceTitleIndex(serviceRepository, serviceChangeRepository,
+        mock(PlatformTransactionManager.class), 8, 3, 100);
+  }
+
+  @Test
+  void shouldSuggestFuzzyMatchesWhenIndexIsNotLoaded() {
+    // given
+    when(serviceRepository.findSimilarTitles("phne", 3)).thenReturn(
+        List.of(getTitle(1L, "Phone repair", 1)));
+
+    // when
+    var suggestions = serviceTitleIndex.suggest("phne", 3);
+
+    // then
+    assertFalse(serviceTitleIndex.isReady());
+    assertEquals(List.of(new ServiceSuggestionResponse(1L, "Phone repair")), suggestions);
+  }
+
+  @Test
+  void shouldNotQueryDatabaseWhenIndexHasEnoughPrefixMatches() {
+    // given
+    when(serviceChangeRepository.findSnapshotTransactionId()).thenReturn(100L);
+    when(serviceRepository.findAllTitles()).thenReturn(List.of(
+        getTitle(1L, "Phone repair", 1), getTitle(2L, "Phone cleaning", 2),
+        getTitle(3L, "Laptop repair", 3)));
+    serviceTitleIndex.resync();
+
+    // when
+    var suggestions = serviceTitleIndex.suggest("phone", 2);
+
+    // then
+    assertEquals(List.of(new ServiceSuggestionResponse(2L, "Phone cleaning"),
+        new ServiceSuggestionResponse(1L, "Phone repair")), suggestions);
+    verify(serviceRepository, never()).findSimilarTitles(anyString(), anyInt());
+  }
+
+  @Test
+  void shouldFillSuggestionsWithFuzzyMatchesWithoutDuplicates() {
+    // given
+    when(serviceChangeRepository.findSnapshotTransactionId()).thenReturn(100L);
+    when(serviceRepository.findAllTitles()).thenReturn(List.of(getTitle(1L, "Phone repair", 1)));
+    when(serviceRepository.findSimilarTitles("phone", 3)).thenReturn(
+        List.of(getTitle(1L, "Phone repair", 1), getTitle(4L, "Smartphone repair", 1)));
+    serviceTitleIndex.resync();
+
+    // when
+    var suggestions = serviceTitleIndex.suggest("phone", 10);
+
+    // then
+    assertEquals(List.of(new ServiceSuggestionResponse(1L, "Phone repair"),
+        new ServiceSuggestionResponse(4L, "Smartphone repair")), suggestions);
+  }
+
+  @Test
+  void shouldApplyChangedTitlesWhenPolling() {
+    // given
+    when(serviceChangeRepository.findSnapshotTransactionId()).thenReturn(100L);
+    when(serviceRepository.findAllTitles()).thenReturn(List.of(
+        getTitle(1L, "Phone repair", 1), getTitle(2L, "Phone cleaning", 2)));
+    serviceTitleIndex.resync();
+
+    when(serviceChangeRepository.findAllCompletedAfter(100L, 0L, 100)).thenReturn(List.of(
+        new ServiceChange(7L, 1L, ServiceChangeType.UPDATED, Instant.now(), 100L),
+        new ServiceChange(6L, 2L, ServiceChangeType.DELETED, Instant.now(), 101L)));
+    when(serviceRepository.findAllTitlesByIdIn(List.of(1L, 2L))).thenReturn(
+        List.of(getTitle(1L, "Laptop repair", 1)));
+
+    // when
+    serviceTitleIndex.poll();
+
+    // then
+    assertEquals(List.of(new ServiceSuggestionResponse(1L, "Laptop repair")),
+        serviceTitleIndex.suggest("laptop", 3));
+    verify(serviceChangeRepository).findAllCompletedAfter(100L, 0L, 100);
+    assertTrue(serviceTitleIndex.suggest("phone", 3).isEmpty());
+  }
+
+  @Test
+  void shouldContinueAfterLastAppliedChangeWhenPollingAgain() {
+    // given
+    when(serviceChangeRepository.findSnapshotTransactionId()).thenReturn(100L);
+    when(serviceRepository.findAllTitles()).thenReturn(List.of(getTitle(1L, "Phone repair", 1)));
+    serviceTitleIndex.resync();
+
+    when(serviceChangeRepository.findAllCompletedAfter(100L, 0L, 100)).thenReturn(List.of(
+        new ServiceChange(7L, 1L, ServiceChangeType.UPDATED, Instant.now(), 101L)));
+    when(serviceRepository.findAllTitlesByIdIn(List.of(1L))).thenReturn(
+        List.of(getTitle(1L, "Phone repair", 1)));
+    serviceTitleIndex.poll();
+
+    // when
+    serviceTitleIndex.poll();
+
+    // then
+    verify(serviceChangeRepository).findAllCompletedAfter(101L, 7L, 100);
+  }
+
+  private ServiceTitle getTitle(Long id, String title, int priority) {
+    return new ServiceTitle() {
+      @Override
+      public Long getId() {
+        return id;
+      }
+
+      @Override
+      public String getTitle() {
+        return title;
+      }
+
+      @Override
+      public Integer getPriority() {
+        return priority;
+      }
+    };
+  }
+}
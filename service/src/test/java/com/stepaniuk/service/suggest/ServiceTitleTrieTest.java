@@ -0,0 +1,106 @@
+package com.stepaniuk.service.suggest;
+
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceTitleTrieTest {
+
+  @Test
+  void shouldReturnTitlesStartingWithPrefixOrderedByPriority() {
+    // given
+    var trie = new ServiceTitleTrie(8, 10);
+    trie.put(1L, "Phone repair", 1);
+    trie.put(2L, "Phone cleaning", 5);
+    trie.put(3L, "Laptop repair", 9);
+
+    // when
+    var entries = trie.find("PHO", 10);
+
+    // then
+    assertEquals(List.of(2L, 1L), entries.stream().map(ServiceTitleTrie.Entry::id).toList());
+    assertEquals("Phone cleaning", entries.get(0).title());
+  }
+
+  @Test
+  void shouldReturnAtMostLimitTitles() {
+    // given
+    var trie = new ServiceTitleTrie(8, 2);
+    trie.put(1L, "Repair 1", 1);
+    trie.put(2L, "Repair 2", 2);
+    trie.put(3L, "Repair 3", 3);
+
+    // when
+    var entries = trie.find("rep", 10);
+    var limitedEntries = trie.find("rep", 1);
+
+    // then
+    assertEquals(List.of(3L, 2L), entries.stream().map(ServiceTitleTrie.Entry::id).toList());
+    assertEquals(List.of(3L), limitedEntries.stream().map(ServiceTitleTrie.Entry::id).toList());
+  }
+
+  @Test
+  void shouldMatchPrefixesLongerThanTreeDepth() {
+    // given
+    var trie = new ServiceTitleTrie(3, 10);
+    trie.put(1L, "Phone repair", 1);
+    trie.put(2L, "Phone cleaning", 2);
+    trie.put(3L, "Pho", 3);
+
+    // when
+    var entries = trie.find("phone r", 10);
+    var shortEntries = trie.find("pho", 10);
+
+    // then
+    assertEquals(List.of(1L), entries.stream().map(ServiceTitleTrie.Entry::id).toList());
+    assertEquals(List.of(3L, 2L, 1L),
+        shortEntries.stream().map(ServiceTitleTrie.Entry::id).toList());
+  }
+
+  @Test
+  void shouldReplaceTitleWhenPuttingSameIdAgain() {
+    // given
+    var trie = new ServiceTitleTrie(8, 10);
+    trie.put(1L, "Phone repair", 1);
+
+    // when
+    trie.put(1L, "Laptop repair", 1);
+
+    // then
+    assertEquals(1, trie.size());
+    assertTrue(trie.find("phone", 10).isEmpty());
+    assertEquals(1L, trie.find("laptop", 10).get(0).id());
+  }
+
+  @Test
+  void shouldPromoteNextTitleWhenTopTitleIsRemoved() {
+    // given
+    var trie = new ServiceTitleTrie(8, 1);
+    trie.put(1L, "Phone repair", 1);
+    trie.put(2L, "Phone cleaning", 5);
+
+    // when
+    trie.remove(2L);
+
+    // then
+    assertEquals(List.of(1L), trie.find("p", 10).stream().map(ServiceTitleTrie.Entry::id).toList());
+  }
+
+  @Test
+  void shouldReturnNothingWhenNoTitleStartsWithPrefix() {
+    // given
+    var trie = new ServiceTitleTrie(8, 10);
+    trie.put(1L, "Phone repair", 1);
+
+    // when
+    trie.remove(1L);
+
+    // then
+    assertTrue(trie.find("phone", 10).isEmpty());
+    assertTrue(trie.find("laptop", 10).isEmpty());
+    assertEquals(0, trie.size());
+  }
+}
@@ -0,0 +1,10 @@
+INSERT INTO services (id, category_id, owner_id, title, description, image_urls,
+                      price, priority,
+                      created_at, last_modified_at)
+SELECT i, 1 + i % 20, 'b869fce1-f221-45bc-9363-f3bec945ac12',
+       'Title ' || i, 'Description ' || i, ARRAY ['https://image.com/' || i],
+       (i * 7919) % 1000, i % 10,
+       '2023-11-24T16:22:09.266615Z', '2023-11-25T17:28:19.266615Z'
+FROM generate_series(1, 50000) AS i;
+
+ANALYZE services;